@@ -1,4 +1,45 @@
 <?xml version="1.0" encoding="UTF-8"?>
 <tileset version="1.10" tiledversion="1.11.2" name="colored_packed" tilewidth="16" tileheight="16" tilecount="1078" columns="49">
  <image source="../spritesheets/colored_packed.png" width="784" height="352"/>
+ <tile id="0">
+  <properties>
+   <property name="terrainType" value="grassland"/>
+  </properties>
+ </tile>
+ <tile id="1">
+  <properties>
+   <property name="terrainType" value="grassland"/>
+  </properties>
+ </tile>
+ <tile id="5">
+  <properties>
+   <property name="terrainType" value="grassland"/>
+  </properties>
+ </tile>
+ <tile id="6">
+  <properties>
+   <property name="terrainType" value="grassland"/>
+  </properties>
+ </tile>
+ <tile id="7">
+  <properties>
+   <property name="terrainType" value="grassland"/>
+  </properties>
+ </tile>
+ <tile id="49">
+  <properties>
+   <property name="terrainType" value="forest"/>
+  </properties>
+ </tile>
+ <tile id="51">
+  <properties>
+   <property name="terrainType" value="forest"/>
+  </properties>
+ </tile>
+ <tile id="52">
+  <properties>
+   <property name="opaque" type="bool" value="true"/>
+   <property name="terrainType" value="forest"/>
+  </properties>
+ </tile>
 </tileset>
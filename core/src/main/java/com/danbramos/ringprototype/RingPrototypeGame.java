@@ -2,14 +2,17 @@ package com.danbramos.ringprototype;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetErrorListener;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.utils.TextureRegionDrawable;
-import com.badlogic.gdx.utils.ObjectMap;
 import com.danbramos.ringprototype.party.ClassData;
 import com.danbramos.ringprototype.party.PartyManager;
 import com.danbramos.ringprototype.party.DefaultPartyManager;
@@ -23,40 +26,93 @@ import com.danbramos.ringprototype.resources.DefaultResourceManager; // Import D
 import com.badlogic.gdx.utils.Array;
 import com.danbramos.ringprototype.battle.skills.SkillData;
 import com.danbramos.ringprototype.setup.GameSetup; // Import the new setup class
+import com.danbramos.ringprototype.util.PhaseTimer;
+import com.danbramos.ringprototype.assets.GameAssets;
+import com.danbramos.ringprototype.maps.MapCache;
+import com.danbramos.ringprototype.screens.LoadingScreen;
+import com.danbramos.ringprototype.screens.MapRenderBenchmarkScreen;
+import com.danbramos.ringprototype.screens.RenderOnDemand;
+import com.danbramos.ringprototype.screens.ScreenRegistry;
+import com.danbramos.ringprototype.graphics.IconAtlas;
+import com.danbramos.ringprototype.debug.PerformanceOverlay;
+import com.danbramos.ringprototype.world.WorldSimulation;
 
 /**
  * Main game class that handles game initialization and resource management
  */
 public class RingPrototypeGame extends Game {
+    /** System property that makes the game exit as soon as MapScreen has been shown. */
+    public static final String SMOKE_TEST_PROPERTY = "ringprototype.smokeTest";
+    /** System property that keeps continuous rendering on for every screen when set to false. */
+    public static final String RENDER_ON_DEMAND_PROPERTY = "ringprototype.renderOnDemand";
+    /** Local file that receives one JSON line of startup phase timings per launch. */
+    public static final String STARTUP_TIMINGS_FILE = "startup-timings.jsonl";
+
     public SpriteBatch batch;
+    // Debug overlay (F3 or the pause menu); screens time their subsystems through its sections
+    public PerformanceOverlay perf;
     public AssetManager assetManager;
-    // Map to store dynamically generated textures
-    private ObjectMap<String, TextureRegion> dynamicTextures;
+    // Parsed maps and their derived data, shared across screen transitions
+    public MapCache mapCache;
+    // Long-lived and pooled screens; use it instead of constructing MapScreen/PartyScreen/BattleScreen
+    public ScreenRegistry screens;
+    // Dynamically generated icons, packed into shared texture pages
+    private IconAtlas iconAtlas;
     public PartyManager partyManager;
     public ResourceManager resourceManager;
+    // Overworld clock: rations, firewood, hope, recovery and random events per travel step or rest
+    public WorldSimulation world;
     public Skin skin;
+    // The fallback skin is built in code and not owned by the AssetManager
+    private boolean usingFallbackSkin;
     public Texture characterSheet;
     public Array<Enemy> currentBattleEnemies;
+    // Startup phases, summarized at the end of create(); null once startup is done
+    private PhaseTimer startupTimer;
+    // Times each later screen transition on its own
+    private PhaseTimer screenTimer;
+    // Whether RenderOnDemand screens may turn continuous rendering off
+    private boolean renderOnDemand;
 
     @Override
     public void create() {
+        startupTimer = new PhaseTimer("Startup");
+        screenTimer = new PhaseTimer("Screen");
+        renderOnDemand = Boolean.parseBoolean(System.getProperty(RENDER_ON_DEMAND_PROPERTY, "true"));
+        startupTimer.begin("core objects");
         batch = new SpriteBatch();
+        perf = new PerformanceOverlay(batch);
         assetManager = new AssetManager();
-        dynamicTextures = new ObjectMap<>();
+        GameAssets.registerLoaders(assetManager);
+        // Without a listener a missing file throws from update(); log it instead and fall back per asset
+        assetManager.setErrorListener(new AssetErrorListener() {
+            @Override
+            public void error(AssetDescriptor asset, Throwable throwable) {
+                Gdx.app.error("RingPrototypeGame", "Could not load asset '" + asset.fileName + "'.", throwable);
+            }
+        });
+        mapCache = new MapCache(assetManager);
+        screens = new ScreenRegistry(this);
+        iconAtlas = new IconAtlas();
         partyManager = new DefaultPartyManager();
         resourceManager = new DefaultResourceManager();
+        world = new WorldSimulation(partyManager, resourceManager);
         currentBattleEnemies = new Array<>();
 
         // Initialize the data systems first so other systems can use them
+        startupTimer.begin("ClassData");
         ClassData.getInstance();
         Gdx.app.log("RingPrototypeGame", "ClassData initialized");
 
+        startupTimer.begin("EnemyData");
         EnemyData.getInstance();
         Gdx.app.log("RingPrototypeGame", "EnemyData initialized");
 
+        startupTimer.begin("QuestManager");
         QuestManager.getInstance();
         Gdx.app.log("RingPrototypeGame", "QuestManager initialized");
 
+        startupTimer.begin("SkillData");
         SkillData skillData = SkillData.getInstance();
         Gdx.app.log("RingPrototypeGame", "SkillData initialized");
 
@@ -72,27 +128,46 @@ public class RingPrototypeGame extends Game {
         }
         Gdx.app.log("RingPrototypeGame", skillsLog.toString());
 
-        // Load assets (basic for now)
-        try {
-            characterSheet = new Texture(Gdx.files.internal("spritesheets/colored-transparent_packed.png"));
+        // Textures, the skin and maps load asynchronously; LoadingScreen calls onAssetsLoaded() when done
+        startupTimer.begin("queue assets");
+        GameAssets.queueAll(assetManager);
+        this.setScreen(new LoadingScreen(this));
+        // Spans several frames, so it includes frame pacing as well as the loading itself
+        startupTimer.begin("asset loading");
+    }
+
+    /**
+     * Finishes startup once the AssetManager has loaded everything queued in create():
+     * builds the game state and shows the MapScreen.
+     */
+    public void onAssetsLoaded() {
+        startupTimer.begin("character sheet");
+        if (assetManager.isLoaded(GameAssets.CHARACTER_SHEET)) {
+            characterSheet = assetManager.get(GameAssets.CHARACTER_SHEET);
             Gdx.app.log("RingPrototypeGame", "Character sheet loaded successfully.");
-        } catch (Exception e) {
-            Gdx.app.error("RingPrototypeGame", "Could not load character spritesheet.", e);
+        } else {
+            Gdx.app.error("RingPrototypeGame", "Could not load character spritesheet.");
         }
         
         // Load battle UI assets
+        startupTimer.begin("battle UI assets");
         loadBattleUIAssets();
 
-        try {
-            skin = new Skin(Gdx.files.internal("ui/uiskin.json"));
+        startupTimer.begin("UI skin");
+        if (assetManager.isLoaded(GameAssets.UI_SKIN)) {
+            skin = assetManager.get(GameAssets.UI_SKIN);
             Gdx.app.log("RingPrototypeGame", "UI Skin loaded successfully.");
-        } catch (Exception e) {
-            Gdx.app.error("RingPrototypeGame", "Could not load UI skin. Ensure 'ui/uiskin.json' and its dependencies are in assets.", e);
+        } else {
+            Gdx.app.error("RingPrototypeGame", "Could not load UI skin. Ensure 'ui/uiskin.json' and its dependencies are in assets.");
             skin = createFallbackSkin();
+            usingFallbackSkin = true;
             Gdx.app.log("RingPrototypeGame", "Using fallback UI skin.");
         }
 
+        SkillData skillData = SkillData.getInstance();
+
         // Initialize game state using the new setup class
+        startupTimer.begin("game setup");
         GameSetup gameSetup = new GameSetup();
         gameSetup.initializeInitialResources(resourceManager);
         gameSetup.initializeInitialParty(partyManager, skillData, characterSheet);
@@ -101,8 +176,29 @@ public class RingPrototypeGame extends Game {
         // Finalize setup specific to RingPrototypeGame
         initializeGameData();
 
+        // Benchmark runs (see the mapRenderBenchmark Gradle task) replace the game with a map rendering scene
+        if (Boolean.getBoolean(MapRenderBenchmarkScreen.BENCHMARK_PROPERTY)) {
+            startupTimer.end();
+            startupTimer = null;
+            this.setScreen(new MapRenderBenchmarkScreen(this));
+            return;
+        }
+
         Gdx.app.log("RingPrototypeGame", "Game created, setting MapScreen.");
-        this.setScreen(new MapScreen(this));
+        startupTimer.begin("MapScreen construct");
+        MapScreen mapScreen = screens.getMapScreen();
+        startupTimer.end();
+        this.setScreen(mapScreen); // show() is timed by setScreen
+
+        startupTimer.logSummary();
+        startupTimer.appendJson(Gdx.files.local(STARTUP_TIMINGS_FILE));
+        startupTimer = null;
+
+        // Smoke tests (see the nativeSmokeTest Gradle task) only need to reach the first screen
+        if (Boolean.getBoolean(SMOKE_TEST_PROPERTY)) {
+            Gdx.app.log("RingPrototypeGame", "Smoke test reached MapScreen, exiting.");
+            Gdx.app.exit();
+        }
     }
     
     /**
@@ -119,18 +215,18 @@ public class RingPrototypeGame extends Game {
             createStatusEffectIcon("status_burn", 0.8f, 0.2f, 0, 1);
             createStatusEffectIcon("status_stun", 0.8f, 0.8f, 0, 1);
             createStatusEffectIcon("status_slow", 0, 0, 0.8f, 1);
-            createStatusEffectIcon("status_defense", 0, 0.8f, 0, 1);
-            createStatusEffectIcon("status_nimble", 0.8f, 0, 0.8f, 1);
+            createStatusEffectIcon("status_damage_reduction", 0, 0.8f, 0, 1);
+            createStatusEffectIcon("status_nimble_movement_active", 0.8f, 0, 0.8f, 1);
             createStatusEffectIcon("status_generic", 0.7f, 0.7f, 0.7f, 1);
             
-            Gdx.app.log("RingPrototypeGame", "Battle UI assets loaded successfully.");
+            Gdx.app.log("RingPrototypeGame", "Battle UI assets loaded successfully (" + iconAtlas.getPageCount() + " atlas page(s)).");
         } catch (Exception e) {
             Gdx.app.error("RingPrototypeGame", "Failed to load battle UI assets. Using placeholder textures.", e);
         }
     }
     
     /**
-     * Creates a turn indicator icon and stores it in the dynamic textures map
+     * Creates a turn indicator icon and packs it into the icon atlas
      */
     private void createTurnIndicator(String key, boolean isPlayerTurn) {
         com.badlogic.gdx.graphics.Pixmap pixmap = new com.badlogic.gdx.graphics.Pixmap(16, 16, com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
@@ -140,40 +236,35 @@ public class RingPrototypeGame extends Game {
         pixmap.fillTriangle(8, 2, 2, 10, 14, 10);
         pixmap.fillRectangle(6, 8, 4, 6);
         
-        Texture iconTexture = new Texture(pixmap);
+        iconAtlas.add(key, pixmap);
         pixmap.dispose();
-        
-        // Store for future use
-        dynamicTextures.put(key, new TextureRegion(iconTexture));
     }
     
     /**
-     * Creates a status effect icon and stores it in the dynamic textures map
+     * Creates a status effect icon and packs it into the icon atlas
      */
     private void createStatusEffectIcon(String key, float r, float g, float b, float a) {
         com.badlogic.gdx.graphics.Pixmap pixmap = new com.badlogic.gdx.graphics.Pixmap(16, 16, com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888);
         pixmap.setColor(r, g, b, a);
         pixmap.fillCircle(8, 8, 7);
         
-        Texture iconTexture = new Texture(pixmap);
+        iconAtlas.add(key, pixmap);
         pixmap.dispose();
-        
-        // Store for future use
-        dynamicTextures.put(key, new TextureRegion(iconTexture));
     }
     
     /**
      * Gets a dynamic texture by key, or null if it doesn't exist
      */
     public TextureRegion getDynamicTexture(String key) {
-        return dynamicTextures.get(key);
+        return iconAtlas.get(key);
     }
     
     /**
-     * Stores a dynamic texture for later use
+     * Packs a generated icon into the shared atlas for later use.
+     * The pixmap is copied, so the caller still disposes it.
      */
-    public void addDynamicTexture(String key, TextureRegion region) {
-        dynamicTextures.put(key, region);
+    public void addDynamicTexture(String key, Pixmap pixmap) {
+        iconAtlas.add(key, pixmap);
     }
 
     /**
@@ -267,33 +358,76 @@ public class RingPrototypeGame extends Game {
         return skin;
     }
 
+    /**
+     * Sets the screen and times the hide/show transition, so slow show() methods appear in the timings.
+     * The previous screen is handed to the {@link ScreenRegistry}, which pools or disposes it as needed.
+     */
+    @Override
+    public void setScreen(Screen screen) {
+        Screen previous = this.screen;
+        if (screen == null || screenTimer == null) {
+            super.setScreen(screen);
+        } else {
+            // During create() the transition becomes part of the startup summary
+            PhaseTimer timer = startupTimer != null ? startupTimer : screenTimer;
+            timer.begin("show " + screen.getClass().getSimpleName());
+            super.setScreen(screen);
+            PhaseTimer.Phase phase = timer.end();
+            Gdx.app.debug("RingPrototypeGame", String.format("%s took %.2f ms, allocated %d KB",
+                phase.name, phase.nanos / 1_000_000.0, phase.allocatedBytes / 1024));
+            screenTimer.clear();
+        }
+        if (previous != null && previous != screen && screens != null) {
+            screens.release(previous);
+        }
+        // The new screen needs at least one frame even if it renders on demand
+        Gdx.graphics.requestRendering();
+    }
+
     @Override
     public void render() {
+        // Screens released during the last frame are pooled or disposed before anything renders
+        screens.processReleased();
+        perf.beginFrame();
         super.render();
+        perf.endFrame();
+        perf.draw();
+        updateRenderingMode();
+    }
+
+    /**
+     * Renders continuously unless the current screen is an idle {@link RenderOnDemand} screen, in which case
+     * frames are only drawn when input, posted runnables or Scene2D actions request them.
+     * The performance overlay needs a steady stream of frames, so it keeps rendering continuous while shown.
+     */
+    private void updateRenderingMode() {
+        boolean continuous = !renderOnDemand
+            || !(screen instanceof RenderOnDemand)
+            || ((RenderOnDemand) screen).isAnimating()
+            || perf.isVisible();
+        if (Gdx.graphics.isContinuousRendering() != continuous) {
+            Gdx.graphics.setContinuousRendering(continuous);
+        }
     }
 
     @Override
     public void dispose() {
         Gdx.app.log("RingPrototypeGame", "Game disposed.");
         if (screen != null) {
-            screen.dispose();
+            screen.hide();
         }
+        screens.dispose(screen);
+        perf.dispose();
         batch.dispose();
+        mapCache.dispose();
+        // Disposes every loaded asset, including the character sheet and the skin
         assetManager.dispose();
         
-        // Dispose all dynamic textures
-        for (TextureRegion region : dynamicTextures.values()) {
-            if (region.getTexture() != null) {
-                region.getTexture().dispose();
-            }
-        }
-        dynamicTextures.clear();
+        // Dispose the atlas pages holding all dynamic textures
+        iconAtlas.dispose();
         
-        if (skin != null) {
+        if (skin != null && usingFallbackSkin) {
             skin.dispose();
         }
-        if (characterSheet != null) {
-            characterSheet.dispose();
-        }
     }
 }
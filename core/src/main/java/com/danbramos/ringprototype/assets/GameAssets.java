@@ -0,0 +1,56 @@
+package com.danbramos.ringprototype.assets;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.danbramos.ringprototype.maps.RegionFile;
+
+/**
+ * Descriptors for every file-backed asset the game uses.
+ * They are queued on the game's {@link AssetManager} at startup and loaded by
+ * {@link com.danbramos.ringprototype.screens.LoadingScreen}, except the overworld when it has a region file.
+ * The texture and skin are held for the whole session; screens borrow them with {@code assetManager.get(...)}
+ * and must not dispose them. The maps are owned by {@link com.danbramos.ringprototype.maps.MapCache},
+ * which may unload them when it evicts them, so screens get them from the cache rather than the manager.
+ * The skin's fonts and atlas are dependencies of {@link #UI_SKIN} and are loaded and counted along with it.
+ */
+public final class GameAssets {
+    public static final AssetDescriptor<Texture> CHARACTER_SHEET =
+        new AssetDescriptor<>("spritesheets/colored-transparent_packed.png", Texture.class);
+    public static final AssetDescriptor<Skin> UI_SKIN =
+        new AssetDescriptor<>("ui/uiskin.json", Skin.class);
+    public static final AssetDescriptor<TiledMap> OVERWORLD_MAP =
+        new AssetDescriptor<>("tilemaps/overworld.tmx", TiledMap.class);
+    public static final AssetDescriptor<TiledMap> BATTLE_MAP =
+        new AssetDescriptor<>("tilemaps/battle_map.tmx", TiledMap.class);
+
+    private GameAssets() {
+    }
+
+    /**
+     * Registers the loaders the default AssetManager lacks (TMX maps)
+     * @param assetManager The manager to configure
+     */
+    public static void registerLoaders(AssetManager assetManager) {
+        assetManager.setLoader(TiledMap.class, new TmxMapLoader(new InternalFileHandleResolver()));
+    }
+
+    /**
+     * Queues every asset for asynchronous loading; call {@link AssetManager#update(int)} to make progress.
+     * The overworld is left out when it has a region file, which the MapCache serves it from instead.
+     * @param assetManager The manager to queue on
+     */
+    public static void queueAll(AssetManager assetManager) {
+        assetManager.load(CHARACTER_SHEET);
+        assetManager.load(UI_SKIN);
+        if (!Gdx.files.internal(RegionFile.pathFor(OVERWORLD_MAP.fileName)).exists()) {
+            assetManager.load(OVERWORLD_MAP);
+        }
+        assetManager.load(BATTLE_MAP);
+    }
+}
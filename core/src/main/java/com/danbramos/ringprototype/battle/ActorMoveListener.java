@@ -0,0 +1,14 @@
+package com.danbramos.ringprototype.battle;
+
+/**
+ * Notified when a combatant changes tiles during a battle, so hover and selection state can follow without
+ * scanning every actor each frame
+ */
+public interface ActorMoveListener {
+    /**
+     * @param actor The actor that moved, already at its new position
+     * @param oldX Tile x before the move
+     * @param oldY Tile y before the move
+     */
+    void onActorMoved(IBattleActor actor, float oldX, float oldY);
+}
@@ -0,0 +1,20 @@
+package com.danbramos.ringprototype.battle;
+
+/**
+ * Notified when a combatant's HP or mana changes during a battle, so UI can refresh only what changed
+ */
+public interface ActorStatListener {
+    /**
+     * @param actor The actor whose HP changed
+     * @param oldHp HP before the change
+     * @param newHp HP after the change
+     */
+    void onHpChanged(IBattleActor actor, int oldHp, int newHp);
+
+    /**
+     * @param character The character whose mana changed
+     * @param oldMana Mana before the change
+     * @param newMana Mana after the change
+     */
+    void onManaChanged(BattleCharacter character, int oldMana, int newMana);
+}
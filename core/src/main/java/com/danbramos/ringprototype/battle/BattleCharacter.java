@@ -17,6 +17,8 @@ public class BattleCharacter implements IBattleActor {
     private boolean hasPerformedMajorActionThisTurn;
     private int remainingMovement; // Track remaining movement
     private List<StatusEffect> activeEffects;
+    private ActorStatListener statListener;
+    private ActorMoveListener moveListener;
 
     public BattleCharacter(GameCharacter sourceCharacter) {
         this.sourceCharacter = sourceCharacter;
@@ -44,7 +46,21 @@ public class BattleCharacter implements IBattleActor {
 
     @Override
     public void setBattleMapPosition(float x, float y) {
+        float oldX = battleMapPosition.x;
+        float oldY = battleMapPosition.y;
         this.battleMapPosition.set(x, y);
+        if (moveListener != null && (oldX != x || oldY != y)) {
+            moveListener.onActorMoved(this, oldX, oldY);
+        }
+    }
+
+    /**
+     * Sets the listener told when this actor changes tiles
+     * @param moveListener The listener, or null to stop notifications
+     */
+    @Override
+    public void setMoveListener(ActorMoveListener moveListener) {
+        this.moveListener = moveListener;
     }
 
     @Override
@@ -72,12 +88,38 @@ public class BattleCharacter implements IBattleActor {
         }
         modifiedAmount = Math.max(0, modifiedAmount); // Ensure damage is not negative
 
+        int oldHp = this.currentBattleHp;
         this.currentBattleHp -= modifiedAmount;
         if (this.currentBattleHp < 0) {
             this.currentBattleHp = 0;
         }
         // Damage is applied to this battle instance.
         // Applying it to sourceCharacter happens post-battle.
+        if (statListener != null && oldHp != currentBattleHp) {
+            statListener.onHpChanged(this, oldHp, currentBattleHp);
+        }
+    }
+
+    /**
+     * Sets the listener told about HP and mana changes, e.g. the battle UI
+     * @param statListener The listener, or null to stop notifications
+     */
+    @Override
+    public void setStatListener(ActorStatListener statListener) {
+        this.statListener = statListener;
+    }
+
+    /**
+     * Spends mana from the source character, which keeps it after the battle
+     * @param amount The mana to spend
+     */
+    public void spendMana(int amount) {
+        int oldMana = sourceCharacter.getManaPoints();
+        sourceCharacter.setManaPoints(oldMana - amount);
+        int newMana = sourceCharacter.getManaPoints(); // The character clamps the value
+        if (statListener != null && oldMana != newMana) {
+            statListener.onManaChanged(this, oldMana, newMana);
+        }
     }
 
     @Override
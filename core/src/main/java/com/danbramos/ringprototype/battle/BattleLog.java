@@ -0,0 +1,219 @@
+package com.danbramos.ringprototype.battle;
+
+/**
+ * The record of what happened in a battle, kept as structured entries in a fixed-capacity ring buffer.
+ * <p>
+ * Entries store who did what (actor, target, skill, amount) and a template type instead of finished text.
+ * Text is only built by {@link Entry#format(StringBuilder)} when a view actually shows the entry, and once
+ * the buffer is full each new entry reuses the slot of the oldest one, so memory stays the same however
+ * long the battle runs.
+ */
+public class BattleLog {
+    public static final int DEFAULT_CAPACITY = 128;
+
+    /**
+     * How an entry is turned into text
+     */
+    public enum EntryType {
+        MESSAGE,          // Free text in detail
+        SKILL_USED,       // actor uses skill (on target)
+        SKILL_NO_TARGET,  // actor uses skill but hits nothing
+        NOT_ENOUGH_MANA,  // actor lacks mana for skill
+        DAMAGE,           // target takes amount damage
+        NO_DAMAGE,        // target takes no damage
+        ATTACK,           // actor attacks target for amount damage
+        STATUS_APPLIED,   // target is now detail
+        DEFEATED          // target has been defeated
+    }
+
+    /**
+     * One log line. Instances belong to the log and are overwritten when the buffer wraps,
+     * so don't keep references to them.
+     */
+    public static class Entry {
+        private EntryType type;
+        private String actorName;
+        private String targetName;
+        private String skillName;
+        private int amount;
+        private String detail;
+
+        void set(EntryType type, String actorName, String targetName, String skillName, int amount, String detail) {
+            this.type = type;
+            this.actorName = actorName;
+            this.targetName = targetName;
+            this.skillName = skillName;
+            this.amount = amount;
+            this.detail = detail;
+        }
+
+        public EntryType getType() {
+            return type;
+        }
+
+        public String getActorName() {
+            return actorName;
+        }
+
+        public String getTargetName() {
+            return targetName;
+        }
+
+        public String getSkillName() {
+            return skillName;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        /**
+         * Appends this entry's text
+         * @param out The builder to append to
+         * @return The same builder
+         */
+        public StringBuilder format(StringBuilder out) {
+            switch (type) {
+                case SKILL_USED:
+                    out.append(actorName).append(" uses ").append(skillName);
+                    if (targetName != null) out.append(" on ").append(targetName).append('.');
+                    else out.append('!');
+                    break;
+                case SKILL_NO_TARGET:
+                    out.append(actorName).append(" uses ").append(skillName).append(" but hits nothing!");
+                    break;
+                case NOT_ENOUGH_MANA:
+                    out.append(actorName).append(" does not have enough mana for ").append(skillName).append('!');
+                    break;
+                case DAMAGE:
+                    out.append(targetName).append(" takes ").append(amount).append(" damage!");
+                    break;
+                case NO_DAMAGE:
+                    out.append(targetName).append(" takes no damage.");
+                    break;
+                case ATTACK:
+                    out.append(actorName).append(" attacks ").append(targetName)
+                        .append(" for ").append(amount).append(" damage!");
+                    break;
+                case STATUS_APPLIED:
+                    out.append(targetName).append(" is now ").append(detail);
+                    if (amount > 0) out.append(" (").append(amount).append(')');
+                    out.append('!');
+                    break;
+                case DEFEATED:
+                    out.append(targetName).append(" has been defeated!");
+                    break;
+                case MESSAGE:
+                default:
+                    out.append(detail);
+                    break;
+            }
+            return out;
+        }
+    }
+
+    private final Entry[] entries;
+    private int head;  // Slot of the oldest entry
+    private int size;
+    private long version;
+
+    public BattleLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BattleLog(int capacity) {
+        entries = new Entry[Math.max(1, capacity)];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new Entry();
+        }
+    }
+
+    private void add(EntryType type, String actorName, String targetName, String skillName, int amount, String detail) {
+        int slot;
+        if (size < entries.length) {
+            slot = (head + size) % entries.length;
+            size++;
+        } else {
+            // Full: the oldest entry's slot becomes the newest
+            slot = head;
+            head = (head + 1) % entries.length;
+        }
+        entries[slot].set(type, actorName, targetName, skillName, amount, detail);
+        version++;
+    }
+
+    public void message(String text) {
+        add(EntryType.MESSAGE, null, null, null, 0, text);
+    }
+
+    public void skillUsed(IBattleActor caster, String skillName, IBattleActor target) {
+        add(EntryType.SKILL_USED, caster.getName(), target != null ? target.getName() : null, skillName, 0, null);
+    }
+
+    public void skillNoTarget(IBattleActor caster, String skillName) {
+        add(EntryType.SKILL_NO_TARGET, caster.getName(), null, skillName, 0, null);
+    }
+
+    public void notEnoughMana(IBattleActor caster, String skillName) {
+        add(EntryType.NOT_ENOUGH_MANA, caster.getName(), null, skillName, 0, null);
+    }
+
+    /**
+     * Logs damage taken, or that none was taken when the amount is not positive
+     */
+    public void damage(IBattleActor target, int amount) {
+        add(amount > 0 ? EntryType.DAMAGE : EntryType.NO_DAMAGE, null, target.getName(), null, amount, null);
+    }
+
+    public void attack(IBattleActor attacker, IBattleActor target, int amount) {
+        add(EntryType.ATTACK, attacker.getName(), target.getName(), null, amount, null);
+    }
+
+    /**
+     * @param value Shown after the effect name when positive, e.g. the damage reduction
+     */
+    public void statusApplied(IBattleActor target, String effectType, int value) {
+        add(EntryType.STATUS_APPLIED, null, target.getName(), null, value, effectType);
+    }
+
+    public void defeated(IBattleActor target) {
+        add(EntryType.DEFEATED, null, target.getName(), null, 0, null);
+    }
+
+    /**
+     * Gets an entry by age
+     * @param index 0 for the oldest entry still held, size() - 1 for the newest
+     * @return The entry
+     */
+    public Entry get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        return entries[(head + index) % entries.length];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Gets a counter that changes whenever an entry is added or the log is cleared, so views can skip
+     * formatting when nothing happened
+     * @return The current version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+        version++;
+    }
+}
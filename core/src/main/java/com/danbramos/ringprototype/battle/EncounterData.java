@@ -0,0 +1,133 @@
+package com.danbramos.ringprototype.battle;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Json;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that loads the encounter tables from JSON files and finds the one for a place on the overworld
+ */
+public class EncounterData {
+    private static final String ANY = "";
+
+    // Tables keyed by region and terrain, see key(); "" stands for any
+    private final Map<String, EncounterTable> tables;
+    private EncounterTable fallbackTable;
+
+    // Singleton instance
+    private static EncounterData instance;
+
+    /**
+     * Get the singleton instance of EncounterData
+     * @return The EncounterData instance
+     */
+    public static EncounterData getInstance() {
+        if (instance == null) {
+            instance = new EncounterData();
+        }
+        return instance;
+    }
+
+    /**
+     * Private constructor - loads encounter tables
+     */
+    private EncounterData() {
+        tables = new HashMap<>();
+        loadEncounterTables();
+    }
+
+    /**
+     * Load all encounter tables from JSON files in the data/encounters directory
+     */
+    private void loadEncounterTables() {
+        FileHandle encountersDir = Gdx.files.internal("data/encounters");
+        if (!encountersDir.exists()) {
+            Gdx.app.error("EncounterData", "Encounters directory not found: " + encountersDir.path());
+            return;
+        }
+
+        Json json = new Json();
+        json.setTypeName(null);
+        json.setUsePrototypes(false);
+        json.setIgnoreUnknownFields(true);
+        for (FileHandle fileHandle : encountersDir.list(".json")) {
+            if (fileHandle.name().equals("encounter-schema.json")) {
+                continue;
+            }
+
+            try {
+                EncounterTable table = json.fromJson(EncounterTable.class, fileHandle);
+                if (table == null || !table.build()) {
+                    Gdx.app.error("EncounterData", "Encounter table " + fileHandle.path() + " has no enemies with a weight, skipping it");
+                    continue;
+                }
+                String key = key(table.getRegion(), table.getTerrain());
+                EncounterTable previous = tables.put(key, table);
+                if (previous != null) {
+                    Gdx.app.error("EncounterData", "Encounter tables '" + previous.getId() + "' and '" + table.getId()
+                        + "' cover the same region and terrain; using '" + table.getId() + "'");
+                }
+                Gdx.app.debug("EncounterData", "Loaded encounter table: " + table.getId());
+            } catch (Exception e) {
+                Gdx.app.error("EncounterData", "Error loading encounter table from " + fileHandle.path(), e);
+            }
+        }
+
+        Gdx.app.log("EncounterData", "Loaded " + tables.size() + " encounter tables");
+    }
+
+    /**
+     * Finds the most specific table for a place: region and terrain, then region only, then terrain only,
+     * then the table for anywhere
+     * @param region Region id at the party's position, or null outside every region
+     * @param terrain Terrain type at the party's position, or null if the tile has none
+     * @return The table; never null, a uniform table over all enemies is used if nothing matches
+     */
+    public EncounterTable getTable(String region, String terrain) {
+        EncounterTable table = null;
+        if (region != null && terrain != null) table = tables.get(key(region, terrain));
+        if (table == null && region != null) table = tables.get(key(region, null));
+        if (table == null && terrain != null) table = tables.get(key(null, terrain));
+        if (table == null) table = tables.get(key(null, null));
+        return table != null ? table : getFallbackTable();
+    }
+
+    /**
+     * Get all loaded encounter tables
+     * @return A list of all encounter tables
+     */
+    public List<EncounterTable> getAllEncounterTables() {
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * Every known enemy with the same weight, for when no table matches (e.g. data/encounters is missing)
+     */
+    private EncounterTable getFallbackTable() {
+        if (fallbackTable == null) {
+            Gdx.app.error("EncounterData", "No encounter table for anywhere, picking uniformly from all enemies");
+            fallbackTable = new EncounterTable();
+            fallbackTable.setId("fallback");
+            List<EncounterTable.Entry> entries = new ArrayList<>();
+            for (EnemyData.EnemyDefinition definition : EnemyData.getInstance().getAllEnemyDefinitions()) {
+                entries.add(new EncounterTable.Entry(definition.getId(), 1f));
+            }
+            if (entries.isEmpty()) {
+                // BattleScreen still has built-in stats for this one
+                entries.add(new EncounterTable.Entry("orc_grunt", 1f));
+            }
+            fallbackTable.setEntries(entries);
+            fallbackTable.build();
+        }
+        return fallbackTable;
+    }
+
+    private static String key(String region, String terrain) {
+        return (region != null ? region : ANY) + '|' + (terrain != null ? terrain : ANY);
+    }
+}
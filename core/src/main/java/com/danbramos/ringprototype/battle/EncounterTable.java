@@ -0,0 +1,155 @@
+package com.danbramos.ringprototype.battle;
+
+import com.danbramos.ringprototype.util.AliasTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * A weighted list of the enemies that can turn up in one region and terrain, loaded from data/encounters.
+ * Enemies are drawn with an {@link AliasTable}, so a roll costs the same however long the list is.
+ */
+public class EncounterTable {
+    public static final int DEFAULT_MIN_ENEMIES = 2;
+    public static final int DEFAULT_MAX_ENEMIES = 3;
+
+    private String id;
+    private String region; // Region id from the overworld's "Macro regions" layer; null for any region
+    private String terrain; // "terrainType" tile property; null for any terrain
+    private int minEnemies = DEFAULT_MIN_ENEMIES;
+    private int maxEnemies = DEFAULT_MAX_ENEMIES;
+    private List<Entry> entries;
+
+    // Built from the entries once loaded
+    private transient String[] enemyIds;
+    private transient AliasTable aliasTable;
+
+    // Default constructor for JSON deserialization
+    public EncounterTable() {
+        entries = new ArrayList<>();
+    }
+
+    /**
+     * Builds the sampling table from the entries; entries without an enemy or with no weight are dropped
+     * @return False if no entry is left, in which case the table can't be rolled
+     */
+    boolean build() {
+        List<Entry> usable = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry != null && entry.getEnemyId() != null && entry.getWeight() > 0) {
+                usable.add(entry);
+            }
+        }
+        if (usable.isEmpty()) return false;
+
+        enemyIds = new String[usable.size()];
+        float[] weights = new float[usable.size()];
+        for (int i = 0; i < usable.size(); i++) {
+            enemyIds[i] = usable.get(i).getEnemyId();
+            weights[i] = usable.get(i).getWeight();
+        }
+        aliasTable = new AliasTable(weights);
+        if (minEnemies < 1) minEnemies = 1;
+        if (maxEnemies < minEnemies) maxEnemies = minEnemies;
+        return true;
+    }
+
+    /**
+     * Draws an enemy id by weight
+     * @param random The random source
+     * @return An enemy id from data/enemies
+     */
+    public String rollEnemy(Random random) {
+        return enemyIds[aliasTable.sample(random)];
+    }
+
+    /**
+     * @param random The random source
+     * @return A number of enemies between the table's minimum and maximum, inclusive
+     */
+    public int rollEnemyCount(Random random) {
+        return minEnemies + random.nextInt(maxEnemies - minEnemies + 1);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getTerrain() {
+        return terrain;
+    }
+
+    public int getMinEnemies() {
+        return minEnemies;
+    }
+
+    public int getMaxEnemies() {
+        return maxEnemies;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    // Setters for JSON deserialization
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public void setTerrain(String terrain) {
+        this.terrain = terrain;
+    }
+
+    public void setMinEnemies(int minEnemies) {
+        this.minEnemies = minEnemies;
+    }
+
+    public void setMaxEnemies(int maxEnemies) {
+        this.maxEnemies = maxEnemies;
+    }
+
+    public void setEntries(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * An enemy and its relative chance of being picked
+     */
+    public static class Entry {
+        private String enemyId;
+        private float weight = 1f;
+
+        public Entry() {
+        }
+
+        public Entry(String enemyId, float weight) {
+            this.enemyId = enemyId;
+            this.weight = weight;
+        }
+
+        public String getEnemyId() {
+            return enemyId;
+        }
+
+        public float getWeight() {
+            return weight;
+        }
+
+        public void setEnemyId(String enemyId) {
+            this.enemyId = enemyId;
+        }
+
+        public void setWeight(float weight) {
+            this.weight = weight;
+        }
+    }
+}
@@ -22,6 +22,8 @@ public class Enemy implements IBattleActor {
     private boolean hasTakenTurn;
     private int movementRange; // Added movement range
     private List<StatusEffect> activeEffects; // Added status effects
+    private ActorStatListener statListener;
+    private ActorMoveListener moveListener;
 
     private static final Random random = new Random();
 
@@ -65,7 +67,21 @@ public class Enemy implements IBattleActor {
 
     @Override
     public void setBattleMapPosition(float x, float y) {
+        float oldX = battleMapPosition.x;
+        float oldY = battleMapPosition.y;
         this.battleMapPosition.set(x, y);
+        if (moveListener != null && (oldX != x || oldY != y)) {
+            moveListener.onActorMoved(this, oldX, oldY);
+        }
+    }
+
+    /**
+     * Sets the listener told when this actor changes tiles
+     * @param moveListener The listener, or null to stop notifications
+     */
+    @Override
+    public void setMoveListener(ActorMoveListener moveListener) {
+        this.moveListener = moveListener;
     }
 
 
@@ -99,11 +115,24 @@ public class Enemy implements IBattleActor {
         }
         modifiedAmount = Math.max(0, modifiedAmount); // Ensure damage is not negative
 
+        int oldHp = this.currentHp;
         this.currentHp -= modifiedAmount;
         if (this.currentHp < 0) {
             this.currentHp = 0;
         }
         Gdx.app.log(getName(), "took " + modifiedAmount + " damage. HP: " + currentHp + "/" + maxHp);
+        if (statListener != null && oldHp != currentHp) {
+            statListener.onHpChanged(this, oldHp, currentHp);
+        }
+    }
+
+    /**
+     * Sets the listener told about HP changes, e.g. the battle UI
+     * @param statListener The listener, or null to stop notifications
+     */
+    @Override
+    public void setStatListener(ActorStatListener statListener) {
+        this.statListener = statListener;
     }
 
     @Override
@@ -247,7 +276,7 @@ public class Enemy implements IBattleActor {
                     }
                 }
 
-                if (!alreadyVisited && battleScreen.isTileWithinMapBounds(newX, newY)) {
+                if (!alreadyVisited && !battleScreen.isTileBlocked(newX, newY)) {
                     // The new position must be unoccupied to be a valid step/destination.
                     // battleScreen.isTileOccupied() checks if any actor is on the tile.
                     // We are looking for a tile to move TO, which must be empty.
@@ -294,8 +323,8 @@ public class Enemy implements IBattleActor {
      * Checks if a move to the given position is valid.
      */
     private boolean isValidMove(float x, float y, Array<Vector2> visited, BattleScreen battleScreen) {
-        // Check if out of bounds
-        if (!battleScreen.isTileWithinMapBounds(x, y)) {
+        // Check if out of bounds or not walkable
+        if (battleScreen.isTileBlocked(x, y)) {
             return false;
         }
         
@@ -368,6 +397,7 @@ public class Enemy implements IBattleActor {
             int damage = rollDamage();
             closestTarget.takeDamage(damage);
             Gdx.app.log(getName(), "attacked " + closestTarget.getName() + " for " + damage + " damage.");
+            battleScreen.getUiManager().getBattleLog().attack(this, closestTarget, damage);
             setHasPerformedMajorAction(true);
             return;
         }
@@ -393,6 +423,7 @@ public class Enemy implements IBattleActor {
                     int damage = rollDamage();
                     closestTarget.takeDamage(damage);
                     Gdx.app.log(getName(), "attacked " + closestTarget.getName() + " for " + damage + " damage.");
+                    battleScreen.getUiManager().getBattleLog().attack(this, closestTarget, damage);
                 }
                 setHasPerformedMajorAction(true);
                 return;
@@ -9,11 +9,13 @@ public interface IBattleActor {
     TextureRegion getBattleSprite();
     Vector2 getBattleMapPosition();
     void setBattleMapPosition(float x, float y);
+    void setMoveListener(ActorMoveListener moveListener); // Told when the actor changes tiles, e.g. the hover popup
 
     boolean isAlive();
     int getCurrentHp();
     int getMaxHp();
     void takeDamage(int amount);
+    void setStatListener(ActorStatListener statListener); // Told about HP changes, e.g. the battle UI
     // void heal(int amount); // If healing is a common action
 
     // Turn-based actions
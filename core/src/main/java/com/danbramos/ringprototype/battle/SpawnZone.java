@@ -0,0 +1,86 @@
+package com.danbramos.ringprototype.battle;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import com.danbramos.ringprototype.maps.TraversabilityMap;
+
+import java.util.Random;
+
+/**
+ * The free tiles of a rectangle on a battle map, handed out in random order without repeats.
+ * <p>
+ * The walkable tiles are collected once. Each draw swaps a random tile from the not-yet-taken part of the
+ * list to its end (one step of a Fisher-Yates shuffle), so taking a tile costs the same however many are
+ * already occupied, and {@link #reset()} makes them all available again without touching the list.
+ */
+public class SpawnZone {
+    private final TraversabilityMap traversability;
+    private final IntArray tiles = new IntArray(); // Packed as x << 16 | y
+    private int remaining;
+
+    /**
+     * @param traversability The battle map's walkability bitmap
+     * @param minX Leftmost tile column, inclusive
+     * @param maxX Rightmost tile column, inclusive
+     * @param minY Bottom tile row, inclusive
+     * @param maxY Top tile row, inclusive
+     */
+    public SpawnZone(TraversabilityMap traversability, int minX, int maxX, int minY, int maxY) {
+        this.traversability = traversability;
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (!traversability.isBlocked(x, y)) {
+                    tiles.add((x << 16) | y);
+                }
+            }
+        }
+        remaining = tiles.size;
+    }
+
+    /**
+     * Makes every tile of the zone available again, e.g. for the next battle
+     */
+    public void reset() {
+        remaining = tiles.size;
+    }
+
+    /**
+     * Takes a random tile that wasn't taken since the last reset
+     * @param random The random source
+     * @param out Receives the tile coordinates
+     * @return False if every tile is taken
+     */
+    public boolean take(Random random, Vector2 out) {
+        while (remaining > 0) {
+            int pick = random.nextInt(remaining);
+            int tile = tiles.get(pick);
+            remaining--;
+            tiles.swap(pick, remaining);
+            int x = tile >>> 16;
+            int y = tile & 0xFFFF;
+            // The map may have been edited since the zone was built
+            if (traversability.isBlocked(x, y)) continue;
+            out.set(x, y);
+            return true;
+        }
+        return false;
+    }
+
+    public TraversabilityMap getTraversability() {
+        return traversability;
+    }
+
+    /**
+     * @return Number of tiles that can still be taken
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return Number of walkable tiles in the zone
+     */
+    public int getSize() {
+        return tiles.size;
+    }
+}
@@ -0,0 +1,12 @@
+package com.danbramos.ringprototype.battle;
+
+/**
+ * Notified by the {@link TurnManager} when the acting combatant changes
+ */
+public interface TurnListener {
+    /**
+     * @param previousActor The actor whose turn just ended, or null at the start of the battle
+     * @param currentActor The actor whose turn it is now, or null when the battle is over
+     */
+    void onTurnChanged(IBattleActor previousActor, IBattleActor currentActor);
+}
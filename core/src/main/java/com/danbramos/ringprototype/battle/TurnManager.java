@@ -13,9 +13,11 @@ public class TurnManager {
     private Array<IBattleActor> turnOrder;
     private int currentTurnIndex;
     private IBattleActor currentTurnActor;
+    private final Array<TurnListener> turnListeners;
 
     public TurnManager() {
         this.turnOrder = new Array<>();
+        this.turnListeners = new Array<>();
         this.currentTurnIndex = -1;
         this.currentTurnActor = null;
     }
@@ -52,6 +54,27 @@ public class TurnManager {
             currentTurnActor = null;
             Gdx.app.error("TurnManager", "No combatants to initialize turn order.");
         }
+        fireTurnChanged(null, currentTurnActor);
+    }
+
+    /**
+     * Registers a listener that is told whenever the acting combatant changes
+     * @param listener The listener to add
+     */
+    public void addTurnListener(TurnListener listener) {
+        if (listener != null && !turnListeners.contains(listener, true)) {
+            turnListeners.add(listener);
+        }
+    }
+
+    public void removeTurnListener(TurnListener listener) {
+        turnListeners.removeValue(listener, true);
+    }
+
+    private void fireTurnChanged(IBattleActor previousActor, IBattleActor currentActor) {
+        for (int i = turnListeners.size - 1; i >= 0; i--) {
+            turnListeners.get(i).onTurnChanged(previousActor, currentActor);
+        }
     }
 
     /**
@@ -61,8 +84,10 @@ public class TurnManager {
      * @return The new current actor, or null if the battle should end.
      */
     public IBattleActor advanceTurn() {
+        IBattleActor previousActor = currentTurnActor;
         if (turnOrder.isEmpty()) {
             currentTurnActor = null;
+            fireTurnChanged(previousActor, null);
             return null;
         }
 
@@ -72,18 +97,21 @@ public class TurnManager {
         // Check if battle is over after removing actors
         if (isBattleOver()) {
              currentTurnActor = null;
+             fireTurnChanged(previousActor, null);
              return null;
         }
         
         // If the turn order became empty after removals (should be caught by isBattleOver, but safeguard)
         if (turnOrder.isEmpty()){
              currentTurnActor = null;
+             fireTurnChanged(previousActor, null);
              return null;
         }
 
         currentTurnIndex = (currentTurnIndex + 1) % turnOrder.size;
         currentTurnActor = turnOrder.get(currentTurnIndex);
         Gdx.app.log("TurnManager", "Advanced turn. Next actor: " + currentTurnActor.getName());
+        fireTurnChanged(previousActor, currentTurnActor);
         return currentTurnActor;
     }
 
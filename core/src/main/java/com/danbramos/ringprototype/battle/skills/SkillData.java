@@ -46,6 +46,7 @@ public class SkillData {
 
             JsonValue skillsArray = root.get("skills");
             int count = 0;
+            List<String> unresolvedExecutors = new ArrayList<>();
 
             for (JsonValue skillJson : skillsArray) {
                 String id = skillJson.getString("id");
@@ -80,17 +81,24 @@ public class SkillData {
                     skill.setRequiredLevel(skillJson.getInt("requiredLevel"));
                 }
 
-                if (skillJson.has("executorClassName")) {
+                if (skillJson.has("executor")) {
+                    String executorKey = skillJson.getString("executor");
+                    ISkillExecutor executorInstance = SkillExecutorRegistry.get(executorKey);
+                    if (executorInstance != null) {
+                        skill.setExecutor(executorInstance);
+                        Gdx.app.debug("SkillData", "Assigned executor " + executorKey + " to skill " + id);
+                    } else {
+                        unresolvedExecutors.add(id + " -> " + executorKey);
+                    }
+                } else if (skillJson.has("executorClassName")) {
+                    // Legacy format, resolved through the registry instead of Class.forName
                     String executorClassName = skillJson.getString("executorClassName");
-                    try {
-                        Class<?> executorClass = Class.forName(executorClassName);
-                        ISkillExecutor executorInstance = (ISkillExecutor) executorClass.getDeclaredConstructor().newInstance();
+                    ISkillExecutor executorInstance = SkillExecutorRegistry.getByClassName(executorClassName);
+                    if (executorInstance != null) {
                         skill.setExecutor(executorInstance);
                         Gdx.app.debug("SkillData", "Assigned executor " + executorClassName + " to skill " + id);
-                    } catch (Exception e) {
-                        Gdx.app.error("SkillData", "Failed to instantiate executor: " + executorClassName + " for skill " + id, e);
-                        // Assign a default executor or leave it null to use Skill's default logic
-                        // skill.setExecutor(new DefaultSkillExecutor());
+                    } else {
+                        unresolvedExecutors.add(id + " -> " + executorClassName);
                     }
                 } else {
                     // Optionally assign a default executor for skills without a specific one
@@ -124,6 +132,12 @@ public class SkillData {
             }
 
             Gdx.app.log("SkillData", "Loaded " + count + " skills");
+
+            // Check executor resolution once, up front, rather than failing at cast time
+            if (!unresolvedExecutors.isEmpty()) {
+                Gdx.app.error("SkillData", "No registered executor for " + unresolvedExecutors.size()
+                    + " skill(s): " + unresolvedExecutors);
+            }
         } catch (Exception e) {
             Gdx.app.error("SkillData", "Error loading skills: " + e.getMessage(), e);
         }
@@ -0,0 +1,64 @@
+package com.danbramos.ringprototype.battle.skills;
+
+import com.danbramos.ringprototype.battle.skills.executors.BackstabSkillExecutor;
+import com.danbramos.ringprototype.battle.skills.executors.CripplingStrikeSkillExecutor;
+import com.danbramos.ringprototype.battle.skills.executors.DefaultAoeSkillExecutor;
+import com.danbramos.ringprototype.battle.skills.executors.DefaultSingleTargetDamageExecutor;
+import com.danbramos.ringprototype.battle.skills.executors.StealthSkillExecutor;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compile-time table of skill executors, keyed by the short names used in skills.json.
+ * Executors are stateless, so a single shared instance of each is handed out.
+ * No reflection is involved, which keeps startup cheap and native-image builds working.
+ */
+public final class SkillExecutorRegistry {
+    private static final Map<String, ISkillExecutor> EXECUTORS_BY_KEY = new HashMap<>();
+    private static final Map<String, ISkillExecutor> EXECUTORS_BY_CLASS_NAME = new HashMap<>();
+
+    static {
+        register("single_target_damage", new DefaultSingleTargetDamageExecutor());
+        register("aoe", new DefaultAoeSkillExecutor());
+        register("backstab", new BackstabSkillExecutor());
+        register("stealth", new StealthSkillExecutor());
+        register("crippling_strike", new CripplingStrikeSkillExecutor());
+    }
+
+    private SkillExecutorRegistry() {
+    }
+
+    private static void register(String key, ISkillExecutor executor) {
+        EXECUTORS_BY_KEY.put(key, executor);
+        // Older data files reference executors by fully qualified class name
+        EXECUTORS_BY_CLASS_NAME.put(executor.getClass().getName(), executor);
+    }
+
+    /**
+     * Get the executor registered under a short key
+     * @param key The executor key, e.g. "backstab"
+     * @return The shared executor instance, or null if the key is unknown
+     */
+    public static ISkillExecutor get(String key) {
+        return EXECUTORS_BY_KEY.get(key);
+    }
+
+    /**
+     * Get the executor for a legacy fully qualified class name
+     * @param className The executor class name
+     * @return The shared executor instance, or null if no such executor is registered
+     */
+    public static ISkillExecutor getByClassName(String className) {
+        return EXECUTORS_BY_CLASS_NAME.get(className);
+    }
+
+    /**
+     * Get all registered executors
+     * @return An unmodifiable map of executor keys to executors
+     */
+    public static Map<String, ISkillExecutor> getAll() {
+        return Collections.unmodifiableMap(EXECUTORS_BY_KEY);
+    }
+}
@@ -2,6 +2,7 @@ package com.danbramos.ringprototype.battle.skills.executors;
 
 import com.badlogic.gdx.Gdx;
 import com.danbramos.ringprototype.battle.BattleCharacter;
+import com.danbramos.ringprototype.battle.BattleLog;
 import com.danbramos.ringprototype.battle.IBattleActor;
 import com.danbramos.ringprototype.battle.skills.ISkillExecutor;
 import com.danbramos.ringprototype.battle.skills.Skill;
@@ -38,10 +39,9 @@ public class BackstabSkillExecutor implements ISkillExecutor {
             Gdx.app.log("Backstab", "Conditions not met, normal damage: " + finalDamage);
         }
 
-        String logMessage = caster.getName() + " uses Backstab on " + target.getName() + ".";
-        if (finalDamage > 0) logMessage += "\nDeals " + finalDamage + " damage!";
-        else logMessage += "\nNo damage dealt.";
-        battleScreen.getUiManager().updateBattleLog(logMessage);
+        BattleLog log = battleScreen.getUiManager().getBattleLog();
+        log.skillUsed(caster, skillData.getName(), target);
+        log.damage(target, finalDamage);
 
         target.takeDamage(finalDamage);
     }
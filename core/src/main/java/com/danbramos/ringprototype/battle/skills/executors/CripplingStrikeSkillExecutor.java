@@ -2,6 +2,7 @@ package com.danbramos.ringprototype.battle.skills.executors;
 
 import com.badlogic.gdx.Gdx;
 import com.danbramos.ringprototype.battle.BattleCharacter;
+import com.danbramos.ringprototype.battle.BattleLog;
 import com.danbramos.ringprototype.battle.IBattleActor;
 import com.danbramos.ringprototype.battle.StatusEffect;
 import com.danbramos.ringprototype.battle.skills.ISkillExecutor;
@@ -23,13 +24,10 @@ public class CripplingStrikeSkillExecutor implements ISkillExecutor {
         // Calculate and apply damage
         int damage = skillData.rollDamage();
         
-        // Create log message
-        String logMessage = caster.getName() + " uses Crippling Strike on " + target.getName() + ".";
-        if (damage > 0) {
-            logMessage += "\nDeals " + damage + " damage!";
-        } else {
-            logMessage += "\nNo damage dealt.";
-        }
+        // Log the attack
+        BattleLog log = battleScreen.getUiManager().getBattleLog();
+        log.skillUsed(caster, skillData.getName(), target);
+        log.damage(target, damage);
         
         // Apply status effects if defined in the skill
         if (skillData.getStatusEffects() != null && !skillData.getStatusEffects().isEmpty()) {
@@ -45,10 +43,8 @@ public class CripplingStrikeSkillExecutor implements ISkillExecutor {
                         // Assuming Enemy class has addStatusEffect method similar to BattleCharacter
                         try {
                             ((com.danbramos.ringprototype.battle.Enemy) target).addStatusEffect(effect);
-                            logMessage += "\n" + target.getName() + " is now " + effect.getType();
-                            if (effect.getType().equals("DAMAGE_REDUCTION")) {
-                                logMessage += " (damage reduced by " + effect.getValue() + ")";
-                            }
+                            log.statusApplied(target, effect.getType(),
+                                effect.getType().equals("DAMAGE_REDUCTION") ? effect.getValue() : 0);
                         } catch (Exception e) {
                             Gdx.app.error("CripplingStrike", "Failed to apply status effect to enemy: " + e.getMessage());
                         }
@@ -57,9 +53,6 @@ public class CripplingStrikeSkillExecutor implements ISkillExecutor {
             }
         }
         
-        // Update the battle log
-        battleScreen.getUiManager().updateBattleLog(logMessage);
-        
         // Apply damage last so we know if the target died from the attack
         target.takeDamage(damage);
     }
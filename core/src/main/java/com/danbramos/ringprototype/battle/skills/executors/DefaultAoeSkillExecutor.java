@@ -2,6 +2,7 @@ package com.danbramos.ringprototype.battle.skills.executors;
 
 import com.badlogic.gdx.Gdx;
 import com.danbramos.ringprototype.battle.BattleCharacter;
+import com.danbramos.ringprototype.battle.BattleLog;
 import com.danbramos.ringprototype.battle.IBattleActor;
 import com.danbramos.ringprototype.battle.StatusEffect;
 import com.danbramos.ringprototype.battle.skills.ISkillExecutor;
@@ -13,25 +14,21 @@ import java.util.List;
 public class DefaultAoeSkillExecutor implements ISkillExecutor {
     @Override
     public void execute(BattleCharacter caster, List<IBattleActor> targets, BattleScreen battleScreen, Skill skillData) {
+        BattleLog log = battleScreen.getUiManager().getBattleLog();
         if (targets.isEmpty()) {
             Gdx.app.log(skillData.getName(), "No targets in AoE for skill.");
-            battleScreen.getUiManager().updateBattleLog(caster.getName() + " uses " + skillData.getName() + " but hits nothing!");
+            log.skillNoTarget(caster, skillData.getName());
             return;
         }
 
-        String baseLogMessage = caster.getName() + " uses " + skillData.getName() + "!";
-        battleScreen.getUiManager().updateBattleLog(baseLogMessage);
+        log.skillUsed(caster, skillData.getName(), null);
 
         for (IBattleActor target : targets) {
             if (target.isAlive()) {
                 int damage = skillData.rollDamage(); // Roll damage for each target individually
-                String targetLogMessage = "";
-
+                log.damage(target, damage);
                 if (damage > 0) {
-                    targetLogMessage = "\n" + target.getName() + " takes " + damage + " damage!";
                     target.takeDamage(damage);
-                } else {
-                    targetLogMessage = "\n" + target.getName() + " takes no damage.";
                 }
 
                 // Apply status effects from the skill
@@ -40,7 +37,7 @@ public class DefaultAoeSkillExecutor implements ISkillExecutor {
                         if (Math.random() < effectPrototype.getChance()) {
                             if (target instanceof BattleCharacter) {
                                 ((BattleCharacter) target).addStatusEffect(effectPrototype.copy());
-                                targetLogMessage += " And is now " + effectPrototype.getType() + "!";
+                                log.statusApplied(target, effectPrototype.getType(), 0);
                             } else if (target instanceof com.danbramos.ringprototype.battle.Enemy) {
                                 // Again, ensure Enemy can handle status effects or adapt this
                                 Gdx.app.log(skillData.getName(), "Attempting to apply status effect to Enemy: " + target.getName());
@@ -48,7 +45,6 @@ public class DefaultAoeSkillExecutor implements ISkillExecutor {
                         }
                     }
                 }
-                battleScreen.getUiManager().updateBattleLog(targetLogMessage);
             }
         }
     }
@@ -2,6 +2,7 @@ package com.danbramos.ringprototype.battle.skills.executors;
 
 import com.badlogic.gdx.Gdx;
 import com.danbramos.ringprototype.battle.BattleCharacter;
+import com.danbramos.ringprototype.battle.BattleLog;
 import com.danbramos.ringprototype.battle.IBattleActor;
 import com.danbramos.ringprototype.battle.StatusEffect;
 import com.danbramos.ringprototype.battle.skills.ISkillExecutor;
@@ -13,21 +14,19 @@ import java.util.List;
 public class DefaultSingleTargetDamageExecutor implements ISkillExecutor {
     @Override
     public void execute(BattleCharacter caster, List<IBattleActor> targets, BattleScreen battleScreen, Skill skillData) {
+        BattleLog log = battleScreen.getUiManager().getBattleLog();
         if (targets.isEmpty()) {
             Gdx.app.log(skillData.getName(), "No target for skill.");
-            battleScreen.getUiManager().updateBattleLog(caster.getName() + " uses " + skillData.getName() + " but finds no target!");
+            log.skillNoTarget(caster, skillData.getName());
             return;
         }
         IBattleActor target = targets.get(0); // Assumes single target
 
         int damage = skillData.rollDamage();
-        String logMessage = caster.getName() + " uses " + skillData.getName() + " on " + target.getName() + ".";
-
+        log.skillUsed(caster, skillData.getName(), target);
+        log.damage(target, damage);
         if (damage > 0) {
-            logMessage += "\nDeals " + damage + " damage!";
             target.takeDamage(damage);
-        } else {
-            logMessage += "\nNo damage dealt.";
         }
 
         // Apply status effects from the skill
@@ -36,7 +35,7 @@ public class DefaultSingleTargetDamageExecutor implements ISkillExecutor {
                 if (Math.random() < effectPrototype.getChance()) {
                     if (target instanceof BattleCharacter) { // Check if target can receive status effects
                         ((BattleCharacter) target).addStatusEffect(effectPrototype.copy());
-                        logMessage += "\n" + target.getName() + " is now " + effectPrototype.getType() + "!";
+                        log.statusApplied(target, effectPrototype.getType(), 0);
                     } else if (target instanceof com.danbramos.ringprototype.battle.Enemy) {
                         // Enemies might not have the addStatusEffect method directly in IBattleActor
                         // This part needs careful handling based on your Enemy class structure
@@ -46,6 +45,5 @@ public class DefaultSingleTargetDamageExecutor implements ISkillExecutor {
                 }
             }
         }
-        battleScreen.getUiManager().updateBattleLog(logMessage);
     }
 }
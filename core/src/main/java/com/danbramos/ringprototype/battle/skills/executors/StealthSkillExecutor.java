@@ -16,13 +16,14 @@ public class StealthSkillExecutor implements ISkillExecutor {
     public void execute(BattleCharacter caster, List<IBattleActor> targets, BattleScreen battleScreen, Skill skillData) {
         // Stealth typically targets self (caster)
         Gdx.app.log("Stealth", caster.getName() + " uses Stealth.");
-        battleScreen.getUiManager().updateBattleLog(caster.getName() + " uses Stealth and becomes INVISIBLE!");
+        battleScreen.getUiManager().getBattleLog().skillUsed(caster, skillData.getName(), null);
 
         if (skillData.getStatusEffects() != null) {
             for (StatusEffect effectPrototype : skillData.getStatusEffects()) {
                 if (effectPrototype.getType().equals("INVISIBLE")) { // Ensure it's the correct effect
                     if (Math.random() < effectPrototype.getChance()) {
                         caster.addStatusEffect(effectPrototype.copy());
+                        battleScreen.getUiManager().getBattleLog().statusApplied(caster, effectPrototype.getType(), 0);
                         Gdx.app.log("Stealth", "Applied INVISIBLE to " + caster.getName());
                         return; // Applied the primary effect
                     }
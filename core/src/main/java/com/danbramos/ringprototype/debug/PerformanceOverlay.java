@@ -0,0 +1,266 @@
+package com.danbramos.ringprototype.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A debug overlay with frame time percentiles, GL counters from {@link GLProfiler}, SpriteBatch flushes,
+ * heap use, GC activity and per-subsystem timings recorded by {@link Section} timers in the screens.
+ * <p>
+ * Toggled with {@value #TOGGLE_KEY_NAME} or from the pause menu. While hidden the profiler is disabled and
+ * the section timers do nothing, so leaving the timers in the render code costs only a branch.
+ * The text is rebuilt a few times per second rather than every frame.
+ */
+public class PerformanceOverlay implements Disposable {
+    public static final int TOGGLE_KEY = Input.Keys.F3;
+    private static final String TOGGLE_KEY_NAME = "F3";
+
+    private static final int FRAME_SAMPLES = 240;
+    private static final float TEXT_REFRESH_SECONDS = 0.25f;
+    private static final int TEXT_LINES = 4;
+    // Weight of the newest frame in the smoothed section timings
+    private static final float SECTION_SMOOTHING = 0.1f;
+
+    // Subsystems timed by the screens
+    public final Section input = new Section("input");
+    public final Section ai = new Section("ai");
+    public final Section render = new Section("render");
+    public final Section ui = new Section("ui");
+    private final Section[] sections = {input, ai, render, ui};
+
+    private final GLProfiler profiler;
+    private final SpriteBatch batch;
+    private final BitmapFont font;
+    private final Matrix4 projection = new Matrix4();
+    private final StringBuilder text = new StringBuilder(512);
+    private final List<GarbageCollectorMXBean> gcBeans;
+
+    private boolean visible;
+    private final float[] frameMillis = new float[FRAME_SAMPLES];
+    private final float[] sortedMillis = new float[FRAME_SAMPLES];
+    private int frameIndex;
+    private int frameCount;
+    private int lastTotalRenderCalls;
+    private int batchFlushes;
+    private int drawCalls;
+    private int textureBindings;
+    private int shaderSwitches;
+    private float vertices;
+    private float sinceTextRefresh = TEXT_REFRESH_SECONDS;
+    private long lastGcCount;
+    private long lastGcMillis;
+
+    /**
+     * A timed subsystem. Either bracket the work with {@link #start()} and {@link #stop()}, or use it as a
+     * scoped timer: {@code try (PerformanceOverlay.Section s = overlay.ai.start()) { ... }}.
+     * Instances are reused, so timing a section allocates nothing.
+     */
+    public class Section implements AutoCloseable {
+        private final String name;
+        private long startNanos;
+        private long frameNanos;
+        private float smoothedMillis;
+
+        Section(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Starts timing the section
+         * @return This section, for try-with-resources
+         */
+        public Section start() {
+            if (visible) startNanos = System.nanoTime();
+            return this;
+        }
+
+        /**
+         * Stops timing and adds the elapsed time to this frame's total for the section
+         */
+        public void stop() {
+            if (visible && startNanos != 0) {
+                frameNanos += System.nanoTime() - startNanos;
+            }
+            startNanos = 0;
+        }
+
+        @Override
+        public void close() {
+            stop();
+        }
+
+        void endFrame() {
+            float millis = frameNanos / 1_000_000f;
+            smoothedMillis += (millis - smoothedMillis) * SECTION_SMOOTHING;
+            frameNanos = 0;
+        }
+    }
+
+    /**
+     * @param batch The game's batch, whose flush count is reported and which draws the overlay
+     */
+    public PerformanceOverlay(SpriteBatch batch) {
+        this.batch = batch;
+        this.profiler = new GLProfiler(Gdx.graphics);
+        this.font = new BitmapFont();
+        this.font.setColor(Color.GREEN);
+        List<GarbageCollectorMXBean> beans;
+        try {
+            beans = ManagementFactory.getGarbageCollectorMXBeans();
+        } catch (Throwable t) {
+            // Management beans are optional (e.g. on some native-image builds); the rest of the overlay still works
+            beans = null;
+        }
+        this.gcBeans = beans;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        if (this.visible == visible) return;
+        this.visible = visible;
+        if (visible) {
+            profiler.enable();
+            profiler.reset();
+            lastTotalRenderCalls = batch.totalRenderCalls;
+            frameCount = 0;
+            frameIndex = 0;
+            sinceTextRefresh = TEXT_REFRESH_SECONDS;
+        } else {
+            profiler.disable();
+        }
+        Gdx.app.log("PerformanceOverlay", visible ? "Performance overlay shown." : "Performance overlay hidden.");
+    }
+
+    public void toggle() {
+        setVisible(!visible);
+    }
+
+    /**
+     * Call at the start of each frame, before the screen renders
+     */
+    public void beginFrame() {
+        if (Gdx.input.isKeyJustPressed(TOGGLE_KEY)) {
+            toggle();
+        }
+        if (!visible) return;
+        profiler.reset();
+        lastTotalRenderCalls = batch.totalRenderCalls;
+    }
+
+    /**
+     * Call after the screen rendered and before {@link #draw()}, so the overlay's own drawing isn't counted
+     */
+    public void endFrame() {
+        if (!visible) return;
+        drawCalls = profiler.getDrawCalls();
+        textureBindings = profiler.getTextureBindings();
+        shaderSwitches = profiler.getShaderSwitches();
+        vertices = profiler.getVertexCount().total;
+        batchFlushes = batch.totalRenderCalls - lastTotalRenderCalls;
+
+        frameMillis[frameIndex] = Gdx.graphics.getDeltaTime() * 1000f;
+        frameIndex = (frameIndex + 1) % FRAME_SAMPLES;
+        frameCount = Math.min(frameCount + 1, FRAME_SAMPLES);
+        for (Section section : sections) {
+            section.endFrame();
+        }
+    }
+
+    /**
+     * Draws the overlay in screen space in the bottom-left corner, clear of the screens' top panels
+     */
+    public void draw() {
+        if (!visible) return;
+        sinceTextRefresh += Gdx.graphics.getDeltaTime();
+        if (sinceTextRefresh >= TEXT_REFRESH_SECONDS) {
+            sinceTextRefresh = 0;
+            rebuildText();
+        }
+        projection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.setProjectionMatrix(projection);
+        batch.begin();
+        font.draw(batch, text, 8, 8 + font.getLineHeight() * TEXT_LINES);
+        batch.end();
+    }
+
+    private void rebuildText() {
+        text.setLength(0);
+        text.append("FPS ").append(Gdx.graphics.getFramesPerSecond());
+        if (frameCount > 0) {
+            System.arraycopy(frameMillis, 0, sortedMillis, 0, frameCount);
+            Arrays.sort(sortedMillis, 0, frameCount);
+            text.append("  frame ms p50 ");
+            appendMillis(percentile(0.50f));
+            text.append(" p95 ");
+            appendMillis(percentile(0.95f));
+            text.append(" p99 ");
+            appendMillis(percentile(0.99f));
+            text.append(" max ");
+            appendMillis(sortedMillis[frameCount - 1]);
+        }
+        text.append('\n');
+
+        text.append("draws ").append(drawCalls)
+            .append("  binds ").append(textureBindings)
+            .append("  shaders ").append(shaderSwitches)
+            .append("  batch flushes ").append(batchFlushes)
+            .append("  verts ").append((int) vertices).append('\n');
+
+        Runtime runtime = Runtime.getRuntime();
+        long usedMb = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        text.append("heap ").append(usedMb).append(" / ").append(runtime.maxMemory() / (1024 * 1024)).append(" MB");
+        if (gcBeans != null) {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean bean : gcBeans) {
+                count += Math.max(0, bean.getCollectionCount());
+                millis += Math.max(0, bean.getCollectionTime());
+            }
+            text.append("  GCs ").append(count).append(" (+").append(count - lastGcCount).append(")")
+                .append("  GC time ").append(millis).append(" ms (+").append(millis - lastGcMillis).append(")");
+            lastGcCount = count;
+            lastGcMillis = millis;
+        }
+        text.append('\n');
+
+        for (Section section : sections) {
+            text.append(section.name).append(' ');
+            appendMillis(section.smoothedMillis);
+            text.append(" ms  ");
+        }
+    }
+
+    private float percentile(float p) {
+        int index = Math.min(frameCount - 1, (int) (p * frameCount));
+        return sortedMillis[index];
+    }
+
+    // Two decimals without String.format, which would allocate a Formatter on each refresh
+    private void appendMillis(float millis) {
+        int hundredths = Math.round(millis * 100);
+        text.append(hundredths / 100).append('.');
+        int fraction = hundredths % 100;
+        if (fraction < 10) text.append('0');
+        text.append(fraction);
+    }
+
+    @Override
+    public void dispose() {
+        profiler.disable();
+        font.dispose();
+    }
+}
@@ -0,0 +1,91 @@
+package com.danbramos.ringprototype.graphics;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Packs runtime-generated icons (status effects, turn indicators) into shared texture pages.
+ * Every icon handed out is a region of the same texture as long as the page has room,
+ * so drawing a row of icons doesn't force a SpriteBatch flush per icon.
+ */
+public class IconAtlas implements Disposable {
+    private static final int DEFAULT_PAGE_SIZE = 256;
+    private static final int PADDING = 2;
+
+    private final PixmapPacker packer;
+    private final TextureAtlas atlas;
+    private final ObjectMap<String, TextureRegion> regions;
+    private boolean dirty;
+
+    public IconAtlas() {
+        this(DEFAULT_PAGE_SIZE);
+    }
+
+    public IconAtlas(int pageSize) {
+        this.packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888, PADDING, false);
+        this.atlas = new TextureAtlas();
+        this.regions = new ObjectMap<>();
+    }
+
+    /**
+     * Checks if an icon has been packed under the given key
+     * @param key The icon key
+     * @return True if the key is already packed
+     */
+    public boolean has(String key) {
+        return packer.getRect(key) != null;
+    }
+
+    /**
+     * Copies a pixmap into the atlas. The caller still owns (and disposes) the pixmap.
+     * The upload to the GPU is deferred until the next {@link #get(String)}, so several icons
+     * added in a row cost a single texture update.
+     * @param key The icon key
+     * @param pixmap The icon image
+     */
+    public void add(String key, Pixmap pixmap) {
+        if (has(key)) return;
+        packer.pack(key, pixmap);
+        dirty = true;
+    }
+
+    /**
+     * Gets a packed icon
+     * @param key The icon key
+     * @return The region in the shared texture, or null if the key isn't packed
+     */
+    public TextureRegion get(String key) {
+        if (dirty) {
+            packer.updateTextureAtlas(atlas, Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+            dirty = false;
+        }
+        TextureRegion region = regions.get(key);
+        if (region == null) {
+            region = atlas.findRegion(key);
+            if (region != null) {
+                regions.put(key, region);
+            }
+        }
+        return region;
+    }
+
+    /**
+     * Gets the number of texture pages in use; 1 means every icon shares one texture
+     * @return The page count
+     */
+    public int getPageCount() {
+        return packer.getPages().size;
+    }
+
+    @Override
+    public void dispose() {
+        atlas.dispose();
+        packer.dispose();
+        regions.clear();
+    }
+}
@@ -0,0 +1,150 @@
+package com.danbramos.ringprototype.graphics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ImmediateModeRenderer20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * A translucent overlay of colored tiles kept in a single mesh.
+ * The quads are only rebuilt between {@link #begin()} and {@link #end()} when the highlighted tiles change;
+ * every other frame {@link #render(Matrix4)} is one draw call, no matter how many tiles are lit.
+ */
+public class TileHighlightLayer implements Disposable {
+    // Indices are unsigned shorts, so 4 vertices per quad caps a mesh at 16383 quads
+    private static final int MAX_QUADS = 16383;
+    private static final int FLOATS_PER_VERTEX = 3; // x, y, packed color
+    private static final int FLOATS_PER_QUAD = FLOATS_PER_VERTEX * 4;
+
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int maxQuads;
+    private final Mesh mesh;
+    private final ShaderProgram shader;
+    private final float[] vertices;
+    private int quadCount;
+    private boolean building;
+
+    /**
+     * @param tileWidth Width of one tile in world units
+     * @param tileHeight Height of one tile in world units
+     * @param maxQuads Most tiles that can be lit at once, e.g. map width * height * overlapping sets
+     */
+    public TileHighlightLayer(int tileWidth, int tileHeight, int maxQuads) {
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.maxQuads = Math.max(1, Math.min(maxQuads, MAX_QUADS));
+        this.vertices = new float[this.maxQuads * FLOATS_PER_QUAD];
+        this.mesh = new Mesh(false, this.maxQuads * 4, this.maxQuads * 6,
+            new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+            new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE));
+
+        // Two triangles per quad; the index pattern never changes, so it is uploaded once
+        short[] indices = new short[this.maxQuads * 6];
+        for (int i = 0, v = 0; i < indices.length; i += 6, v += 4) {
+            indices[i] = (short) v;
+            indices[i + 1] = (short) (v + 1);
+            indices[i + 2] = (short) (v + 2);
+            indices[i + 3] = (short) (v + 2);
+            indices[i + 4] = (short) (v + 3);
+            indices[i + 5] = (short) v;
+        }
+        mesh.setIndices(indices);
+
+        shader = ImmediateModeRenderer20.createDefaultShader(false, true, 0);
+        if (!shader.isCompiled()) {
+            Gdx.app.error("TileHighlightLayer", "Highlight shader failed to compile: " + shader.getLog());
+        }
+    }
+
+    /**
+     * Starts rebuilding the overlay, discarding the previous tiles
+     */
+    public void begin() {
+        quadCount = 0;
+        building = true;
+    }
+
+    /**
+     * Adds one quad per tile in the given color
+     * @param tiles Tile coordinates
+     * @param r Red
+     * @param g Green
+     * @param b Blue
+     * @param a Alpha
+     */
+    public void addTiles(Array<Vector2> tiles, float r, float g, float b, float a) {
+        if (!building) throw new IllegalStateException("begin() must be called before addTiles()");
+        float color = Color.toFloatBits(r, g, b, a);
+        for (Vector2 tile : tiles) {
+            if (quadCount >= maxQuads) {
+                Gdx.app.error("TileHighlightLayer", "Highlight capacity of " + maxQuads + " tiles reached, skipping the rest.");
+                return;
+            }
+            float x = tile.x * tileWidth;
+            float y = tile.y * tileHeight;
+            int i = quadCount * FLOATS_PER_QUAD;
+            vertices[i] = x;
+            vertices[i + 1] = y;
+            vertices[i + 2] = color;
+            vertices[i + 3] = x + tileWidth;
+            vertices[i + 4] = y;
+            vertices[i + 5] = color;
+            vertices[i + 6] = x + tileWidth;
+            vertices[i + 7] = y + tileHeight;
+            vertices[i + 8] = color;
+            vertices[i + 9] = x;
+            vertices[i + 10] = y + tileHeight;
+            vertices[i + 11] = color;
+            quadCount++;
+        }
+    }
+
+    /**
+     * Uploads the quads added since {@link #begin()}
+     */
+    public void end() {
+        building = false;
+        mesh.setVertices(vertices, 0, quadCount * FLOATS_PER_QUAD);
+    }
+
+    /**
+     * Removes every highlight without a rebuild
+     */
+    public void clear() {
+        quadCount = 0;
+        building = false;
+    }
+
+    public int getQuadCount() {
+        return quadCount;
+    }
+
+    /**
+     * Draws the overlay with alpha blending in a single call
+     * @param projection The camera's combined matrix
+     */
+    public void render(Matrix4 projection) {
+        if (quadCount == 0 || building) return;
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", projection);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, quadCount * 6);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,139 @@
+package com.danbramos.ringprototype.input;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.danbramos.ringprototype.battle.ActorMoveListener;
+import com.danbramos.ringprototype.battle.BattleCharacter;
+import com.danbramos.ringprototype.battle.Enemy;
+import com.danbramos.ringprototype.battle.IBattleActor;
+import com.danbramos.ringprototype.battle.StatusEffect;
+import com.danbramos.ringprototype.screens.BattleScreen;
+import com.danbramos.ringprototype.screens.ui.BattleUiManager;
+
+import java.util.List;
+
+/**
+ * Decides when the battle's character info popup needs to change as the mouse moves over the map.
+ * <p>
+ * The actor under the pointer is only looked up again when the pointer enters a different tile, the
+ * remembered actor died, or an actor moved onto or off the hovered tile, which the tracker hears about as
+ * the actors' {@link ActorMoveListener}. The popup is only rebuilt when the hovered actor or one of the
+ * values it shows (HP, mana, status effects) changed. A frame where the mouse rests on the same tile does
+ * no lookup and no Scene2D work, and the pointer is unprojected into a reused vector.
+ */
+public class BattleHoverTracker implements ActorMoveListener {
+    private static final int NO_TILE = Integer.MIN_VALUE;
+
+    private final Vector3 pointer = new Vector3();
+    private int hoveredTileX = NO_TILE;
+    private int hoveredTileY = NO_TILE;
+    private IBattleActor hoveredActor;
+    private boolean hoveredTileDirty; // An actor moved onto or off the hovered tile since the last lookup
+    private float popupX;
+    private float popupY;
+
+    // What the popup currently shows, so a rebuild can be skipped when nothing changed
+    private IBattleActor shownActor;
+    private int shownHp;
+    private int shownMaxHp;
+    private int shownMana;
+    private int shownEffectsHash;
+
+    /**
+     * Updates the hover state for this frame and shows, rebuilds or hides the popup as needed
+     * @param camera The battle camera, used to unproject the pointer
+     * @param battleScreen Used to find the actor on a tile
+     * @param uiManager Owner of the popup
+     */
+    public void update(OrthographicCamera camera, BattleScreen battleScreen, BattleUiManager uiManager) {
+        pointer.set(Gdx.input.getX(), Gdx.input.getY(), 0);
+        camera.unproject(pointer);
+        int tileX = MathUtils.floor(pointer.x / battleScreen.getTileWidth());
+        int tileY = MathUtils.floor(pointer.y / battleScreen.getTileHeight());
+
+        boolean tileChanged = tileX != hoveredTileX || tileY != hoveredTileY;
+        boolean hoveredActorDied = hoveredActor != null && !hoveredActor.isAlive();
+        if (tileChanged || hoveredTileDirty || hoveredActorDied) {
+            hoveredTileX = tileX;
+            hoveredTileY = tileY;
+            hoveredTileDirty = false;
+            hoveredActor = battleScreen.getActorAtTile(tileX, tileY);
+            popupX = pointer.x;
+            popupY = pointer.y;
+        }
+
+        if (hoveredActor == null) {
+            if (shownActor != null) {
+                uiManager.hideCharacterInfoPopup();
+                shownActor = null;
+            }
+            return;
+        }
+
+        if (hoveredActor != shownActor || tileChanged || statsChanged(hoveredActor)) {
+            uiManager.showCharacterInfoPopup(hoveredActor, popupX, popupY);
+            rememberShown(hoveredActor);
+        }
+    }
+
+    /**
+     * Forgets the hovered tile and popup state, e.g. when a new battle starts
+     */
+    public void reset() {
+        hoveredTileX = NO_TILE;
+        hoveredTileY = NO_TILE;
+        hoveredActor = null;
+        hoveredTileDirty = false;
+        shownActor = null;
+    }
+
+    @Override
+    public void onActorMoved(IBattleActor actor, float oldX, float oldY) {
+        if (actor == hoveredActor || actor.getBattleMapPosition().epsilonEquals(hoveredTileX, hoveredTileY)) {
+            hoveredTileDirty = true;
+        }
+    }
+
+    private boolean statsChanged(IBattleActor actor) {
+        return actor.getCurrentHp() != shownHp
+            || actor.getMaxHp() != shownMaxHp
+            || manaOf(actor) != shownMana
+            || effectsHash(actor) != shownEffectsHash;
+    }
+
+    private void rememberShown(IBattleActor actor) {
+        shownActor = actor;
+        shownHp = actor.getCurrentHp();
+        shownMaxHp = actor.getMaxHp();
+        shownMana = manaOf(actor);
+        shownEffectsHash = effectsHash(actor);
+    }
+
+    private static int manaOf(IBattleActor actor) {
+        return actor instanceof BattleCharacter ? ((BattleCharacter) actor).getSourceCharacter().getManaPoints() : 0;
+    }
+
+    /**
+     * Combines what the popup shows of each status effect, so a new, expired or ticked effect triggers a rebuild
+     */
+    private static int effectsHash(IBattleActor actor) {
+        List<StatusEffect> effects = null;
+        if (actor instanceof BattleCharacter) {
+            effects = ((BattleCharacter) actor).getActiveEffects();
+        } else if (actor instanceof Enemy) {
+            effects = ((Enemy) actor).getActiveEffects();
+        }
+        if (effects == null) return 0;
+
+        int hash = effects.size();
+        for (int i = 0; i < effects.size(); i++) {
+            StatusEffect effect = effects.get(i);
+            hash = 31 * hash + effect.getType().hashCode();
+            hash = 31 * hash + effect.getRemainingDuration();
+            hash = 31 * hash + effect.getValue();
+        }
+        return hash;
+    }
+}
@@ -11,6 +11,7 @@ import com.danbramos.ringprototype.battle.Enemy;
 import com.danbramos.ringprototype.battle.IBattleActor;
 import com.danbramos.ringprototype.battle.skills.Skill;
 import com.danbramos.ringprototype.battle.skills.SkillType;
+import com.danbramos.ringprototype.debug.PerformanceOverlay;
 import com.danbramos.ringprototype.screens.BattleScreen; // To call back
 
 public class BattleInputHandler extends InputAdapter {
@@ -38,6 +39,9 @@ public class BattleInputHandler extends InputAdapter {
     private Array<Vector2> movementReachableTiles;
     private Array<Vector2> skillRangeTiles;
     private Array<Vector2> skillAoeTiles;
+    // Bumped whenever the tile lists or the state that selects which lists are shown change,
+    // so BattleScreen only rebuilds its highlight mesh when something actually changed
+    private int highlightVersion;
 
     public BattleInputHandler(BattleScreen battleScreen, OrthographicCamera camera,
                               int tileWidth, int tileHeight, int mapWidthInTiles, int mapHeightInTiles) {
@@ -82,6 +86,10 @@ public class BattleInputHandler extends InputAdapter {
         return nimbleMovementTiles;
     }
 
+    public int getHighlightVersion() {
+        return highlightVersion;
+    }
+
     public void resetState() {
         currentActionState = ActionState.IDLE;
         selectedSkill = null;
@@ -94,10 +102,12 @@ public class BattleInputHandler extends InputAdapter {
         skillRangeTiles.clear();
         skillAoeTiles.clear();
         nimbleMovementTiles.clear();
+        highlightVersion++;
     }
 
     public void calculateMovementReachableTiles(BattleCharacter battleCharacter) {
         movementReachableTiles.clear();
+        highlightVersion++;
         if (battleCharacter == null) return;
 
         // Allow movement if the character has remaining movement points
@@ -110,7 +120,7 @@ public class BattleInputHandler extends InputAdapter {
             for (int y = 0; y < mapHeightInTiles; y++) {
                 int dist = (int) (Math.abs(x - startPos.x) + Math.abs(y - startPos.y));
                 if (dist > 0 && dist <= range) {
-                    if (!battleScreen.isTileOccupied(x, y)) {
+                    if (!battleScreen.isTileBlocked(x, y) && !battleScreen.isTileOccupied(x, y)) {
                         movementReachableTiles.add(new Vector2(x, y));
                     }
                 }
@@ -120,6 +130,7 @@ public class BattleInputHandler extends InputAdapter {
 
     public void calculateSkillRangeTiles(BattleCharacter caster, Skill skill) {
         skillRangeTiles.clear();
+        highlightVersion++;
         Vector2 casterPos = caster.getBattleMapPosition();
         for (int x = 0; x < mapWidthInTiles; x++) {
             for (int y = 0; y < mapHeightInTiles; y++) {
@@ -139,6 +150,7 @@ public class BattleInputHandler extends InputAdapter {
 
     public void calculateSkillAoeTiles(Vector2 centerTile, int radius) {
         skillAoeTiles.clear();
+        highlightVersion++;
         if (centerTile == null) return;
         for (int x = 0; x < mapWidthInTiles; x++) {
             for (int y = 0; y < mapHeightInTiles; y++) {
@@ -209,10 +221,12 @@ public class BattleInputHandler extends InputAdapter {
         skillAoeTiles.clear();
         selectedSkill = null;
         aoeCenterTile = null;
+        highlightVersion++;
     }
 
     public void calculateNimbleMovementTiles(BattleCharacter caster, int range) {
         nimbleMovementTiles.clear();
+        highlightVersion++;
         if (caster == null) return;
         Vector2 startPos = caster.getBattleMapPosition();
 
@@ -220,7 +234,7 @@ public class BattleInputHandler extends InputAdapter {
             for (int y = 0; y < mapHeightInTiles; y++) {
                 int dist = (int) (Math.abs(x - startPos.x) + Math.abs(y - startPos.y));
                 if (dist > 0 && dist <= range) { // Distance must be > 0 (actual move)
-                    if (!battleScreen.isTileOccupied(x, y)) { // Cannot move to occupied tiles
+                    if (!battleScreen.isTileBlocked(x, y) && !battleScreen.isTileOccupied(x, y)) { // Cannot move to blocked or occupied tiles
                         nimbleMovementTiles.add(new Vector2(x, y));
                     }
                 }
@@ -231,6 +245,12 @@ public class BattleInputHandler extends InputAdapter {
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        try (PerformanceOverlay.Section timer = battleScreen.getPerformanceOverlay().input.start()) {
+            return handleTouchDown(screenX, screenY);
+        }
+    }
+
+    private boolean handleTouchDown(int screenX, int screenY) {
         IBattleActor currentTurnActor = battleScreen.getCurrentTurnActor();
         if (currentTurnActor == null || !(currentTurnActor instanceof BattleCharacter)) {
             return false;
@@ -300,6 +320,7 @@ public class BattleInputHandler extends InputAdapter {
                     aoeCenterTile = clickedTileVec;
                     calculateSkillAoeTiles(aoeCenterTile, selectedSkill.getAoeRadius());
                     currentActionState = ActionState.TARGETING_SKILL_AOE_CONFIRM;
+                    highlightVersion++;
                     Gdx.app.log("BattleInputHandler", "AoE center selected at " + tileX + "," + tileY + ". Confirm or cancel.");
                     return true;
                 }
@@ -316,6 +337,7 @@ public class BattleInputHandler extends InputAdapter {
 
     public void setActionState(ActionState state) {
         this.currentActionState = state;
+        highlightVersion++;
         if (state == ActionState.IDLE || state == ActionState.MOVING) {
             this.selectedSkill = null; // Clear selected skill when returning to general movement/idle
             // Highlights for movement should be recalculated if state is MOVING
@@ -4,10 +4,9 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputProcessor;
 import com.danbramos.ringprototype.RingPrototypeGame;
-import com.danbramos.ringprototype.screens.BattleScreen;
 import com.danbramos.ringprototype.screens.MapScreen;
-import com.danbramos.ringprototype.screens.PartyScreen;
 import com.danbramos.ringprototype.screens.PauseMenuScreen; // Import PauseMenuScreen
+import com.danbramos.ringprototype.world.WorldSimulation;
 
 public class MapInputHandler implements InputProcessor {
 
@@ -39,20 +38,35 @@ public class MapInputHandler implements InputProcessor {
         }
 
         if (deltaX != 0 || deltaY != 0) {
+            game.perf.input.start();
+            mapScreen.cancelTravel(); // Walking by hand takes over from a clicked route
             mapScreen.attemptCharacterMove(deltaX, deltaY);
+            game.perf.input.stop();
             return true;
         }
 
         if (keycode == Input.Keys.P) {
             Gdx.app.log("MapInputHandler", "P key pressed, switching to PartyScreen.");
             // Pass the current mapScreen as the previous screen for PartyScreen if it needs to return
-            game.setScreen(new PartyScreen(game));
+            game.setScreen(game.screens.getPartyScreen());
             return true;
         }
 
         if (keycode == Input.Keys.B) {
             Gdx.app.log("MapInputHandler", "B key pressed, switching to BattleScreen.");
-            game.setScreen(new BattleScreen(game));
+            mapScreen.startBattle();
+            return true;
+        }
+
+        if (keycode == Input.Keys.R) {
+            Gdx.app.log("MapInputHandler", "R key pressed, resting for the night.");
+            mapScreen.rest(WorldSimulation.NIGHT_TICKS);
+            return true;
+        }
+
+        if (keycode == Input.Keys.C) {
+            Gdx.app.log("MapInputHandler", "C key pressed, making camp.");
+            mapScreen.rest(MapScreen.CAMP_DAYS * WorldSimulation.TICKS_PER_DAY);
             return true;
         }
 
@@ -79,7 +93,12 @@ public class MapInputHandler implements InputProcessor {
 
     @Override
     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
-        return false;
+        if (button != Input.Buttons.LEFT) return false;
+        // Click-to-travel: plan a route to the clicked tile
+        game.perf.input.start();
+        mapScreen.travelToScreenPoint(screenX, screenY);
+        game.perf.input.stop();
+        return true;
     }
 
     @Override
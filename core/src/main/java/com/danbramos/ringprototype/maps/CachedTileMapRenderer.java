@@ -0,0 +1,156 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapImageLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthoCachedTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Draws static tile layers from a SpriteCache that is built once and replayed every frame,
+ * instead of rebuilding the vertices of every visible tile per frame like OrthogonalTiledMapRenderer.
+ * <p>
+ * Layers with the boolean property {@value #DYNAMIC_PROPERTY} set to true are drawn per frame by a regular
+ * OrthogonalTiledMapRenderer (created only if such a layer exists). After changing a static layer,
+ * call {@link #markDirty()} so the cache is rebuilt on the next render.
+ */
+public class CachedTileMapRenderer implements TiledMapRenderer, Disposable {
+    public static final String DYNAMIC_PROPERTY = "dynamic";
+    // A SpriteCache indexes its vertices with shorts, so it can't hold more sprites than this
+    private static final int MAX_CACHE_SPRITES = 8191;
+
+    private final TiledMap map;
+    private final OrthoCachedTiledMapRenderer staticRenderer;
+    private final OrthogonalTiledMapRenderer dynamicRenderer;
+    private final int[] dynamicLayers;
+    private final int cacheSize;
+    // Reused for single-layer render calls so render() doesn't allocate
+    private final int[] singleLayer = new int[1];
+
+    public CachedTileMapRenderer(TiledMap map, float unitScale) {
+        this.map = map;
+
+        IntArray dynamics = new IntArray();
+        int tileCount = 0;
+        MapLayers layers = map.getLayers();
+        for (int i = 0; i < layers.getCount(); i++) {
+            MapLayer layer = layers.get(i);
+            if (layer.getProperties().get(DYNAMIC_PROPERTY, false, Boolean.class)) {
+                dynamics.add(i);
+            } else if (layer instanceof TiledMapTileLayer) {
+                tileCount += ((TiledMapTileLayer) layer).getWidth() * ((TiledMapTileLayer) layer).getHeight();
+            }
+        }
+        this.dynamicLayers = dynamics.toArray();
+
+        // Large enough to cache every static tile of small maps; bigger maps cache the area around the view
+        this.cacheSize = Math.max(1, Math.min(tileCount, MAX_CACHE_SPRITES));
+        this.staticRenderer = new OrthoCachedTiledMapRenderer(map, unitScale, cacheSize);
+        // Match OrthogonalTiledMapRenderer, which always blends
+        this.staticRenderer.setBlending(true);
+        this.dynamicRenderer = dynamicLayers.length > 0 ? new OrthogonalTiledMapRenderer(map, unitScale) : null;
+    }
+
+    /**
+     * Forces the static layer cache to be rebuilt on the next render, e.g. after a tile was changed
+     */
+    public void markDirty() {
+        staticRenderer.invalidateCache();
+    }
+
+    /**
+     * Gets the number of sprites the static cache can hold, for memory estimates
+     * @return The SpriteCache size in sprites
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public TiledMap getMap() {
+        return map;
+    }
+
+    @Override
+    public void setView(OrthographicCamera camera) {
+        staticRenderer.setView(camera);
+        if (dynamicRenderer != null) dynamicRenderer.setView(camera);
+    }
+
+    @Override
+    public void setView(Matrix4 projectionMatrix, float viewboundsX, float viewboundsY, float viewboundsWidth, float viewboundsHeight) {
+        staticRenderer.setView(projectionMatrix, viewboundsX, viewboundsY, viewboundsWidth, viewboundsHeight);
+        if (dynamicRenderer != null) {
+            dynamicRenderer.setView(projectionMatrix, viewboundsX, viewboundsY, viewboundsWidth, viewboundsHeight);
+        }
+    }
+
+    @Override
+    public void render() {
+        if (dynamicRenderer == null) {
+            staticRenderer.render();
+            return;
+        }
+        // Keep the map's layer order: static layers come from the cache, dynamic ones are rebuilt per frame
+        int layerCount = map.getLayers().getCount();
+        for (int i = 0; i < layerCount; i++) {
+            renderLayer(i);
+        }
+    }
+
+    @Override
+    public void render(int[] layers) {
+        for (int index : layers) {
+            renderLayer(index);
+        }
+    }
+
+    private void renderLayer(int index) {
+        singleLayer[0] = index;
+        if (dynamicRenderer != null && isDynamic(index)) {
+            dynamicRenderer.render(singleLayer);
+        } else {
+            staticRenderer.render(singleLayer);
+        }
+    }
+
+    private boolean isDynamic(int layerIndex) {
+        for (int dynamicLayer : dynamicLayers) {
+            if (dynamicLayer == layerIndex) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void renderObjects(MapLayer layer) {
+        staticRenderer.renderObjects(layer);
+    }
+
+    @Override
+    public void renderObject(MapObject object) {
+        staticRenderer.renderObject(object);
+    }
+
+    @Override
+    public void renderTileLayer(TiledMapTileLayer layer) {
+        staticRenderer.renderTileLayer(layer);
+    }
+
+    @Override
+    public void renderImageLayer(TiledMapImageLayer layer) {
+        staticRenderer.renderImageLayer(layer);
+    }
+
+    @Override
+    public void dispose() {
+        staticRenderer.dispose();
+        if (dynamicRenderer != null) dynamicRenderer.dispose();
+    }
+}
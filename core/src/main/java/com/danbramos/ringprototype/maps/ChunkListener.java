@@ -0,0 +1,13 @@
+package com.danbramos.ringprototype.maps;
+
+/**
+ * Notified on the render thread when a {@link ChunkStreamer} brings a chunk in or lets one go
+ */
+public interface ChunkListener {
+    void onChunkLoaded(WorldChunk chunk);
+
+    /**
+     * Called before the chunk object is returned to the pool; don't keep a reference to it
+     */
+    void onChunkUnloaded(WorldChunk chunk);
+}
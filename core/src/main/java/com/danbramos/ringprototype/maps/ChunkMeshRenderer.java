@@ -0,0 +1,291 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Draws the chunks of a {@link ChunkStreamer} from one static mesh per chunk.
+ * <p>
+ * A chunk's vertices are built the first time it is in view and then replayed with a single draw call per
+ * frame, in world units of one tile. Meshes are released when their chunk is unloaded and reused for the
+ * next one, so there are never more meshes than the streamer holds chunks.
+ * <p>
+ * Like OrthogonalTiledMapRenderer, layers the source reports as invisible are left out, and flipped or
+ * rotated cells are drawn with their texture coordinates flipped or rotated. Meshes are rebuilt when a
+ * layer's visibility changes.
+ */
+public class ChunkMeshRenderer implements ChunkListener, Disposable {
+    // Indices are unsigned shorts, so 4 vertices per quad caps a mesh at 16383 quads
+    private static final int MAX_QUADS = 16383;
+    private static final int FLOATS_PER_VERTEX = 5; // x, y, packed color, u, v
+    private static final int FLOATS_PER_QUAD = FLOATS_PER_VERTEX * 4;
+
+    private final ChunkStreamer streamer;
+    private final ChunkTileset tileset;
+    private final int layerCount;
+    private final int maxQuads;
+    private final float[] vertices;
+    private final short[] indices;
+    private final ShaderProgram shader;
+    private final IntMap<ChunkMesh> meshes = new IntMap<>();
+    private final Array<ChunkMesh> freeMeshes = new Array<>();
+    private final boolean[] layerVisible; // As the meshes were built
+    // Texture coordinates of a tile's corners, counter-clockwise from the bottom left, before rotation
+    private final float[] cornerU = new float[4];
+    private final float[] cornerV = new float[4];
+    private int drawnChunks;
+
+    private static final class ChunkMesh {
+        final Mesh mesh;
+        int quadCount;
+
+        ChunkMesh(Mesh mesh) {
+            this.mesh = mesh;
+        }
+    }
+
+    /**
+     * @param streamer The chunks to draw; the renderer registers itself as a listener
+     * @param tileset Regions of the streamed tile IDs
+     */
+    public ChunkMeshRenderer(ChunkStreamer streamer, ChunkTileset tileset) {
+        this.streamer = streamer;
+        this.tileset = tileset;
+        int layers = streamer.getSource().getLayerCount();
+        int maxLayers = MAX_QUADS / (WorldChunk.SIZE * WorldChunk.SIZE);
+        if (layers > maxLayers) {
+            Gdx.app.error("ChunkMeshRenderer", "Only the first " + maxLayers + " of " + layers + " layers fit in a chunk mesh.");
+            layers = maxLayers;
+        }
+        this.layerCount = layers;
+        this.layerVisible = new boolean[layers];
+        for (int layer = 0; layer < layers; layer++) {
+            layerVisible[layer] = streamer.getSource().isLayerVisible(layer);
+        }
+        this.maxQuads = Math.max(1, layers * WorldChunk.SIZE * WorldChunk.SIZE);
+        this.vertices = new float[maxQuads * FLOATS_PER_QUAD];
+
+        // Two triangles per quad; the same pattern is uploaded to every mesh
+        this.indices = new short[maxQuads * 6];
+        for (int i = 0, v = 0; i < indices.length; i += 6, v += 4) {
+            indices[i] = (short) v;
+            indices[i + 1] = (short) (v + 1);
+            indices[i + 2] = (short) (v + 2);
+            indices[i + 3] = (short) (v + 2);
+            indices[i + 4] = (short) (v + 3);
+            indices[i + 5] = (short) v;
+        }
+
+        shader = SpriteBatch.createDefaultShader();
+        if (!shader.isCompiled()) {
+            Gdx.app.error("ChunkMeshRenderer", "Chunk shader failed to compile: " + shader.getLog());
+        }
+        streamer.addListener(this);
+    }
+
+    /**
+     * Draws the loaded chunks that overlap the camera view
+     * @param camera A camera in tile units
+     */
+    public void render(OrthographicCamera camera) {
+        drawnChunks = 0;
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        int minX = Math.max(0, MathUtils.floor((camera.position.x - halfWidth) / WorldChunk.SIZE));
+        int minY = Math.max(0, MathUtils.floor((camera.position.y - halfHeight) / WorldChunk.SIZE));
+        int maxX = Math.min(streamer.getWidthInChunks() - 1, MathUtils.floor((camera.position.x + halfWidth) / WorldChunk.SIZE));
+        int maxY = Math.min(streamer.getHeightInChunks() - 1, MathUtils.floor((camera.position.y + halfHeight) / WorldChunk.SIZE));
+        if (minX > maxX || minY > maxY) return;
+        if (updateLayerVisibility()) {
+            // Built again below with the layers that are now visible
+            for (ChunkMesh chunkMesh : meshes.values()) {
+                freeMeshes.add(chunkMesh);
+            }
+            meshes.clear();
+        }
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        tileset.getTexture().bind(0);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", camera.combined);
+        shader.setUniformi("u_texture", 0);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                WorldChunk chunk = streamer.getChunk(x, y);
+                if (chunk == null) continue; // Still being streamed in
+                ChunkMesh chunkMesh = meshes.get(ChunkStreamer.key(x, y));
+                if (chunkMesh == null) {
+                    chunkMesh = buildMesh(chunk);
+                }
+                if (chunkMesh.quadCount == 0) continue;
+                chunkMesh.mesh.render(shader, GL20.GL_TRIANGLES, 0, chunkMesh.quadCount * 6);
+                drawnChunks++;
+            }
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /**
+     * Takes over the source's layer visibility
+     * @return True if a layer was shown or hidden since the meshes were built
+     */
+    private boolean updateLayerVisibility() {
+        boolean changed = false;
+        ChunkSource source = streamer.getSource();
+        for (int layer = 0; layer < layerCount; layer++) {
+            boolean visible = source.isLayerVisible(layer);
+            if (visible != layerVisible[layer]) {
+                layerVisible[layer] = visible;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return Chunks drawn by the last render, for profiling
+     */
+    public int getDrawnChunkCount() {
+        return drawnChunks;
+    }
+
+    /**
+     * @return Meshes created so far, in use or pooled
+     */
+    public int getMeshCount() {
+        return meshes.size + freeMeshes.size;
+    }
+
+    @Override
+    public void onChunkLoaded(WorldChunk chunk) {
+        // Built lazily in render(), so chunks prefetched out of view cost no GPU upload
+    }
+
+    @Override
+    public void onChunkUnloaded(WorldChunk chunk) {
+        ChunkMesh chunkMesh = meshes.remove(ChunkStreamer.key(chunk.getChunkX(), chunk.getChunkY()));
+        if (chunkMesh != null) {
+            freeMeshes.add(chunkMesh);
+        }
+    }
+
+    private ChunkMesh buildMesh(WorldChunk chunk) {
+        ChunkMesh chunkMesh;
+        if (freeMeshes.size > 0) {
+            chunkMesh = freeMeshes.pop();
+        } else {
+            Mesh mesh = new Mesh(true, maxQuads * 4, maxQuads * 6,
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                VertexAttribute.ColorPacked(),
+                VertexAttribute.TexCoords(0));
+            mesh.setIndices(indices);
+            chunkMesh = new ChunkMesh(mesh);
+        }
+
+        float color = Color.WHITE_FLOAT_BITS;
+        int originX = chunk.getOriginX();
+        int originY = chunk.getOriginY();
+        int quads = 0;
+        for (int layer = 0; layer < layerCount; layer++) {
+            if (!layerVisible[layer]) continue;
+            for (int y = 0; y < WorldChunk.SIZE; y++) {
+                for (int x = 0; x < WorldChunk.SIZE; x++) {
+                    int tile = chunk.getTile(layer, x, y);
+                    TextureRegion region = tileset.getRegion(WorldChunk.getTileId(tile));
+                    if (region == null) continue;
+                    setCornerCoordinates(region, tile);
+                    // A quarter turn counter-clockwise moves each corner's coordinates to the next corner
+                    int rotation = WorldChunk.getRotation(tile);
+                    int c0 = (4 - rotation) & 3;
+                    int c1 = (5 - rotation) & 3;
+                    int c2 = (6 - rotation) & 3;
+                    int c3 = (7 - rotation) & 3;
+                    float x1 = originX + x;
+                    float y1 = originY + y;
+                    float x2 = x1 + 1f;
+                    float y2 = y1 + 1f;
+                    int i = quads * FLOATS_PER_QUAD;
+                    vertices[i] = x1;
+                    vertices[i + 1] = y1;
+                    vertices[i + 2] = color;
+                    vertices[i + 3] = cornerU[c0];
+                    vertices[i + 4] = cornerV[c0];
+                    vertices[i + 5] = x2;
+                    vertices[i + 6] = y1;
+                    vertices[i + 7] = color;
+                    vertices[i + 8] = cornerU[c1];
+                    vertices[i + 9] = cornerV[c1];
+                    vertices[i + 10] = x2;
+                    vertices[i + 11] = y2;
+                    vertices[i + 12] = color;
+                    vertices[i + 13] = cornerU[c2];
+                    vertices[i + 14] = cornerV[c2];
+                    vertices[i + 15] = x1;
+                    vertices[i + 16] = y2;
+                    vertices[i + 17] = color;
+                    vertices[i + 18] = cornerU[c3];
+                    vertices[i + 19] = cornerV[c3];
+                    quads++;
+                }
+            }
+        }
+        chunkMesh.mesh.setVertices(vertices, 0, quads * FLOATS_PER_QUAD);
+        chunkMesh.quadCount = quads;
+        meshes.put(ChunkStreamer.key(chunk.getChunkX(), chunk.getChunkY()), chunkMesh);
+        return chunkMesh;
+    }
+
+    /**
+     * Fills the corner coordinates of a region, flipped as the tile's flags ask, in the same order as the quad's
+     * vertices: bottom left, bottom right, top right, top left
+     */
+    private void setCornerCoordinates(TextureRegion region, int tile) {
+        float left = region.getU();
+        float right = region.getU2();
+        float bottom = region.getV2();
+        float top = region.getV();
+        if ((tile & WorldChunk.FLIP_HORIZONTALLY) != 0) {
+            left = region.getU2();
+            right = region.getU();
+        }
+        if ((tile & WorldChunk.FLIP_VERTICALLY) != 0) {
+            bottom = region.getV();
+            top = region.getV2();
+        }
+        cornerU[0] = left;
+        cornerV[0] = bottom;
+        cornerU[1] = right;
+        cornerV[1] = bottom;
+        cornerU[2] = right;
+        cornerV[2] = top;
+        cornerU[3] = left;
+        cornerV[3] = top;
+    }
+
+    @Override
+    public void dispose() {
+        streamer.removeListener(this);
+        for (ChunkMesh chunkMesh : meshes.values()) {
+            chunkMesh.mesh.dispose();
+        }
+        for (ChunkMesh chunkMesh : freeMeshes) {
+            chunkMesh.mesh.dispose();
+        }
+        meshes.clear();
+        freeMeshes.clear();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,32 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Supplies the tile IDs of a streamed world chunk by chunk, see {@link ChunkStreamer}
+ */
+public interface ChunkSource extends Disposable {
+    int getWidthInTiles();
+
+    int getHeightInTiles();
+
+    /**
+     * @return Number of tile layers every chunk stores
+     */
+    int getLayerCount();
+
+    /**
+     * Tells whether a layer is drawn, like TiledMapTileLayer.isVisible(). Called on the render thread.
+     * @param layer Layer index, bottom first
+     */
+    boolean isLayerVisible(int layer);
+
+    /**
+     * Fills a chunk with the tile IDs at its coordinates. Called on the streaming thread, and sometimes on the
+     * render thread at the same time, so implementations must be safe for concurrent reads and must not touch
+     * GL state or anything the render thread changes.
+     * @param chunk A chunk already reset to its coordinates, with every tile empty
+     * @return False if the chunk couldn't be read
+     */
+    boolean readChunk(WorldChunk chunk);
+}
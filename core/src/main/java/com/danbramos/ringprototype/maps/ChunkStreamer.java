@@ -0,0 +1,343 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.IntSet;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Keeps the {@link WorldChunk}s around the party in memory and lets the rest go.
+ * <p>
+ * Every {@link #update(float, float)} works out the window of chunks within the load radius of the party's
+ * chunk, widened by the prefetch distance in the direction the party last moved. Chunks that left the window
+ * are evicted, and missing ones are read by the {@link ChunkSource} on a background thread, nearest first,
+ * then handed back to the render thread through {@link com.badlogic.gdx.Application#postRunnable(Runnable)}.
+ * Only the chunk under the party is read synchronously when it isn't there yet, e.g. on the first frame.
+ * <p>
+ * Chunks and their off-heap buffers come from a pool capped at the largest possible window, so memory use
+ * depends on the radius, not on the size of the world. All methods must be called on the render thread.
+ */
+public class ChunkStreamer implements Disposable {
+    private final ChunkSource source;
+    private final int loadRadius;
+    private final int prefetchDistance;
+    private final int capacity;
+    private final int widthInChunks;
+    private final int heightInChunks;
+
+    private final IntMap<LoadTask> loaded = new IntMap<>();
+    private final IntSet pending = new IntSet();
+    private final Array<LoadTask> freeTasks = new Array<>();
+    private int allocatedTasks;
+    private final ExecutorService loader;
+    private final Array<ChunkListener> listeners = new Array<>();
+    private final IntArray evictions = new IntArray();
+    private boolean starved; // A request was turned down because every pooled chunk was in use
+    private boolean disposed;
+    private volatile boolean readFailed; // Set from either thread when the source couldn't deliver a chunk
+
+    // The party's last chunk and tile, and the direction of its last move (-1, 0 or 1 per axis)
+    private int centerX = Integer.MIN_VALUE;
+    private int centerY = Integer.MIN_VALUE;
+    private int lastTileX = Integer.MIN_VALUE;
+    private int lastTileY = Integer.MIN_VALUE;
+    private int headingX;
+    private int headingY;
+
+    // The window computed by the last update, inclusive chunk coordinates
+    private int minChunkX;
+    private int minChunkY;
+    private int maxChunkX;
+    private int maxChunkY;
+
+    /**
+     * A pooled chunk with the two steps of loading it: the read on the loader thread, then the hand-over
+     * on the render thread
+     */
+    private final class LoadTask {
+        final WorldChunk chunk;
+        volatile boolean success;
+
+        final Runnable read = new Runnable() {
+            @Override
+            public void run() {
+                success = read(chunk);
+                Gdx.app.postRunnable(finish);
+            }
+        };
+
+        final Runnable finish = new Runnable() {
+            @Override
+            public void run() {
+                finishLoad(LoadTask.this);
+            }
+        };
+
+        LoadTask(int layerCount) {
+            this.chunk = new WorldChunk(layerCount);
+        }
+    }
+
+    /**
+     * @param source Where chunks are read from; stays owned by the caller, e.g. a region file owned by the {@link MapCache}
+     * @param loadRadius Chunks kept in each direction around the party's chunk
+     * @param prefetchDistance Extra chunks loaded ahead in the direction of travel
+     */
+    public ChunkStreamer(ChunkSource source, int loadRadius, int prefetchDistance) {
+        this.source = source;
+        this.loadRadius = Math.max(0, loadRadius);
+        this.prefetchDistance = Math.max(0, prefetchDistance);
+        int span = 2 * this.loadRadius + 1 + this.prefetchDistance;
+        this.capacity = span * span;
+        this.widthInChunks = (source.getWidthInTiles() + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        this.heightInChunks = (source.getHeightInTiles() + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        this.loader = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ChunkStreamer");
+                thread.setDaemon(true); // Never keeps the game from exiting
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            }
+        });
+    }
+
+    public void addListener(ChunkListener listener) {
+        if (!listeners.contains(listener, true)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(ChunkListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    public ChunkSource getSource() {
+        return source;
+    }
+
+    /**
+     * Moves the streaming window to the party's position; cheap when the party stayed in the same chunk
+     * @param partyX The party's tile x, e.g. from {@code PartyManager.getMapPosition()}
+     * @param partyY The party's tile y
+     */
+    public void update(float partyX, float partyY) {
+        if (disposed) return;
+        int tileX = MathUtils.floor(partyX);
+        int tileY = MathUtils.floor(partyY);
+        if (lastTileX != Integer.MIN_VALUE && (tileX != lastTileX || tileY != lastTileY)) {
+            headingX = Integer.signum(tileX - lastTileX);
+            headingY = Integer.signum(tileY - lastTileY);
+        }
+        lastTileX = tileX;
+        lastTileY = tileY;
+
+        int chunkX = Math.floorDiv(tileX, WorldChunk.SIZE);
+        int chunkY = Math.floorDiv(tileY, WorldChunk.SIZE);
+        if (chunkX != centerX || chunkY != centerY) {
+            centerX = chunkX;
+            centerY = chunkY;
+            refresh();
+        }
+    }
+
+    /**
+     * Gets a loaded chunk
+     * @return The chunk, or null if it isn't in memory (yet)
+     */
+    public WorldChunk getChunk(int chunkX, int chunkY) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= widthInChunks || chunkY >= heightInChunks) return null;
+        LoadTask task = loaded.get(key(chunkX, chunkY));
+        return task != null ? task.chunk : null;
+    }
+
+    /**
+     * Gets a tile by world coordinates
+     * @return The tile with its flags, see {@link WorldChunk#packTile}; {@link WorldChunk#EMPTY} if its chunk isn't loaded
+     */
+    public int getTile(int layer, int x, int y) {
+        WorldChunk chunk = getChunk(Math.floorDiv(x, WorldChunk.SIZE), Math.floorDiv(y, WorldChunk.SIZE));
+        if (chunk == null || layer >= chunk.getLayerCount()) return WorldChunk.EMPTY;
+        return chunk.getTile(layer, x - chunk.getOriginX(), y - chunk.getOriginY());
+    }
+
+    /**
+     * @return True once any chunk couldn't be read; it is left out, so the owner should switch to another source
+     */
+    public boolean hasReadFailed() {
+        return readFailed;
+    }
+
+    public int getLoadedCount() {
+        return loaded.size;
+    }
+
+    /**
+     * @return The most chunks that are ever held at once
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return Off-heap bytes of the chunks allocated so far; never more than capacity chunks' worth
+     */
+    public long getAllocatedBytes() {
+        return (long) allocatedTasks * WorldChunk.getSizeInBytes(source.getLayerCount());
+    }
+
+    public int getWidthInChunks() {
+        return widthInChunks;
+    }
+
+    public int getHeightInChunks() {
+        return heightInChunks;
+    }
+
+    /**
+     * Recomputes the window around the current center, evicts chunks outside of it and requests missing ones
+     */
+    private void refresh() {
+        int aheadX = headingX * prefetchDistance;
+        int aheadY = headingY * prefetchDistance;
+        minChunkX = Math.max(0, centerX - loadRadius + Math.min(0, aheadX));
+        minChunkY = Math.max(0, centerY - loadRadius + Math.min(0, aheadY));
+        maxChunkX = Math.min(widthInChunks - 1, centerX + loadRadius + Math.max(0, aheadX));
+        maxChunkY = Math.min(heightInChunks - 1, centerY + loadRadius + Math.max(0, aheadY));
+
+        evictions.clear();
+        for (IntMap.Entry<LoadTask> entry : loaded.entries()) {
+            if (!inWindow(entry.value.chunk.getChunkX(), entry.value.chunk.getChunkY())) {
+                evictions.add(entry.key);
+            }
+        }
+        for (int i = 0; i < evictions.size; i++) {
+            unload(evictions.get(i));
+        }
+
+        // The party's own chunk can't wait for the loader, or the first frame would be drawn empty
+        if (inWindow(centerX, centerY) && !loaded.containsKey(key(centerX, centerY))
+            && !pending.contains(key(centerX, centerY))) {
+            LoadTask task = obtainTask(centerX, centerY);
+            if (task != null) {
+                task.success = read(task.chunk);
+                finishLoad(task);
+            }
+        }
+
+        starved = false;
+        // Request the rest ring by ring, so the loader reads the nearest chunks first
+        int rings = loadRadius + prefetchDistance;
+        for (int ring = 1; ring <= rings; ring++) {
+            for (int y = centerY - ring; y <= centerY + ring; y++) {
+                for (int x = centerX - ring; x <= centerX + ring; x++) {
+                    if (Math.max(Math.abs(x - centerX), Math.abs(y - centerY)) != ring) continue;
+                    if (!inWindow(x, y)) continue;
+                    int key = key(x, y);
+                    if (loaded.containsKey(key) || pending.contains(key)) continue;
+                    LoadTask task = obtainTask(x, y);
+                    if (task == null) {
+                        // Every pooled chunk is held by reads still in flight; retried when one finishes
+                        starved = true;
+                        return;
+                    }
+                    pending.add(key);
+                    loader.execute(task.read);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a chunk from the source; a source that throws, e.g. on a corrupt file, counts as a failed read
+     */
+    private boolean read(WorldChunk chunk) {
+        boolean success;
+        try {
+            success = source.readChunk(chunk);
+        } catch (Exception e) {
+            Gdx.app.error("ChunkStreamer", "Failed to read chunk " + chunk.getChunkX() + "," + chunk.getChunkY(), e);
+            success = false;
+        }
+        if (!success && !disposed) {
+            readFailed = true;
+        }
+        return success;
+    }
+
+    private boolean inWindow(int chunkX, int chunkY) {
+        return chunkX >= minChunkX && chunkX <= maxChunkX && chunkY >= minChunkY && chunkY <= maxChunkY;
+    }
+
+    private LoadTask obtainTask(int chunkX, int chunkY) {
+        LoadTask task;
+        if (freeTasks.size > 0) {
+            task = freeTasks.pop();
+        } else if (allocatedTasks < capacity) {
+            task = new LoadTask(source.getLayerCount());
+            allocatedTasks++;
+        } else {
+            return null;
+        }
+        task.chunk.reset(chunkX, chunkY);
+        return task;
+    }
+
+    /**
+     * Takes over a chunk read by the loader; chunks that left the window meanwhile go straight back to the pool
+     */
+    private void finishLoad(LoadTask task) {
+        int key = key(task.chunk.getChunkX(), task.chunk.getChunkY());
+        pending.remove(key);
+        if (disposed) return;
+        if (!task.success || !inWindow(task.chunk.getChunkX(), task.chunk.getChunkY()) || loaded.containsKey(key)) {
+            freeTasks.add(task);
+        } else {
+            loaded.put(key, task);
+            for (int i = listeners.size - 1; i >= 0; i--) {
+                listeners.get(i).onChunkLoaded(task.chunk);
+            }
+            Gdx.graphics.requestRendering();
+        }
+        if (starved) {
+            refresh();
+        }
+    }
+
+    private void unload(int key) {
+        LoadTask task = loaded.remove(key);
+        if (task == null) return;
+        for (int i = listeners.size - 1; i >= 0; i--) {
+            listeners.get(i).onChunkUnloaded(task.chunk);
+        }
+        freeTasks.add(task);
+    }
+
+    static int key(int chunkX, int chunkY) {
+        return (chunkX << 16) | (chunkY & 0xFFFF);
+    }
+
+    /**
+     * Stops the loader and drops every chunk. Reads still in flight finish on their own but are discarded.
+     */
+    @Override
+    public void dispose() {
+        disposed = true;
+        loader.shutdownNow();
+        for (IntMap.Entry<LoadTask> entry : loaded.entries()) {
+            for (int i = listeners.size - 1; i >= 0; i--) {
+                listeners.get(i).onChunkUnloaded(entry.value.chunk);
+            }
+        }
+        loaded.clear();
+        pending.clear();
+        freeTasks.clear();
+    }
+}
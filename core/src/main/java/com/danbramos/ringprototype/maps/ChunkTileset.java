@@ -0,0 +1,102 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+
+/**
+ * Looks up the texture region of a streamed tile ID with a plain array index.
+ * All tiles must come from one texture so a chunk can be drawn in a single call.
+ */
+public class ChunkTileset {
+    private final Texture texture;
+    private final TextureRegion[] regions;
+
+    /**
+     * @param texture The texture every region belongs to
+     * @param regions Regions indexed by tile ID; null entries are not drawn
+     */
+    public ChunkTileset(Texture texture, TextureRegion[] regions) {
+        this.texture = texture;
+        this.regions = regions;
+    }
+
+    /**
+     * Collects the tiles of a TiledMap's tilesets. Tiles on a different texture than the first one are
+     * skipped with an error.
+     * @param map The map whose tile IDs will be streamed
+     * @return The tileset, or null if the map has no tiles
+     */
+    public static ChunkTileset fromTiledMap(TiledMap map) {
+        int maxId = 0;
+        Texture texture = null;
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                maxId = Math.max(maxId, tile.getId());
+                if (texture == null && tile.getTextureRegion() != null) {
+                    texture = tile.getTextureRegion().getTexture();
+                }
+            }
+        }
+        if (texture == null) {
+            Gdx.app.error("ChunkTileset", "Map has no tile textures.");
+            return null;
+        }
+
+        TextureRegion[] regions = new TextureRegion[maxId + 1];
+        int skipped = 0;
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            for (TiledMapTile tile : tileSet) {
+                TextureRegion region = tile.getTextureRegion();
+                if (region == null) continue;
+                if (region.getTexture() != texture) {
+                    skipped++;
+                    continue;
+                }
+                regions[tile.getId()] = region;
+            }
+        }
+        if (skipped > 0) {
+            Gdx.app.error("ChunkTileset", skipped + " tiles use another texture than the first tileset and won't be drawn.");
+        }
+        return new ChunkTileset(texture, regions);
+    }
+
+    /**
+     * Cuts the regions of a tileset image laid out as a grid, like a Tiled tileset
+     * @param texture The tileset image
+     * @param firstId Tile ID of the top-left tile
+     * @param tileWidth Tile width in pixels
+     * @param tileHeight Tile height in pixels
+     * @param columns Tiles per row
+     * @param tileCount Number of tiles
+     * @param margin Pixels around the grid
+     * @param spacing Pixels between tiles
+     * @return The tileset
+     */
+    public static ChunkTileset fromGrid(Texture texture, int firstId, int tileWidth, int tileHeight,
+                                        int columns, int tileCount, int margin, int spacing) {
+        TextureRegion[] regions = new TextureRegion[firstId + tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            int x = margin + (i % columns) * (tileWidth + spacing);
+            int y = margin + (i / columns) * (tileHeight + spacing);
+            regions[firstId + i] = new TextureRegion(texture, x, y, tileWidth, tileHeight);
+        }
+        return new ChunkTileset(texture, regions);
+    }
+
+    public Texture getTexture() {
+        return texture;
+    }
+
+    /**
+     * @param tileId A streamed tile ID
+     * @return The region, or null for empty or unknown IDs
+     */
+    public TextureRegion getRegion(int tileId) {
+        return tileId > 0 && tileId < regions.length ? regions[tileId] : null;
+    }
+}
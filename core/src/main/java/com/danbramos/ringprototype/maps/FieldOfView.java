@@ -0,0 +1,231 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The tiles the party can see, found by recursive shadowcasting over an opacity grid.
+ * <p>
+ * Each of the eight octants around the origin is scanned row by row outwards; an opaque tile narrows the
+ * visible slope range of the rows behind it and splits the scan in two. Opaque tiles themselves are visible.
+ * <p>
+ * Besides the visible set, every {@link #update(int, int)} reports which tiles came into view and which left
+ * it since the previous origin, so consumers like {@link FogOfWar} only touch the tiles that changed. The
+ * visibility stamps live in two small windows around the new and the previous origin, swapped per update,
+ * so nothing is allocated or cleared per move. Tiles are packed with {@link #pack(int, int)}.
+ */
+public class FieldOfView {
+    // Octant transforms: world dx = col * XX + row * XY, world dy = col * YX + row * YY
+    private static final int[] XX = {1, 0, 0, -1, -1, 0, 0, 1};
+    private static final int[] XY = {0, 1, -1, 0, 0, -1, 1, 0};
+    private static final int[] YX = {0, 1, 1, 0, 0, -1, -1, 0};
+    private static final int[] YY = {1, 0, 0, 1, -1, 0, 0, -1};
+    private static final int NO_ORIGIN = Integer.MIN_VALUE;
+
+    private TraversabilityMap opaque;
+    private final int radius;
+    private final int windowSize;
+
+    private int originX = NO_ORIGIN;
+    private int originY = NO_ORIGIN;
+    private int[] stamps;
+    private int generation;
+    private int previousOriginX = NO_ORIGIN;
+    private int previousOriginY = NO_ORIGIN;
+    private int[] previousStamps;
+    private boolean dirty = true;
+
+    private final IntArray visible = new IntArray();
+    private final IntArray previousVisible = new IntArray();
+    private final IntArray entered = new IntArray();
+    private final IntArray left = new IntArray();
+
+    /**
+     * @param opaque Tiles that block line of sight; tiles outside the map count as opaque
+     * @param radius Sight radius in tiles
+     */
+    public FieldOfView(TraversabilityMap opaque, int radius) {
+        this.opaque = opaque;
+        this.radius = Math.max(0, radius);
+        this.windowSize = 2 * this.radius + 1;
+        this.stamps = new int[windowSize * windowSize];
+        this.previousStamps = new int[windowSize * windowSize];
+    }
+
+    /**
+     * Switches to another opacity grid, e.g. after the map was reloaded; the next update recomputes
+     */
+    public void setOpaque(TraversabilityMap opaque) {
+        this.opaque = opaque;
+        dirty = true;
+    }
+
+    public TraversabilityMap getOpaque() {
+        return opaque;
+    }
+
+    /**
+     * Forces the next update to recompute even if the origin didn't move, e.g. after the terrain changed
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Recomputes the visible tiles around an origin and the difference to the previous result
+     * @param x Origin tile x
+     * @param y Origin tile y
+     * @return False if nothing was done because the origin didn't move since the last update
+     */
+    public boolean update(int x, int y) {
+        if (!dirty && x == originX && y == originY) return false;
+        dirty = false;
+
+        // The current result becomes the previous one
+        int[] swap = previousStamps;
+        previousStamps = stamps;
+        stamps = swap;
+        previousOriginX = originX;
+        previousOriginY = originY;
+        previousVisible.clear();
+        previousVisible.addAll(visible);
+        originX = x;
+        originY = y;
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Never reached in practice, but a wrapped generation could match stale stamps
+            Arrays.fill(stamps, 0);
+            Arrays.fill(previousStamps, 0);
+            previousVisible.clear();
+            previousOriginX = NO_ORIGIN;
+            generation = 1;
+        }
+
+        visible.clear();
+        light(x, y);
+        for (int octant = 0; octant < 8; octant++) {
+            castLight(1, 1f, 0f, XX[octant], XY[octant], YX[octant], YY[octant]);
+        }
+
+        entered.clear();
+        for (int i = 0; i < visible.size; i++) {
+            int tile = visible.get(i);
+            if (!wasVisible(unpackX(tile), unpackY(tile))) entered.add(tile);
+        }
+        left.clear();
+        for (int i = 0; i < previousVisible.size; i++) {
+            int tile = previousVisible.get(i);
+            if (!isVisible(unpackX(tile), unpackY(tile))) left.add(tile);
+        }
+        return true;
+    }
+
+    /**
+     * @return True if the tile was in view at the last update
+     */
+    public boolean isVisible(int x, int y) {
+        int index = windowIndex(x, y, originX, originY);
+        return index >= 0 && stamps[index] == generation;
+    }
+
+    private boolean wasVisible(int x, int y) {
+        int index = windowIndex(x, y, previousOriginX, previousOriginY);
+        return index >= 0 && previousStamps[index] == generation - 1;
+    }
+
+    /**
+     * @return Packed tiles in view at the last update; reused, don't keep
+     */
+    public IntArray getVisibleTiles() {
+        return visible;
+    }
+
+    /**
+     * @return Packed tiles that came into view at the last update
+     */
+    public IntArray getEnteredTiles() {
+        return entered;
+    }
+
+    /**
+     * @return Packed tiles that went out of view at the last update
+     */
+    public IntArray getLeftTiles() {
+        return left;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * Packs tile coordinates into one int; maps are limited to 65535 tiles per side
+     */
+    public static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    public static int unpackX(int packed) {
+        return packed >>> 16;
+    }
+
+    public static int unpackY(int packed) {
+        return packed & 0xFFFF;
+    }
+
+    /**
+     * Scans one octant from a row outwards, between two slopes (1 = the diagonal, 0 = the axis)
+     */
+    private void castLight(int row, float startSlope, float endSlope, int xx, int xy, int yx, int yy) {
+        if (startSlope < endSlope) return;
+        int radiusSquared = radius * radius;
+        float nextStart = startSlope;
+        for (int distance = row; distance <= radius; distance++) {
+            boolean blocked = false;
+            int dy = -distance;
+            for (int dx = -distance; dx <= 0; dx++) {
+                float leftSlope = (dx - 0.5f) / (dy + 0.5f);
+                float rightSlope = (dx + 0.5f) / (dy - 0.5f);
+                if (startSlope < rightSlope) continue;
+                if (endSlope > leftSlope) break;
+
+                int x = originX + dx * xx + dy * xy;
+                int y = originY + dx * yx + dy * yy;
+                if (dx * dx + dy * dy <= radiusSquared) light(x, y);
+
+                boolean opaqueTile = opaque.isBlocked(x, y);
+                if (blocked) {
+                    if (opaqueTile) {
+                        nextStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        startSlope = nextStart;
+                    }
+                } else if (opaqueTile && distance < radius) {
+                    // The rows behind this tile are only visible left of it; scan that part on its own
+                    blocked = true;
+                    castLight(distance + 1, startSlope, leftSlope, xx, xy, yx, yy);
+                    nextStart = rightSlope;
+                }
+            }
+            if (blocked) break;
+        }
+    }
+
+    private void light(int x, int y) {
+        if (x < 0 || y < 0 || x >= opaque.getWidth() || y >= opaque.getHeight()) return;
+        int index = windowIndex(x, y, originX, originY);
+        if (stamps[index] == generation) return; // Octant edges are scanned twice
+        stamps[index] = generation;
+        visible.add(pack(x, y));
+    }
+
+    private int windowIndex(int x, int y, int centerX, int centerY) {
+        if (centerX == NO_ORIGIN) return -1;
+        int localX = x - centerX + radius;
+        int localY = y - centerY + radius;
+        if (localX < 0 || localY < 0 || localX >= windowSize || localY >= windowSize) return -1;
+        return localY * windowSize + localX;
+    }
+}
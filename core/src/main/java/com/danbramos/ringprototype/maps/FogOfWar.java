@@ -0,0 +1,204 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fog of war over the overworld: unexplored tiles are black, explored ones out of sight are dimmed.
+ * <p>
+ * The party's view comes from a {@link FieldOfView}. Explored tiles are kept as one bitset per
+ * {@link WorldChunk}-sized region, allocated the first time the party sees into it. The fog is one texture
+ * with a texel per tile, drawn over the map as a single quad. When the party moves, only the rectangle of
+ * tiles that came into or went out of view is written to a small scratch Pixmap and uploaded with
+ * glTexSubImage2D; the rest of the texture is never touched again.
+ */
+public class FogOfWar implements Disposable {
+    private static final float EXPLORED_ALPHA = 0.55f;
+    private static final int WORDS_PER_CHUNK = WorldChunk.SIZE * WorldChunk.SIZE / 64;
+
+    private final FieldOfView fieldOfView;
+    private final int width;
+    private final int height;
+    private final IntMap<long[]> explored = new IntMap<>();
+    private final Texture texture;
+    // Scratch for sub-region uploads; rows are written tightly packed, so any rect up to its area fits
+    private final Pixmap patch;
+    private final int patchArea;
+
+    /**
+     * @param opaque Tiles that block line of sight, see {@link MapCache.CachedMap#getSightBlockers()}
+     * @param visionRadius How far the party sees, in tiles
+     */
+    public FogOfWar(TraversabilityMap opaque, int visionRadius) {
+        this.fieldOfView = new FieldOfView(opaque, visionRadius);
+        this.width = opaque.getWidth();
+        this.height = opaque.getHeight();
+
+        // Everything starts unexplored; the texture is filled once and then only patched
+        Pixmap initial = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        initial.setBlending(Pixmap.Blending.None);
+        initial.setColor(Color.BLACK);
+        initial.fill();
+        texture = new Texture(initial);
+        texture.setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear); // Soft fog edges
+        initial.dispose();
+
+        // One step moves the view by a tile, so the changed rect spans at most the view plus one row and column
+        int side = 2 * fieldOfView.getRadius() + 2;
+        patch = new Pixmap(side, side, Pixmap.Format.RGBA8888);
+        patchArea = side * side;
+    }
+
+    /**
+     * Keeps exploring with the same state on another opacity grid of the same size, e.g. after the map was reloaded
+     */
+    public void setOpaque(TraversabilityMap opaque) {
+        fieldOfView.setOpaque(opaque);
+    }
+
+    public TraversabilityMap getOpaque() {
+        return fieldOfView.getOpaque();
+    }
+
+    /**
+     * Moves the party's view; does nothing if the party is still on the same tile
+     * @param partyX The party's tile x
+     * @param partyY The party's tile y
+     */
+    public void update(int partyX, int partyY) {
+        if (!fieldOfView.update(partyX, partyY)) return;
+
+        IntArray visible = fieldOfView.getVisibleTiles();
+        for (int i = 0; i < visible.size; i++) {
+            int tile = visible.get(i);
+            markExplored(FieldOfView.unpackX(tile), FieldOfView.unpackY(tile));
+        }
+
+        // Tiles that came into view and tiles that left it; everything else in the texture is unchanged
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        IntArray entered = fieldOfView.getEnteredTiles();
+        for (int i = 0; i < entered.size; i++) {
+            int x = FieldOfView.unpackX(entered.get(i));
+            int y = FieldOfView.unpackY(entered.get(i));
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        IntArray left = fieldOfView.getLeftTiles();
+        for (int i = 0; i < left.size; i++) {
+            int x = FieldOfView.unpackX(left.get(i));
+            int y = FieldOfView.unpackY(left.get(i));
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+        }
+        if (minX <= maxX) {
+            upload(minX, minY, maxX, maxY);
+        }
+    }
+
+    /**
+     * @return True if the party sees the tile right now
+     */
+    public boolean isVisible(int x, int y) {
+        return fieldOfView.isVisible(x, y);
+    }
+
+    /**
+     * @return True if the party has seen the tile at some point
+     */
+    public boolean isExplored(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        long[] bits = explored.get(ChunkStreamer.key(x / WorldChunk.SIZE, y / WorldChunk.SIZE));
+        if (bits == null) return false;
+        int index = (y % WorldChunk.SIZE) * WorldChunk.SIZE + x % WorldChunk.SIZE;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * @return Number of chunk-sized regions with at least one explored tile
+     */
+    public int getExploredChunkCount() {
+        return explored.size;
+    }
+
+    /**
+     * Draws the fog over the map in tile units; call between batch.begin() and batch.end()
+     */
+    public void draw(Batch batch) {
+        // v runs from the texture's first row at y = 0, so texel (x, y) covers tile (x, y)
+        batch.draw(texture, 0, 0, width, height, 0f, 0f, 1f, 1f);
+    }
+
+    private void markExplored(int x, int y) {
+        int key = ChunkStreamer.key(x / WorldChunk.SIZE, y / WorldChunk.SIZE);
+        long[] bits = explored.get(key);
+        if (bits == null) {
+            bits = new long[WORDS_PER_CHUNK];
+            explored.put(key, bits);
+        }
+        int index = (y % WorldChunk.SIZE) * WorldChunk.SIZE + x % WorldChunk.SIZE;
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Rewrites the fog of a rectangle of tiles from the current state, in strips that fit the scratch Pixmap
+     */
+    private void upload(int minX, int minY, int maxX, int maxY) {
+        int rectWidth = maxX - minX + 1;
+        int rowsPerStrip = Math.max(1, patchArea / rectWidth);
+        if (rectWidth > patchArea) {
+            // Only after a jump across the map; upload row by row in patch-sized pieces
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x += patchArea) {
+                    uploadRect(x, y, Math.min(patchArea, maxX - x + 1), 1);
+                }
+            }
+            return;
+        }
+        for (int y = minY; y <= maxY; y += rowsPerStrip) {
+            uploadRect(minX, y, rectWidth, Math.min(rowsPerStrip, maxY - y + 1));
+        }
+    }
+
+    private void uploadRect(int x, int y, int rectWidth, int rectHeight) {
+        ByteBuffer pixels = patch.getPixels();
+        int exploredAlpha = (int) (EXPLORED_ALPHA * 255);
+        for (int row = 0; row < rectHeight; row++) {
+            for (int column = 0; column < rectWidth; column++) {
+                int tileX = x + column;
+                int tileY = y + row;
+                int alpha = isVisible(tileX, tileY) ? 0 : isExplored(tileX, tileY) ? exploredAlpha : 255;
+                int offset = (row * rectWidth + column) * 4;
+                pixels.put(offset, (byte) 0);
+                pixels.put(offset + 1, (byte) 0);
+                pixels.put(offset + 2, (byte) 0);
+                pixels.put(offset + 3, (byte) alpha);
+            }
+        }
+        pixels.position(0);
+        texture.bind();
+        Gdx.gl.glTexSubImage2D(GL20.GL_TEXTURE_2D, 0, x, y, rectWidth, rectHeight,
+            GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, pixels);
+    }
+
+    @Override
+    public void dispose() {
+        texture.dispose();
+        patch.dispose();
+    }
+}
@@ -0,0 +1,566 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ObjectSet;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps parsed TiledMaps together with the data screens derive from them (tile size, passability, renderer),
+ * so switching between the overworld and a battle is a lookup instead of a parse.
+ * <p>
+ * A map with a {@link RegionFile} converted from its current .tmx is served from that file instead and never
+ * parsed: its per-tile data is read from the mapping, and only the walkability and sight bitmaps (one bit per
+ * tile each, editable at runtime) are copied to the heap. Its tiles are streamed from the file, so it has no
+ * TiledMap and no renderer.
+ * <p>
+ * Other maps are loaded through the game's AssetManager. A map already loaded there (e.g. queued by
+ * {@link com.danbramos.ringprototype.assets.GameAssets}) is adopted with its existing reference;
+ * otherwise the cache loads it itself. Either way the cache holds exactly one reference per entry
+ * and unloads it on eviction. Entries are evicted least recently used first once the estimated
+ * memory use goes over the budget; the entry just requested is never evicted.
+ */
+public class MapCache implements Disposable {
+    public static final long DEFAULT_BUDGET_BYTES = 16L * 1024 * 1024;
+
+    // Rough per-cell cost of a TiledMapTileLayer.Cell plus its slot in the layer's array
+    private static final int BYTES_PER_CELL = 32;
+    // Each cached sprite takes 4 vertices of 5 floats in the SpriteCache, plus 6 short indices
+    private static final int BYTES_PER_CACHED_SPRITE = 20 * 4 + 6 * 2;
+
+    /** Tile property or layer name that marks a tile as impassable */
+    public static final String BLOCKED_PROPERTY = "blocked";
+    public static final String COLLISION_LAYER = "Collision";
+    /** Tile or layer property with the cost of entering a tile on the overworld; tiles default to 1 */
+    public static final String MOVE_COST_PROPERTY = "moveCost";
+    public static final int DEFAULT_MOVE_COST = 1;
+    public static final int MAX_MOVE_COST = 255;
+    /** Tile or layer property that marks a tile as blocking line of sight, e.g. dense forest */
+    public static final String OPAQUE_PROPERTY = "opaque";
+    /** Tile property naming the kind of ground, e.g. "forest"; higher layers override lower ones */
+    public static final String TERRAIN_PROPERTY = "terrainType";
+    /** Object layer whose polygons and rectangles name the regions of a map through their "id" property */
+    public static final String REGIONS_LAYER = "Macro regions";
+    public static final String REGION_ID_PROPERTY = "id";
+    // Region and terrain names are stored as one-byte indices per tile, 0 meaning none
+    private static final int MAX_NAMES = 255;
+
+    private final AssetManager assetManager;
+    private final long budgetBytes;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedMap> entries;
+    private final ObjectSet<String> rejectedRegionFiles = new ObjectSet<>();
+    private long usedBytes;
+
+    /**
+     * A parsed map, or a map's region file, and everything derived from it. Screens borrow these; the cache
+     * disposes them.
+     */
+    public static class CachedMap {
+        private final String path;
+        private final TiledMap map; // Null when served from the region file
+        private final RegionFile regionFile; // Null when parsed from the .tmx
+        private final int tileWidth;
+        private final int tileHeight;
+        private final int widthInTiles;
+        private final int heightInTiles;
+        private final TraversabilityMap traversability;
+        private final TraversabilityMap sightBlockers; // Set bits block line of sight
+        private final ByteBuffer moveCosts; // row-major, index = y * widthInTiles + x, unsigned
+        private final IntIntMap changedMoveCosts = new IntIntMap(); // Edits, so moveCosts can be read-only
+        private final Array<String> terrainTypes = new Array<>();
+        private final ByteBuffer terrainIndices; // Same layout; 1-based into terrainTypes, 0 = none
+        private final Array<String> regionIds = new Array<>();
+        private final ByteBuffer regionIndices; // Same layout; 1-based into regionIds, 0 = none
+        private final long estimatedBytes;
+        private CachedTileMapRenderer renderer;
+        private float rendererUnitScale;
+        private final Array<TerrainChangeListener> terrainListeners = new Array<>();
+
+        CachedMap(String path, TiledMap map) {
+            this.path = path;
+            this.map = map;
+            this.regionFile = null;
+
+            int tw;
+            int th;
+            if (map.getProperties().containsKey("tilewidth") && map.getProperties().containsKey("tileheight")) {
+                tw = map.getProperties().get("tilewidth", Integer.class);
+                th = map.getProperties().get("tileheight", Integer.class);
+            } else if (map.getLayers().getCount() > 0 && map.getLayers().get(0) instanceof TiledMapTileLayer) {
+                TiledMapTileLayer firstLayer = (TiledMapTileLayer) map.getLayers().get(0);
+                tw = firstLayer.getTileWidth();
+                th = firstLayer.getTileHeight();
+            } else {
+                tw = 16; // Default if not found
+                th = 16;
+                Gdx.app.error("MapCache", "Could not determine tile size of '" + path + "', using default 16x16.");
+            }
+            this.tileWidth = tw;
+            this.tileHeight = th;
+            this.widthInTiles = map.getProperties().get("width", Integer.class);
+            this.heightInTiles = map.getProperties().get("height", Integer.class);
+
+            this.traversability = new TraversabilityMap(widthInTiles, heightInTiles);
+            this.sightBlockers = new TraversabilityMap(widthInTiles, heightInTiles);
+            byte[] moveCosts = new byte[widthInTiles * heightInTiles];
+            Arrays.fill(moveCosts, (byte) DEFAULT_MOVE_COST);
+            byte[] terrainIndices = new byte[widthInTiles * heightInTiles];
+            int cellCount = 0;
+            // Layers are visited bottom to top, so a cost on a higher layer (e.g. a road) overrides the ground
+            for (MapLayer layer : map.getLayers()) {
+                if (!(layer instanceof TiledMapTileLayer)) continue;
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                boolean collisionLayer = COLLISION_LAYER.equalsIgnoreCase(tileLayer.getName());
+                int layerCost = parseMoveCost(tileLayer.getProperties().get(MOVE_COST_PROPERTY));
+                boolean opaqueLayer = isSet(tileLayer.getProperties().get(OPAQUE_PROPERTY));
+                for (int y = 0; y < heightInTiles; y++) {
+                    for (int x = 0; x < widthInTiles; x++) {
+                        TiledMapTileLayer.Cell cell = tileLayer.getCell(x, y);
+                        if (cell == null) continue;
+                        cellCount++;
+                        int index = y * widthInTiles + x;
+                        TiledMapTile tile = cell.getTile();
+                        if (collisionLayer || (tile != null && isSet(tile.getProperties().get(BLOCKED_PROPERTY)))) {
+                            traversability.setBlocked(x, y, true);
+                        }
+                        if (opaqueLayer || (tile != null && isSet(tile.getProperties().get(OPAQUE_PROPERTY)))) {
+                            sightBlockers.setBlocked(x, y, true);
+                        }
+                        int cost = tile != null ? parseMoveCost(tile.getProperties().get(MOVE_COST_PROPERTY)) : -1;
+                        if (cost < 0) cost = layerCost;
+                        if (cost >= 0) moveCosts[index] = (byte) cost;
+                        Object terrain = tile != null ? tile.getProperties().get(TERRAIN_PROPERTY) : null;
+                        if (terrain != null) terrainIndices[index] = (byte) nameIndex(terrainTypes, terrain.toString());
+                    }
+                }
+            }
+            byte[] regionIndices = rasterizeRegions();
+            this.moveCosts = ByteBuffer.wrap(moveCosts);
+            this.terrainIndices = ByteBuffer.wrap(terrainIndices);
+            this.regionIndices = ByteBuffer.wrap(regionIndices);
+            // The renderer's cache is sized by the tile count, so it is estimated from it up front
+            this.estimatedBytes = (long) cellCount * (BYTES_PER_CELL + BYTES_PER_CACHED_SPRITE)
+                + traversability.getSizeInBytes() + sightBlockers.getSizeInBytes() + moveCosts.length
+                + terrainIndices.length + regionIndices.length;
+        }
+
+        /**
+         * Serves a map from its region file, which the entry then owns
+         */
+        CachedMap(String path, RegionFile regionFile) {
+            this.path = path;
+            this.map = null;
+            this.regionFile = regionFile;
+            this.tileWidth = regionFile.getTileWidth();
+            this.tileHeight = regionFile.getTileHeight();
+            this.widthInTiles = regionFile.getWidthInTiles();
+            this.heightInTiles = regionFile.getHeightInTiles();
+            this.traversability = new TraversabilityMap(widthInTiles, heightInTiles);
+            this.sightBlockers = new TraversabilityMap(widthInTiles, heightInTiles);
+            regionFile.readBitmaps(traversability, sightBlockers);
+            this.moveCosts = regionFile.getMoveCosts();
+            this.terrainIndices = regionFile.getTerrainIndices();
+            this.regionIndices = regionFile.getRegionIndices();
+            terrainTypes.addAll(regionFile.getTerrainTypes());
+            regionIds.addAll(regionFile.getRegionIds());
+            // The byte-per-tile data stays in the mapping, off the heap
+            this.estimatedBytes = traversability.getSizeInBytes() + sightBlockers.getSizeInBytes() + regionFile.getHeapBytes();
+        }
+
+        /**
+         * Marks every tile whose center lies inside a region shape with that region. Later objects in the
+         * layer win where shapes overlap.
+         */
+        private byte[] rasterizeRegions() {
+            byte[] indices = new byte[widthInTiles * heightInTiles];
+            MapLayer regionsLayer = map.getLayers().get(REGIONS_LAYER);
+            if (regionsLayer == null) return indices;
+
+            Rectangle bounds = new Rectangle();
+            for (MapObject object : regionsLayer.getObjects()) {
+                Object id = object.getProperties().get(REGION_ID_PROPERTY);
+                if (id == null) {
+                    Gdx.app.error("MapCache", "Region '" + object.getName() + "' in '" + path + "' has no " + REGION_ID_PROPERTY + " property.");
+                    continue;
+                }
+                Polygon polygon = null;
+                Rectangle rectangle = null;
+                if (object instanceof PolygonMapObject) {
+                    polygon = ((PolygonMapObject) object).getPolygon();
+                    bounds.set(polygon.getBoundingRectangle());
+                } else if (object instanceof RectangleMapObject) {
+                    rectangle = ((RectangleMapObject) object).getRectangle();
+                    bounds.set(rectangle);
+                } else {
+                    Gdx.app.error("MapCache", "Region '" + id + "' in '" + path + "' is not a polygon or rectangle.");
+                    continue;
+                }
+                int index = nameIndex(regionIds, id.toString());
+                if (index == 0) continue;
+
+                // Object coordinates are in pixels, y up
+                int minX = Math.max(0, (int) Math.floor(bounds.x / tileWidth));
+                int minY = Math.max(0, (int) Math.floor(bounds.y / tileHeight));
+                int maxX = Math.min(widthInTiles - 1, (int) Math.floor((bounds.x + bounds.width) / tileWidth));
+                int maxY = Math.min(heightInTiles - 1, (int) Math.floor((bounds.y + bounds.height) / tileHeight));
+                for (int y = minY; y <= maxY; y++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        float centerX = (x + 0.5f) * tileWidth;
+                        float centerY = (y + 0.5f) * tileHeight;
+                        boolean inside = polygon != null ? polygon.contains(centerX, centerY) : rectangle.contains(centerX, centerY);
+                        if (inside) indices[y * widthInTiles + x] = (byte) index;
+                    }
+                }
+            }
+            return indices;
+        }
+
+        /**
+         * @return The 1-based index of a name, added if new; 0 if there are already MAX_NAMES names
+         */
+        private int nameIndex(Array<String> names, String name) {
+            int index = names.indexOf(name, false);
+            if (index >= 0) return index + 1;
+            if (names.size >= MAX_NAMES) {
+                Gdx.app.error("MapCache", "'" + path + "' has more than " + MAX_NAMES + " distinct names, ignoring '" + name + "'.");
+                return 0;
+            }
+            names.add(name);
+            return names.size;
+        }
+
+        private static boolean isSet(Object booleanProperty) {
+            return booleanProperty != null && Boolean.parseBoolean(booleanProperty.toString());
+        }
+
+        /**
+         * @return The cost clamped to 1..MAX_MOVE_COST, or -1 if the property is missing or not a number
+         */
+        private static int parseMoveCost(Object value) {
+            if (value == null) return -1;
+            try {
+                int cost = value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+                return Math.max(1, Math.min(MAX_MOVE_COST, cost));
+            } catch (NumberFormatException e) {
+                Gdx.app.error("MapCache", "Ignoring non-numeric " + MOVE_COST_PROPERTY + " '" + value + "'.");
+                return -1;
+            }
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return The parsed map, or null if the map is served from its region file
+         */
+        public TiledMap getMap() {
+            return map;
+        }
+
+        /**
+         * @return The region file the map is served from, or null if it was parsed from the .tmx
+         */
+        public RegionFile getRegionFile() {
+            return regionFile;
+        }
+
+        public int getTileWidth() {
+            return tileWidth;
+        }
+
+        public int getTileHeight() {
+            return tileHeight;
+        }
+
+        public int getWidthInTiles() {
+            return widthInTiles;
+        }
+
+        public int getHeightInTiles() {
+            return heightInTiles;
+        }
+
+        /**
+         * Checks if a tile can be walked on
+         * @param x The tile x coordinate
+         * @param y The tile y coordinate
+         * @return False for out-of-bounds or blocked tiles
+         */
+        public boolean isPassable(int x, int y) {
+            return !traversability.isBlocked(x, y);
+        }
+
+        /**
+         * Gets the walkability bitmap, for code that checks many tiles and wants to skip the indirection
+         * @return The map's bitmap; changes through {@link #setPassable} are visible in it
+         */
+        public TraversabilityMap getTraversability() {
+            return traversability;
+        }
+
+        /**
+         * Gets the opacity grid used for the party's field of view
+         * @return A bitmap whose set bits are tiles that block line of sight ("opaque" tile or layer property)
+         */
+        public TraversabilityMap getSightBlockers() {
+            return sightBlockers;
+        }
+
+        /**
+         * Gets the cost of entering a tile, from "moveCost" tile or layer properties
+         * @param x The tile x coordinate
+         * @param y The tile y coordinate
+         * @return 1 to MAX_MOVE_COST; only meaningful for tiles within the map
+         */
+        public int getMoveCost(int x, int y) {
+            int index = y * widthInTiles + x;
+            if (changedMoveCosts.size > 0) {
+                int changed = changedMoveCosts.get(index, 0);
+                if (changed > 0) return changed;
+            }
+            return moveCosts.get(index) & 0xFF;
+        }
+
+        /**
+         * Gets the kind of ground of a tile, from the "terrainType" tile property of its topmost tile that has one
+         * @param x The tile x coordinate
+         * @param y The tile y coordinate
+         * @return The terrain type, or null if the tile has none or is outside the map
+         */
+        public String getTerrainType(int x, int y) {
+            if (x < 0 || y < 0 || x >= widthInTiles || y >= heightInTiles) return null;
+            int index = terrainIndices.get(y * widthInTiles + x) & 0xFF;
+            return index > 0 ? terrainTypes.get(index - 1) : null;
+        }
+
+        /**
+         * Gets the region a tile belongs to, from the shapes in the map's "Macro regions" object layer
+         * @param x The tile x coordinate
+         * @param y The tile y coordinate
+         * @return The region's "id" property, or null if the tile is in no region or outside the map
+         */
+        public String getRegionId(int x, int y) {
+            if (x < 0 || y < 0 || x >= widthInTiles || y >= heightInTiles) return null;
+            int index = regionIndices.get(y * widthInTiles + x) & 0xFF;
+            return index > 0 ? regionIds.get(index - 1) : null;
+        }
+
+        /**
+         * Changes whether a tile can be walked on, e.g. when a bridge collapses, and notifies the terrain listeners
+         * @param x The tile x coordinate
+         * @param y The tile y coordinate
+         * @param value The new passability
+         */
+        public void setPassable(int x, int y, boolean value) {
+            if (traversability.setBlocked(x, y, !value)) {
+                fireTerrainChanged(x, y);
+            }
+        }
+
+        /**
+         * Changes the cost of entering a tile and notifies the terrain listeners
+         * @param x The tile x coordinate
+         * @param y The tile y coordinate
+         * @param cost The new cost, clamped to 1..MAX_MOVE_COST
+         */
+        public void setMoveCost(int x, int y, int cost) {
+            if (x < 0 || y < 0 || x >= widthInTiles || y >= heightInTiles) return;
+            int value = Math.max(1, Math.min(MAX_MOVE_COST, cost));
+            if (getMoveCost(x, y) == value) return;
+            changedMoveCosts.put(y * widthInTiles + x, value);
+            fireTerrainChanged(x, y);
+        }
+
+        public void addTerrainListener(TerrainChangeListener listener) {
+            if (listener != null && !terrainListeners.contains(listener, true)) {
+                terrainListeners.add(listener);
+            }
+        }
+
+        public void removeTerrainListener(TerrainChangeListener listener) {
+            terrainListeners.removeValue(listener, true);
+        }
+
+        private void fireTerrainChanged(int x, int y) {
+            // Iterate by index so a listener can unregister itself while being notified
+            for (int i = terrainListeners.size - 1; i >= 0; i--) {
+                terrainListeners.get(i).onTerrainChanged(this, x, y);
+            }
+        }
+
+        /**
+         * Gets the renderer for this map, creating it on first use. Asking for a different unit scale
+         * replaces the renderer, so each map should be drawn at one scale.
+         * @param unitScale World units per pixel
+         * @return The shared renderer; static layers are drawn from a SpriteCache. Null for maps served from
+         * their region file, whose tiles are streamed instead.
+         */
+        public CachedTileMapRenderer getRenderer(float unitScale) {
+            if (map == null) {
+                Gdx.app.error("MapCache", "'" + path + "' is served from its region file and has no TiledMap to render.");
+                return null;
+            }
+            if (renderer == null || rendererUnitScale != unitScale) {
+                if (renderer != null) {
+                    Gdx.app.log("MapCache", "Recreating renderer for '" + path + "' at unit scale " + unitScale);
+                    renderer.dispose();
+                }
+                renderer = new CachedTileMapRenderer(map, unitScale);
+                rendererUnitScale = unitScale;
+            }
+            return renderer;
+        }
+
+        /**
+         * Rebuilds the renderer's static layer cache on the next render; call after editing tiles
+         */
+        public void markDirty() {
+            if (renderer != null) {
+                renderer.markDirty();
+            }
+        }
+
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        void disposeDerived() {
+            if (renderer != null) {
+                renderer.dispose();
+                renderer = null;
+            }
+            if (regionFile != null) {
+                regionFile.dispose();
+            }
+        }
+    }
+
+    public MapCache(AssetManager assetManager) {
+        this(assetManager, DEFAULT_BUDGET_BYTES);
+    }
+
+    public MapCache(AssetManager assetManager, long budgetBytes) {
+        this.assetManager = assetManager;
+        this.budgetBytes = budgetBytes;
+        this.entries = new LinkedHashMap<>(8, 0.75f, true);
+    }
+
+    /**
+     * Gets a map by asset path, opening its region file or loading it synchronously if it is neither cached
+     * nor loaded yet
+     * @param path The internal path of the .tmx file
+     * @return The cached map; valid until it is evicted, so screens should fetch it again in show()
+     */
+    public CachedMap get(String path) {
+        CachedMap entry = entries.get(path);
+        if (entry != null) {
+            return entry;
+        }
+
+        entry = openRegionFile(path);
+        if (entry == null) {
+            if (!assetManager.isLoaded(path, TiledMap.class)) {
+                Gdx.app.log("MapCache", "Loading map '" + path + "' synchronously.");
+                assetManager.load(path, TiledMap.class);
+                assetManager.finishLoadingAsset(path);
+            }
+            entry = new CachedMap(path, assetManager.get(path, TiledMap.class));
+        }
+        entries.put(path, entry);
+        usedBytes += entry.getEstimatedBytes();
+        Gdx.app.debug("MapCache", "Cached '" + path + "' (~" + entry.getEstimatedBytes() / 1024 + " KB, "
+            + usedBytes / 1024 + " KB in use).");
+        evictOverBudget(path);
+        return entry;
+    }
+
+    /**
+     * Opens the region file next to a map, if there is one that was converted from the current .tmx
+     * @return The entry, or null if the map has to be parsed
+     */
+    private CachedMap openRegionFile(String path) {
+        if (rejectedRegionFiles.contains(path)) return null;
+        RegionFile regionFile = RegionFile.open(Gdx.files.internal(RegionFile.pathFor(path)));
+        if (regionFile == null) return null;
+        if (!regionFile.matchesSource(Gdx.files.internal(path))) {
+            Gdx.app.error("MapCache", "'" + regionFile.getPath() + "' was converted from an older version of '" + path + "'; convert it again.");
+        } else if (!Gdx.files.internal(regionFile.getTilesetImagePath()).exists()) {
+            Gdx.app.error("MapCache", "Tileset image '" + regionFile.getTilesetImagePath() + "' of '" + regionFile.getPath() + "' not found.");
+        } else {
+            return new CachedMap(path, regionFile);
+        }
+        regionFile.dispose();
+        return null;
+    }
+
+    /**
+     * Stops serving a map from its region file for the rest of the session, e.g. after a chunk couldn't be read.
+     * The entry is dropped, so the next {@link #get(String)} parses the .tmx.
+     * @param path The internal path of the .tmx file
+     */
+    public void rejectRegionFile(String path) {
+        rejectedRegionFiles.add(path);
+        CachedMap entry = entries.get(path);
+        if (entry != null && entry.getRegionFile() != null) {
+            entries.remove(path);
+            release(entry);
+        }
+    }
+
+    private void evictOverBudget(String keepPath) {
+        Iterator<Map.Entry<String, CachedMap>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, CachedMap> next = it.next();
+            if (next.getKey().equals(keepPath)) continue;
+            it.remove();
+            release(next.getValue());
+            Gdx.app.log("MapCache", "Evicted '" + next.getKey() + "' to stay within the map budget.");
+        }
+    }
+
+    private void release(CachedMap entry) {
+        usedBytes -= entry.getEstimatedBytes();
+        entry.disposeDerived();
+        if (entry.getMap() != null && assetManager.isLoaded(entry.getPath(), TiledMap.class)) {
+            assetManager.unload(entry.getPath());
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Releases every entry; call before the AssetManager itself is disposed
+     */
+    @Override
+    public void dispose() {
+        for (CachedMap entry : entries.values()) {
+            release(entry);
+        }
+        entries.clear();
+    }
+}
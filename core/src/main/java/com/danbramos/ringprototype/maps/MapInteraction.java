@@ -0,0 +1,75 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.danbramos.ringprototype.quests.Quest;
+
+/**
+ * Something on the overworld the party can walk into: a quest giver, and later shops, camps and
+ * event triggers. Registered in a {@link MapInteractionIndex} at a fixed tile.
+ */
+public class MapInteraction {
+    public enum Type {
+        QUEST_GIVER,
+        SHOP,
+        CAMP,
+        EVENT_TRIGGER
+    }
+
+    private final Type type;
+    private final String id;
+    private final int x;
+    private final int y;
+    private final TextureRegion sprite;
+    private final Quest quest;
+
+    /**
+     * @param type What kind of interaction this is
+     * @param id Identifier of the thing behind it, e.g. the quest ID for a quest giver
+     * @param x Tile x coordinate
+     * @param y Tile y coordinate
+     * @param sprite Drawn on the tile, or null for invisible triggers
+     * @param quest The quest offered, for quest givers; null otherwise
+     */
+    public MapInteraction(Type type, String id, int x, int y, TextureRegion sprite, Quest quest) {
+        this.type = type;
+        this.id = id;
+        this.x = x;
+        this.y = y;
+        this.sprite = sprite;
+        this.quest = quest;
+    }
+
+    /**
+     * Creates the interaction for a quest's giver
+     * @param quest A quest with a giver map position
+     * @param sprite The giver's sprite, or null
+     */
+    public static MapInteraction questGiver(Quest quest, TextureRegion sprite) {
+        Quest.GiverMapPosition position = quest.getGiverMapPosition();
+        return new MapInteraction(Type.QUEST_GIVER, quest.getId(), position.getX(), position.getY(), sprite, quest);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public TextureRegion getSprite() {
+        return sprite;
+    }
+
+    public Quest getQuest() {
+        return quest;
+    }
+}
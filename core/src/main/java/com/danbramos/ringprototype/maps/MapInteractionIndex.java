@@ -0,0 +1,150 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * Finds overworld interactions by tile without scanning them all.
+ * <p>
+ * Point lookups ("is there anything on the tile the party steps onto?") go through a hash map keyed by
+ * the packed tile coordinate. Area queries ("what is inside the camera view?") go through a uniform grid
+ * of buckets, so only the buckets overlapping the area are visited, however many interactions the map has.
+ * There is at most one interaction per tile.
+ */
+public class MapInteractionIndex {
+    public static final int DEFAULT_BUCKET_SIZE = 8;
+
+    private final int widthInTiles;
+    private final int heightInTiles;
+    private final int bucketSize;
+    private final int bucketsX;
+    private final int bucketsY;
+    private final Array<MapInteraction>[] buckets;
+    private final IntMap<MapInteraction> byTile = new IntMap<>();
+
+    public MapInteractionIndex(int widthInTiles, int heightInTiles) {
+        this(widthInTiles, heightInTiles, DEFAULT_BUCKET_SIZE);
+    }
+
+    /**
+     * @param widthInTiles Map width
+     * @param heightInTiles Map height
+     * @param bucketSize Side of a grid bucket in tiles; about a quarter of the view works well
+     */
+    @SuppressWarnings("unchecked")
+    public MapInteractionIndex(int widthInTiles, int heightInTiles, int bucketSize) {
+        this.widthInTiles = widthInTiles;
+        this.heightInTiles = heightInTiles;
+        this.bucketSize = Math.max(1, bucketSize);
+        this.bucketsX = Math.max(1, (widthInTiles + this.bucketSize - 1) / this.bucketSize);
+        this.bucketsY = Math.max(1, (heightInTiles + this.bucketSize - 1) / this.bucketSize);
+        this.buckets = new Array[bucketsX * bucketsY];
+    }
+
+    /**
+     * Registers an interaction, replacing any other one on the same tile
+     * @param interaction The interaction; must lie inside the map
+     * @return False if it lies outside the map and was not added
+     */
+    public boolean add(MapInteraction interaction) {
+        int x = interaction.getX();
+        int y = interaction.getY();
+        if (x < 0 || y < 0 || x >= widthInTiles || y >= heightInTiles) {
+            Gdx.app.error("MapInteractionIndex", "Interaction '" + interaction.getId() + "' at " + x + "," + y
+                + " is outside the map, ignoring it.");
+            return false;
+        }
+        MapInteraction previous = byTile.put(packTile(x, y), interaction);
+        if (previous != null) {
+            Gdx.app.error("MapInteractionIndex", "Interaction '" + interaction.getId() + "' replaces '"
+                + previous.getId() + "' at " + x + "," + y + ".");
+            bucketAt(x, y).removeValue(previous, true);
+        }
+        int bucket = bucketIndex(x, y);
+        if (buckets[bucket] == null) {
+            buckets[bucket] = new Array<>(false, 4);
+        }
+        buckets[bucket].add(interaction);
+        return true;
+    }
+
+    public void remove(MapInteraction interaction) {
+        int x = interaction.getX();
+        int y = interaction.getY();
+        if (byTile.get(packTile(x, y)) != interaction) return;
+        byTile.remove(packTile(x, y));
+        bucketAt(x, y).removeValue(interaction, true);
+    }
+
+    /**
+     * @return The interaction on a tile, or null
+     */
+    public MapInteraction get(int x, int y) {
+        if (x < 0 || y < 0 || x >= widthInTiles || y >= heightInTiles) return null;
+        return byTile.get(packTile(x, y));
+    }
+
+    /**
+     * Collects the interactions on tiles inside a rectangle, e.g. the camera view
+     * @param minX Smallest tile x, inclusive
+     * @param minY Smallest tile y, inclusive
+     * @param maxX Largest tile x, inclusive
+     * @param maxY Largest tile y, inclusive
+     * @param out Cleared, then filled with the interactions found
+     */
+    public void query(int minX, int minY, int maxX, int maxY, Array<MapInteraction> out) {
+        out.clear();
+        minX = Math.max(0, minX);
+        minY = Math.max(0, minY);
+        maxX = Math.min(widthInTiles - 1, maxX);
+        maxY = Math.min(heightInTiles - 1, maxY);
+        if (minX > maxX || minY > maxY) return;
+
+        for (int by = minY / bucketSize; by <= maxY / bucketSize; by++) {
+            for (int bx = minX / bucketSize; bx <= maxX / bucketSize; bx++) {
+                Array<MapInteraction> bucket = buckets[by * bucketsX + bx];
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size; i++) {
+                    MapInteraction interaction = bucket.get(i);
+                    // Buckets on the edge of the area can hold interactions just outside it
+                    if (interaction.getX() >= minX && interaction.getX() <= maxX
+                        && interaction.getY() >= minY && interaction.getY() <= maxY) {
+                        out.add(interaction);
+                    }
+                }
+            }
+        }
+    }
+
+    public int getWidthInTiles() {
+        return widthInTiles;
+    }
+
+    public int getHeightInTiles() {
+        return heightInTiles;
+    }
+
+    public int size() {
+        return byTile.size;
+    }
+
+    public void clear() {
+        byTile.clear();
+        for (Array<MapInteraction> bucket : buckets) {
+            if (bucket != null) bucket.clear();
+        }
+    }
+
+    private static int packTile(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    private int bucketIndex(int x, int y) {
+        return (y / bucketSize) * bucketsX + x / bucketSize;
+    }
+
+    private Array<MapInteraction> bucketAt(int x, int y) {
+        return buckets[bucketIndex(x, y)];
+    }
+}
@@ -0,0 +1,440 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A binary world file that serves chunks by random access, written from .tmx maps by {@link RegionFileWriter}.
+ * It also holds the per-tile data the {@link MapCache} would otherwise derive from the TiledMap, so a map with a
+ * region file is never parsed.
+ * <p>
+ * Layout, big-endian unless noted:
+ * <pre>
+ *  0  int   magic "RGN1"
+ *  4  int   version
+ *  8  int   width in tiles
+ * 12  int   height in tiles
+ * 16  int   tile layer count
+ * 20  int   chunk size in tiles (must match {@link WorldChunk#SIZE})
+ * 24  int   tile width in pixels
+ * 28  int   tile height in pixels
+ * 32  int   first tile ID of the tileset
+ * 36  int   tileset columns
+ * 40  int   tileset tile count
+ * 44  int   tileset margin in pixels
+ * 48  int   tileset spacing in pixels
+ * 52  int   offset of the chunk index
+ * 56  int   length of the source .tmx in bytes
+ * 60  int   CRC-32 of the source .tmx
+ * 64  int   offset of the tile data
+ * 68  short length of the tileset image path, followed by the path in UTF-8, relative to the assets folder
+ * then one byte per tile layer, 1 if the layer is visible
+ * index: per chunk, row by row from the bottom, an int payload offset and an int payload length (0 = empty)
+ * payloads: deflated tiles with their flip and rotation flags in {@link WorldChunk} order, as little-endian ints
+ * tile data, row-major from the bottom:
+ *       blocked and opaque bitmaps, as written by {@link TraversabilityMap#write}
+ *       move costs, one unsigned byte per tile
+ *       terrain types and regions, one byte per tile each, 1-based into the name lists that follow, 0 = none
+ *       terrain type names, then region ids: a short count, then per name a short length and UTF-8 bytes
+ * </pre>
+ * The file is memory-mapped, so only the pages of the chunks and tiles actually read are brought into memory.
+ * Files inside a jar can't be mapped and are read into a heap buffer instead. The source fingerprint lets
+ * the game notice a region file left over from before the .tmx was edited, see {@link #matchesSource(FileHandle)}.
+ */
+public class RegionFile implements ChunkSource {
+    public static final String EXTENSION = ".rgn";
+    static final int MAGIC = 0x52474E31; // "RGN1"
+    static final int VERSION = 4;
+    static final int HEADER_SIZE = 68;
+    static final int INDEX_ENTRY_SIZE = 8;
+
+    private final String path;
+    private final ByteBuffer data;
+    private final int width;
+    private final int height;
+    private final int layerCount;
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int firstTileId;
+    private final int tilesetColumns;
+    private final int tilesetTileCount;
+    private final int tilesetMargin;
+    private final int tilesetSpacing;
+    private final int indexOffset;
+    private final int sourceLength;
+    private final int sourceChecksum;
+    private final int tileDataOffset;
+    private final int widthInChunks;
+    private final String tilesetImagePath;
+    private final boolean[] layerVisible;
+    private final Array<String> terrainTypes;
+    private final Array<String> regionIds;
+
+    // Decompression scratch, shared by readChunk() callers under the lock
+    private final Inflater inflater = new Inflater();
+    private byte[] compressed = new byte[0];
+    private final byte[] raw;
+
+    private boolean disposed;
+
+    private Texture tilesetTexture;
+    private ChunkTileset tileset;
+
+    private RegionFile(String path, ByteBuffer data, Array<String> terrainTypes, Array<String> regionIds) {
+        this.path = path;
+        this.data = data;
+        this.width = data.getInt(8);
+        this.height = data.getInt(12);
+        this.layerCount = data.getInt(16);
+        this.tileWidth = data.getInt(24);
+        this.tileHeight = data.getInt(28);
+        this.firstTileId = data.getInt(32);
+        this.tilesetColumns = data.getInt(36);
+        this.tilesetTileCount = data.getInt(40);
+        this.tilesetMargin = data.getInt(44);
+        this.tilesetSpacing = data.getInt(48);
+        this.indexOffset = data.getInt(52);
+        this.sourceLength = data.getInt(56);
+        this.sourceChecksum = data.getInt(60);
+        this.tileDataOffset = data.getInt(64);
+        this.terrainTypes = terrainTypes;
+        this.regionIds = regionIds;
+        this.widthInChunks = (width + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        byte[] pathBytes = new byte[data.getShort(HEADER_SIZE) & 0xFFFF];
+        for (int i = 0; i < pathBytes.length; i++) {
+            pathBytes[i] = data.get(HEADER_SIZE + 2 + i);
+        }
+        this.tilesetImagePath = new String(pathBytes, StandardCharsets.UTF_8);
+        this.layerVisible = new boolean[layerCount];
+        for (int i = 0; i < layerCount; i++) {
+            layerVisible[i] = data.get(HEADER_SIZE + 2 + pathBytes.length + i) != 0;
+        }
+        this.raw = new byte[WorldChunk.getSizeInBytes(layerCount)];
+    }
+
+    /**
+     * Gets the region file path that belongs to a map, e.g. "tilemaps/overworld.rgn" for "tilemaps/overworld.tmx"
+     */
+    public static String pathFor(String mapPath) {
+        int dot = mapPath.lastIndexOf('.');
+        return (dot > mapPath.lastIndexOf('/') ? mapPath.substring(0, dot) : mapPath) + EXTENSION;
+    }
+
+    /**
+     * Opens a region file, memory-mapping it when it is a plain file on disk
+     * @param file The .rgn file
+     * @return The region file, or null if it is missing or not a valid region file
+     */
+    public static RegionFile open(FileHandle file) {
+        if (!file.exists()) return null;
+        ByteBuffer data;
+        try {
+            File onDisk = file.type() == Files.FileType.Classpath ? null : file.file();
+            if (onDisk != null && onDisk.isFile()) {
+                // The mapping stays valid after the channel is closed
+                try (RandomAccessFile randomAccess = new RandomAccessFile(onDisk, "r");
+                     FileChannel channel = randomAccess.getChannel()) {
+                    data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } else {
+                data = ByteBuffer.wrap(file.readBytes());
+            }
+        } catch (Exception e) {
+            Gdx.app.error("RegionFile", "Could not open region file '" + file.path() + "'.", e);
+            return null;
+        }
+
+        data.order(ByteOrder.BIG_ENDIAN);
+        if (data.capacity() < HEADER_SIZE + 2 || data.getInt(0) != MAGIC) {
+            Gdx.app.error("RegionFile", "'" + file.path() + "' is not a region file.");
+            return null;
+        }
+        if (data.getInt(4) != VERSION || data.getInt(20) != WorldChunk.SIZE) {
+            Gdx.app.error("RegionFile", "'" + file.path() + "' has version " + data.getInt(4) + " and chunk size "
+                + data.getInt(20) + ", expected " + VERSION + " and " + WorldChunk.SIZE + "; convert it again.");
+            return null;
+        }
+        if (!isIndexValid(data)) {
+            Gdx.app.error("RegionFile", "'" + file.path() + "' has a chunk index that points outside the file; convert it again.");
+            return null;
+        }
+        Array<String> terrainTypes = new Array<>();
+        Array<String> regionIds = new Array<>();
+        int namesOffset = getNamesOffset(data);
+        if (namesOffset >= 0) namesOffset = readNames(data, namesOffset, terrainTypes);
+        if (namesOffset >= 0) namesOffset = readNames(data, namesOffset, regionIds);
+        if (namesOffset < 0) {
+            Gdx.app.error("RegionFile", "'" + file.path() + "' has tile data that runs past the end of the file; convert it again.");
+            return null;
+        }
+        RegionFile regionFile = new RegionFile(file.path(), data, terrainTypes, regionIds);
+        Gdx.app.log("RegionFile", "Opened '" + file.path() + "': " + regionFile.width + "x" + regionFile.height
+            + " tiles, " + regionFile.layerCount + " layers, " + data.capacity() / 1024 + " KB.");
+        return regionFile;
+    }
+
+    /**
+     * Checks the header and every index entry against the file size, so a truncated or damaged file is
+     * turned down up front instead of failing chunk by chunk
+     */
+    private static boolean isIndexValid(ByteBuffer data) {
+        long capacity = data.capacity();
+        int width = data.getInt(8);
+        int height = data.getInt(12);
+        int layerCount = data.getInt(16);
+        int pathLength = data.getShort(HEADER_SIZE) & 0xFFFF;
+        int indexOffset = data.getInt(52);
+        if (width <= 0 || height <= 0 || layerCount <= 0 || HEADER_SIZE + 2L + pathLength + layerCount > capacity) return false;
+        long chunkCount = (long) ((width + WorldChunk.SIZE - 1) / WorldChunk.SIZE) * ((height + WorldChunk.SIZE - 1) / WorldChunk.SIZE);
+        if (indexOffset < HEADER_SIZE + 2L + pathLength + layerCount || indexOffset + chunkCount * INDEX_ENTRY_SIZE > capacity) return false;
+        for (int i = 0; i < chunkCount; i++) {
+            int entry = indexOffset + i * INDEX_ENTRY_SIZE;
+            int offset = data.getInt(entry);
+            int length = data.getInt(entry + 4);
+            if (length == 0) continue;
+            if (offset < 0 || length < 0 || (long) offset + length > capacity) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks the fixed-size part of the tile data against the file size
+     * @return Where the name lists start, or -1 if the tile data doesn't fit in the file
+     */
+    private static int getNamesOffset(ByteBuffer data) {
+        long tileCount = (long) data.getInt(8) * data.getInt(12);
+        int tileDataOffset = data.getInt(64);
+        int pathLength = data.getShort(HEADER_SIZE) & 0xFFFF;
+        if (tileDataOffset < HEADER_SIZE + 2 + pathLength + data.getInt(16)) return -1;
+        long namesOffset = tileDataOffset + 2 * TraversabilityMap.getSizeInBytes(data.getInt(8), data.getInt(12)) + 3 * tileCount;
+        return namesOffset <= data.capacity() ? (int) namesOffset : -1;
+    }
+
+    /**
+     * Reads a name list of the tile data
+     * @param names Receives the names
+     * @return Where the next list starts, or -1 if the list runs past the end of the file
+     */
+    private static int readNames(ByteBuffer data, int offset, Array<String> names) {
+        if (offset + 2 > data.capacity()) return -1;
+        int count = data.getShort(offset) & 0xFFFF;
+        offset += 2;
+        for (int i = 0; i < count; i++) {
+            if (offset + 2 > data.capacity()) return -1;
+            int length = data.getShort(offset) & 0xFFFF;
+            offset += 2;
+            if (offset + length > data.capacity()) return -1;
+            byte[] bytes = new byte[length];
+            for (int j = 0; j < length; j++) {
+                bytes[j] = data.get(offset + j);
+            }
+            names.add(new String(bytes, StandardCharsets.UTF_8));
+            offset += length;
+        }
+        return offset;
+    }
+
+    /**
+     * Fingerprints a source map the way {@link RegionFileWriter} stores it in the header
+     * @return The CRC-32 of the bytes
+     */
+    static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Tells whether this file was converted from the map as it is now
+     * @param mapFile The .tmx the region file was written from
+     * @return False if the map is missing or was changed since the conversion
+     */
+    public boolean matchesSource(FileHandle mapFile) {
+        if (!mapFile.exists()) return false;
+        byte[] bytes = mapFile.readBytes();
+        return bytes.length == sourceLength && checksum(bytes) == sourceChecksum;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Override
+    public int getWidthInTiles() {
+        return width;
+    }
+
+    @Override
+    public int getHeightInTiles() {
+        return height;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    /**
+     * @return Whether the layer was visible in the .tmx when the file was converted
+     */
+    @Override
+    public boolean isLayerVisible(int layer) {
+        return layerVisible[layer];
+    }
+
+    public int getTileWidth() {
+        return tileWidth;
+    }
+
+    public int getTileHeight() {
+        return tileHeight;
+    }
+
+    public String getTilesetImagePath() {
+        return tilesetImagePath;
+    }
+
+    /**
+     * @return Bytes of the file held on the Java heap: all of it when it had to be read from a jar, else none
+     */
+    public long getHeapBytes() {
+        return data.isDirect() ? 0 : data.capacity();
+    }
+
+    /**
+     * Copies the blocked and opaque bitmaps of the tile data
+     * @param blocked Receives the tiles that can't be walked on; must have the file's size
+     * @param opaque Receives the tiles that block line of sight; must have the file's size
+     */
+    void readBitmaps(TraversabilityMap blocked, TraversabilityMap opaque) {
+        blocked.read(data, tileDataOffset);
+        opaque.read(data, tileDataOffset + (int) TraversabilityMap.getSizeInBytes(width, height));
+    }
+
+    /**
+     * @return A read-only view of the move costs, one unsigned byte per tile, index = y * width + x
+     */
+    ByteBuffer getMoveCosts() {
+        return tileBytes(0);
+    }
+
+    /**
+     * @return A read-only view of the terrain types, one byte per tile, 1-based into {@link #getTerrainTypes()}
+     */
+    ByteBuffer getTerrainIndices() {
+        return tileBytes(1);
+    }
+
+    /**
+     * @return A read-only view of the regions, one byte per tile, 1-based into {@link #getRegionIds()}
+     */
+    ByteBuffer getRegionIndices() {
+        return tileBytes(2);
+    }
+
+    Array<String> getTerrainTypes() {
+        return terrainTypes;
+    }
+
+    Array<String> getRegionIds() {
+        return regionIds;
+    }
+
+    /**
+     * Slices one of the byte-per-tile sections that follow the bitmaps out of the mapping
+     */
+    private ByteBuffer tileBytes(int section) {
+        int tileCount = width * height;
+        int offset = tileDataOffset + 2 * (int) TraversabilityMap.getSizeInBytes(width, height) + section * tileCount;
+        ByteBuffer view = data.duplicate();
+        view.position(offset);
+        view.limit(offset + tileCount);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Gets the tileset described by the header, loading its texture on first use. Call on the render thread.
+     * @return The tileset, owned by this file; null if the image couldn't be loaded
+     */
+    public ChunkTileset getTileset() {
+        if (tileset == null) {
+            FileHandle image = Gdx.files.internal(tilesetImagePath);
+            if (!image.exists()) {
+                Gdx.app.error("RegionFile", "Tileset image '" + tilesetImagePath + "' of '" + path + "' not found.");
+                return null;
+            }
+            tilesetTexture = new Texture(image);
+            tileset = ChunkTileset.fromGrid(tilesetTexture, firstTileId, tileWidth, tileHeight,
+                tilesetColumns, tilesetTileCount, tilesetMargin, tilesetSpacing);
+        }
+        return tileset;
+    }
+
+    @Override
+    public synchronized boolean readChunk(WorldChunk chunk) {
+        if (disposed) return false;
+        int indexEntry = indexOffset + (chunk.getChunkY() * widthInChunks + chunk.getChunkX()) * INDEX_ENTRY_SIZE;
+        int offset = data.getInt(indexEntry);
+        int length = data.getInt(indexEntry + 4);
+        if (length == 0) return true; // Every tile is empty, and the chunk was cleared when reset
+
+        if (compressed.length < length) {
+            compressed = new byte[length];
+        }
+        // Absolute bulk reads need Java 13, so go through a duplicate's position
+        ByteBuffer source = data.duplicate();
+        source.position(offset);
+        source.get(compressed, 0, length);
+
+        inflater.reset();
+        inflater.setInput(compressed, 0, length);
+        int inflated;
+        try {
+            inflated = inflater.inflate(raw);
+        } catch (DataFormatException e) {
+            Gdx.app.error("RegionFile", "Chunk " + chunk.getChunkX() + "," + chunk.getChunkY() + " of '" + path + "' is corrupt.", e);
+            return false;
+        }
+        if (inflated != raw.length) {
+            Gdx.app.error("RegionFile", "Chunk " + chunk.getChunkX() + "," + chunk.getChunkY() + " of '" + path
+                + "' holds " + inflated + " bytes, expected " + raw.length + ".");
+            return false;
+        }
+
+        ByteBuffer tiles = chunk.getTiles();
+        if (tiles.order() == ByteOrder.LITTLE_ENDIAN) {
+            tiles.clear();
+            tiles.put(raw);
+            tiles.clear();
+        } else {
+            for (int i = 0; i < raw.length; i += 4) {
+                tiles.putInt(i, (raw[i] & 0xFF) | (raw[i + 1] & 0xFF) << 8 | (raw[i + 2] & 0xFF) << 16 | raw[i + 3] << 24);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void dispose() {
+        disposed = true;
+        inflater.end();
+        if (tilesetTexture != null) {
+            tilesetTexture.dispose();
+            tilesetTexture = null;
+            tileset = null;
+        }
+    }
+}
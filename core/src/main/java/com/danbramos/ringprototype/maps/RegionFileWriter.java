@@ -0,0 +1,254 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * Converts .tmx maps into {@link RegionFile}s. The convertRegionFiles Gradle task runs it before the resources
+ * are processed, so builds ship a region file for the overworld; the game uses the .rgn next to the .tmx when
+ * there is one that was converted from the current map.
+ */
+public final class RegionFileWriter {
+    private RegionFileWriter() {
+    }
+
+    /**
+     * Writes the tile layers of a map, and the per-tile data the {@link MapCache} derives from it, as a region file
+     * @param map The loaded map; must use a single tileset
+     * @param mapPath The map's path relative to the assets folder, used to resolve the tileset image
+     * @param out The .rgn file to write
+     * @return True if the file was written
+     */
+    public static boolean convert(TiledMap map, String mapPath, FileHandle out) {
+        Array<TiledMapTileSet> tileSets = new Array<>();
+        for (TiledMapTileSet tileSet : map.getTileSets()) {
+            tileSets.add(tileSet);
+        }
+        if (tileSets.size != 1) {
+            Gdx.app.error("RegionFileWriter", "'" + mapPath + "' uses " + tileSets.size + " tilesets; region files support exactly one.");
+            return false;
+        }
+
+        MapProperties tileSetProperties = tileSets.first().getProperties();
+        String imageSource = tileSetProperties.get("imagesource", String.class);
+        if (imageSource == null) {
+            Gdx.app.error("RegionFileWriter", "The tileset of '" + mapPath + "' isn't a single image.");
+            return false;
+        }
+        int tileWidth = tileSetProperties.get("tilewidth", 16, Integer.class);
+        int tileHeight = tileSetProperties.get("tileheight", 16, Integer.class);
+        int margin = tileSetProperties.get("margin", 0, Integer.class);
+        int spacing = tileSetProperties.get("spacing", 0, Integer.class);
+        int imageWidth = tileSetProperties.get("imagewidth", 0, Integer.class);
+        int imageHeight = tileSetProperties.get("imageheight", 0, Integer.class);
+        int columns = (imageWidth - 2 * margin + spacing) / (tileWidth + spacing);
+        int rows = (imageHeight - 2 * margin + spacing) / (tileHeight + spacing);
+        int firstId = tileSetProperties.get("firstgid", 1, Integer.class);
+        // The .tsx files sit next to the maps, so the image is resolved relative to the map's folder
+        String imagePath = resolve(mapPath, imageSource);
+        // Fingerprinted so the game can tell when the .tmx was edited after this conversion
+        FileHandle mapFile = Gdx.files.internal(mapPath);
+        if (!mapFile.exists()) {
+            Gdx.app.error("RegionFileWriter", "Map file '" + mapPath + "' not found.");
+            return false;
+        }
+        byte[] mapBytes = mapFile.readBytes();
+
+        TiledMapChunkSource source = new TiledMapChunkSource(map);
+        MapCache.CachedMap tileData = new MapCache.CachedMap(mapPath, map);
+        if (source.getWidthInTiles() != tileData.getWidthInTiles() || source.getHeightInTiles() != tileData.getHeightInTiles()) {
+            Gdx.app.error("RegionFileWriter", "The tile layers of '" + mapPath + "' don't have the size of the map.");
+            return false;
+        }
+        try (OutputStream stream = out.write(false)) {
+            write(source, tileData, tileWidth, tileHeight, firstId, columns, columns * rows, margin, spacing,
+                mapBytes.length, RegionFile.checksum(mapBytes), imagePath, stream);
+        } catch (IOException e) {
+            Gdx.app.error("RegionFileWriter", "Could not write '" + out.path() + "'.", e);
+            return false;
+        }
+        Gdx.app.log("RegionFileWriter", "Converted '" + mapPath + "' to '" + out.path() + "' (" + out.length() / 1024 + " KB).");
+        return true;
+    }
+
+    /**
+     * Writes every chunk of a source, followed by the tile data of a map of the same size, in the region file
+     * layout described in {@link RegionFile}
+     */
+    static void write(ChunkSource source, MapCache.CachedMap tileData, int tileWidth, int tileHeight, int firstId, int columns, int tileCount,
+                      int margin, int spacing, int sourceLength, int sourceChecksum, String imagePath,
+                      OutputStream stream) throws IOException {
+        int widthInChunks = (source.getWidthInTiles() + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        int heightInChunks = (source.getHeightInTiles() + WorldChunk.SIZE - 1) / WorldChunk.SIZE;
+        int chunkCount = widthInChunks * heightInChunks;
+        byte[] pathBytes = imagePath.getBytes(StandardCharsets.UTF_8);
+        int indexOffset = RegionFile.HEADER_SIZE + 2 + pathBytes.length + source.getLayerCount();
+        int payloadOffset = indexOffset + chunkCount * RegionFile.INDEX_ENTRY_SIZE;
+
+        // Payloads are compressed first, so the index can be written ahead of them
+        int[] offsets = new int[chunkCount];
+        int[] lengths = new int[chunkCount];
+        ByteArrayOutputStream payloads = new ByteArrayOutputStream();
+        WorldChunk chunk = new WorldChunk(source.getLayerCount());
+        byte[] raw = new byte[WorldChunk.getSizeInBytes(source.getLayerCount())];
+        byte[] compressed = new byte[raw.length + 64];
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            for (int chunkY = 0; chunkY < heightInChunks; chunkY++) {
+                for (int chunkX = 0; chunkX < widthInChunks; chunkX++) {
+                    chunk.reset(chunkX, chunkY);
+                    source.readChunk(chunk);
+                    if (toLittleEndian(chunk.getTiles(), raw)) continue; // Empty chunks have no payload
+
+                    deflater.reset();
+                    deflater.setInput(raw);
+                    deflater.finish();
+                    int index = chunkY * widthInChunks + chunkX;
+                    offsets[index] = payloadOffset + payloads.size();
+                    while (!deflater.finished()) {
+                        int length = deflater.deflate(compressed);
+                        payloads.write(compressed, 0, length);
+                        lengths[index] += length;
+                    }
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+
+        int tileDataOffset = payloadOffset + payloads.size();
+
+        DataOutputStream data = new DataOutputStream(stream);
+        data.writeInt(RegionFile.MAGIC);
+        data.writeInt(RegionFile.VERSION);
+        data.writeInt(source.getWidthInTiles());
+        data.writeInt(source.getHeightInTiles());
+        data.writeInt(source.getLayerCount());
+        data.writeInt(WorldChunk.SIZE);
+        data.writeInt(tileWidth);
+        data.writeInt(tileHeight);
+        data.writeInt(firstId);
+        data.writeInt(columns);
+        data.writeInt(tileCount);
+        data.writeInt(margin);
+        data.writeInt(spacing);
+        data.writeInt(indexOffset);
+        data.writeInt(sourceLength);
+        data.writeInt(sourceChecksum);
+        data.writeInt(tileDataOffset);
+        data.writeShort(pathBytes.length);
+        data.write(pathBytes);
+        for (int layer = 0; layer < source.getLayerCount(); layer++) {
+            data.writeByte(source.isLayerVisible(layer) ? 1 : 0);
+        }
+        for (int i = 0; i < chunkCount; i++) {
+            data.writeInt(offsets[i]);
+            data.writeInt(lengths[i]);
+        }
+        payloads.writeTo(data);
+        writeTileData(tileData, data);
+        data.flush();
+    }
+
+    /**
+     * Writes walkability, sight, move costs, terrain types and regions of a map, see {@link RegionFile}
+     */
+    private static void writeTileData(MapCache.CachedMap tileData, DataOutputStream data) throws IOException {
+        int width = tileData.getWidthInTiles();
+        int height = tileData.getHeightInTiles();
+        tileData.getTraversability().write(data);
+        tileData.getSightBlockers().write(data);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                data.writeByte(tileData.getMoveCost(x, y));
+            }
+        }
+        // The cache already caps both lists at 255 names, so every index fits in a byte
+        Array<String> terrainTypes = new Array<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                data.writeByte(nameIndex(terrainTypes, tileData.getTerrainType(x, y)));
+            }
+        }
+        Array<String> regionIds = new Array<>();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                data.writeByte(nameIndex(regionIds, tileData.getRegionId(x, y)));
+            }
+        }
+        writeNames(terrainTypes, data);
+        writeNames(regionIds, data);
+    }
+
+    /**
+     * @return The 1-based index of a name, added if new; 0 for null
+     */
+    private static int nameIndex(Array<String> names, String name) {
+        if (name == null) return 0;
+        int index = names.indexOf(name, false);
+        if (index >= 0) return index + 1;
+        names.add(name);
+        return names.size;
+    }
+
+    private static void writeNames(Array<String> names, DataOutputStream data) throws IOException {
+        data.writeShort(names.size);
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            data.writeShort(bytes.length);
+            data.write(bytes);
+        }
+    }
+
+    /**
+     * Copies a chunk's tiles into little-endian bytes
+     * @return True if every tile is empty
+     */
+    private static boolean toLittleEndian(ByteBuffer tiles, byte[] out) {
+        boolean empty = true;
+        for (int i = 0; i < out.length; i += 4) {
+            int tile = tiles.getInt(i);
+            if (tile != WorldChunk.EMPTY) empty = false;
+            out[i] = (byte) tile;
+            out[i + 1] = (byte) (tile >>> 8);
+            out[i + 2] = (byte) (tile >>> 16);
+            out[i + 3] = (byte) (tile >>> 24);
+        }
+        return empty;
+    }
+
+    /**
+     * Resolves a path relative to the folder of another, collapsing "." and ".." segments
+     */
+    static String resolve(String basePath, String relativePath) {
+        Array<String> segments = new Array<>();
+        int slash = basePath.lastIndexOf('/');
+        String combined = slash >= 0 ? basePath.substring(0, slash + 1) + relativePath : relativePath;
+        for (String segment : combined.split("/")) {
+            if (segment.isEmpty() || segment.equals(".")) continue;
+            if (segment.equals("..") && segments.size > 0 && !segments.peek().equals("..")) {
+                segments.pop();
+            } else {
+                segments.add(segment);
+            }
+        }
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < segments.size; i++) {
+            if (i > 0) path.append('/');
+            path.append(segments.get(i));
+        }
+        return path.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.danbramos.ringprototype.maps;
+
+/**
+ * Notified by a {@link MapCache.CachedMap} whenever the passability or move cost of a tile changes at
+ * runtime, e.g. when a bridge collapses
+ */
+public interface TerrainChangeListener {
+    /**
+     * @param map The map that changed
+     * @param x The tile x coordinate
+     * @param y The tile y coordinate
+     */
+    void onTerrainChanged(MapCache.CachedMap map, int x, int y);
+}
@@ -0,0 +1,91 @@
+package com.danbramos.ringprototype.maps;
+
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Serves chunks cut out of the tile layers of a loaded TiledMap, for maps that are still edited as .tmx.
+ * Only reads the map, so chunks can be cut on the streaming thread while the render thread draws.
+ */
+public class TiledMapChunkSource implements ChunkSource {
+    private final TiledMap map;
+    private final Array<TiledMapTileLayer> layers = new Array<>();
+    private final int width;
+    private final int height;
+
+    /**
+     * @param map The map; stays owned by the caller (usually the {@link MapCache})
+     */
+    public TiledMapChunkSource(TiledMap map) {
+        this.map = map;
+        int width = 0;
+        int height = 0;
+        MapLayers mapLayers = map.getLayers();
+        for (int i = 0; i < mapLayers.getCount(); i++) {
+            MapLayer layer = mapLayers.get(i);
+            if (layer instanceof TiledMapTileLayer) {
+                TiledMapTileLayer tileLayer = (TiledMapTileLayer) layer;
+                layers.add(tileLayer);
+                width = Math.max(width, tileLayer.getWidth());
+                height = Math.max(height, tileLayer.getHeight());
+            }
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    public TiledMap getMap() {
+        return map;
+    }
+
+    @Override
+    public int getWidthInTiles() {
+        return width;
+    }
+
+    @Override
+    public int getHeightInTiles() {
+        return height;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layers.size;
+    }
+
+    @Override
+    public boolean readChunk(WorldChunk chunk) {
+        int originX = chunk.getOriginX();
+        int originY = chunk.getOriginY();
+        for (int layer = 0; layer < layers.size; layer++) {
+            TiledMapTileLayer tileLayer = layers.get(layer);
+            for (int y = 0; y < WorldChunk.SIZE; y++) {
+                for (int x = 0; x < WorldChunk.SIZE; x++) {
+                    // getCell returns null outside the layer, so edge chunks need no clamping
+                    TiledMapTileLayer.Cell cell = tileLayer.getCell(originX + x, originY + y);
+                    if (cell != null && cell.getTile() != null) {
+                        chunk.setTile(layer, x, y, WorldChunk.packTile(cell.getTile().getId(),
+                            cell.getFlipHorizontally(), cell.getFlipVertically(), cell.getRotation()));
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the layer's current visibility, so hiding a layer at runtime hides it in the chunks too
+     */
+    @Override
+    public boolean isLayerVisible(int layer) {
+        return layers.get(layer).isVisible();
+    }
+
+    @Override
+    public void dispose() {
+        // The map belongs to the caller
+    }
+}
@@ -0,0 +1,106 @@
+package com.danbramos.ringprototype.maps;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * One bit per tile saying whether it can be walked on, packed 64 tiles to a word.
+ * <p>
+ * Built once per map load by the {@link MapCache} from the "Collision" layer and "blocked" tile properties,
+ * and shared by everything that asks about walkability (movement, route planning, spawning, AI), so none of
+ * them touch TiledMap cells or property maps at runtime. A query is a bounds check and a single word read.
+ * The MapCache keeps a second one for line of sight, built from "opaque" properties. Maps streamed from a
+ * {@link RegionFile} store both bitmaps in the file, see {@link #write} and {@link #read}.
+ */
+public class TraversabilityMap {
+    private final int width;
+    private final int height;
+    private final long[] words; // Bit (y * width + x) set = blocked
+
+    public TraversabilityMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.words = new long[(width * height + 63) >>> 6];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x The tile x coordinate
+     * @param y The tile y coordinate
+     * @return True for blocked tiles and for tiles outside the map
+     */
+    public boolean isBlocked(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return true;
+        int index = y * width + x;
+        return (words[index >>> 6] & (1L << index)) != 0; // The shift only uses the low 6 bits of index
+    }
+
+    /**
+     * @param x The tile x coordinate
+     * @param y The tile y coordinate
+     * @param blocked The new state
+     * @return True if the tile changed; false if it already had that state or lies outside the map
+     */
+    public boolean setBlocked(int x, int y, boolean blocked) {
+        if (x < 0 || y < 0 || x >= width || y >= height) return false;
+        int index = y * width + x;
+        long bit = 1L << index;
+        long word = words[index >>> 6];
+        if (((word & bit) != 0) == blocked) return false;
+        words[index >>> 6] = blocked ? word | bit : word & ~bit;
+        return true;
+    }
+
+    /**
+     * @return How many tiles are blocked
+     */
+    public int countBlocked() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return Memory used by the bitmap in bytes
+     */
+    public long getSizeInBytes() {
+        return (long) words.length * 8;
+    }
+
+    /**
+     * @return Bytes a bitmap of this size takes, in memory and in a region file
+     */
+    static long getSizeInBytes(int width, int height) {
+        return (((long) width * height + 63) >>> 6) * 8;
+    }
+
+    /**
+     * Writes the words big-endian, in the layout {@link #read} expects
+     */
+    void write(DataOutputStream out) throws IOException {
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Replaces every bit with words written by {@link #write}
+     * @param data The buffer holding the words, big-endian
+     * @param offset Where the first word starts
+     */
+    void read(ByteBuffer data, int offset) {
+        for (int i = 0; i < words.length; i++) {
+            words[i] = data.getLong(offset + i * 8);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.danbramos.ringprototype.maps;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A square region of {@value #SIZE}x{@value #SIZE} tiles of the streamed overworld.
+ * <p>
+ * The tiles of every layer are kept as ints in one direct ByteBuffer, outside the Java heap, rather than
+ * as a cell object per tile like a TiledMap. Like a Tiled GID, a tile holds the tile ID in its low bits and
+ * the cell's flips and rotation in its high bits, see {@link #packTile}. Chunk objects and their buffers are pooled by the
+ * {@link ChunkStreamer} and reused for other coordinates once evicted.
+ */
+public class WorldChunk {
+    /** Width and height of a chunk in tiles */
+    public static final int SIZE = 32;
+    /** Tile ID of an empty cell */
+    public static final int EMPTY = 0;
+    /** Set on tiles whose cell is mirrored left to right */
+    public static final int FLIP_HORIZONTALLY = 0x80000000;
+    /** Set on tiles whose cell is mirrored top to bottom */
+    public static final int FLIP_VERTICALLY = 0x40000000;
+    private static final int ROTATION_SHIFT = 28;
+    private static final int ID_MASK = (1 << ROTATION_SHIFT) - 1;
+
+    private static final int TILES_PER_LAYER = SIZE * SIZE;
+
+    private final int layerCount;
+    private final ByteBuffer tiles;
+    private int chunkX;
+    private int chunkY;
+
+    /**
+     * @param layerCount Number of tile layers stored per chunk
+     */
+    public WorldChunk(int layerCount) {
+        this.layerCount = layerCount;
+        this.tiles = ByteBuffer.allocateDirect(getSizeInBytes(layerCount)).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Gets the off-heap size of one chunk, for memory estimates
+     * @param layerCount Number of tile layers
+     * @return Bytes of tile storage per chunk
+     */
+    public static int getSizeInBytes(int layerCount) {
+        return layerCount * TILES_PER_LAYER * 4;
+    }
+
+    /**
+     * Packs a cell into a tile
+     * @param tileId The tile ID, below 2^28
+     * @param flipHorizontally Whether the cell is mirrored left to right
+     * @param flipVertically Whether the cell is mirrored top to bottom
+     * @param rotation Counter-clockwise quarter turns, as in TiledMapTileLayer.Cell
+     * @return The tile; just the ID when the cell is neither flipped nor rotated
+     */
+    public static int packTile(int tileId, boolean flipHorizontally, boolean flipVertically, int rotation) {
+        int tile = (tileId & ID_MASK) | (rotation & 3) << ROTATION_SHIFT;
+        if (flipHorizontally) tile |= FLIP_HORIZONTALLY;
+        if (flipVertically) tile |= FLIP_VERTICALLY;
+        return tile;
+    }
+
+    /**
+     * @return The tile ID of a tile, without its flags
+     */
+    public static int getTileId(int tile) {
+        return tile & ID_MASK;
+    }
+
+    /**
+     * @return The counter-clockwise quarter turns of a tile, 0 to 3
+     */
+    public static int getRotation(int tile) {
+        return (tile >>> ROTATION_SHIFT) & 3;
+    }
+
+    /**
+     * Assigns the chunk to new coordinates and clears every tile
+     */
+    void reset(int chunkX, int chunkY) {
+        this.chunkX = chunkX;
+        this.chunkY = chunkY;
+        for (int i = 0; i < tiles.capacity(); i += 4) {
+            tiles.putInt(i, EMPTY);
+        }
+    }
+
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    public int getChunkY() {
+        return chunkY;
+    }
+
+    /**
+     * @return The x of the chunk's left column in world tiles
+     */
+    public int getOriginX() {
+        return chunkX * SIZE;
+    }
+
+    /**
+     * @return The y of the chunk's bottom row in world tiles
+     */
+    public int getOriginY() {
+        return chunkY * SIZE;
+    }
+
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    /**
+     * Gets a tile by coordinates local to the chunk
+     * @param layer Layer index, bottom first
+     * @param localX 0 to SIZE - 1
+     * @param localY 0 to SIZE - 1
+     * @return The tile with its flags, see {@link #packTile}; {@link #EMPTY} for an empty cell
+     */
+    public int getTile(int layer, int localX, int localY) {
+        return tiles.getInt(index(layer, localX, localY));
+    }
+
+    /**
+     * Sets a tile by coordinates local to the chunk
+     * @param tile A tile ID, or a tile with flags from {@link #packTile}
+     */
+    public void setTile(int layer, int localX, int localY, int tile) {
+        tiles.putInt(index(layer, localX, localY), tile);
+    }
+
+    /**
+     * Gives direct access to the tile storage for bulk reads; tiles are laid out layer by layer, then
+     * row by row from the bottom, as native-order ints
+     * @return The chunk's buffer; its position and limit may be changed but must be restored
+     */
+    public ByteBuffer getTiles() {
+        return tiles;
+    }
+
+    private static int index(int layer, int localX, int localY) {
+        return ((layer * SIZE + localY) * SIZE + localX) * 4;
+    }
+}
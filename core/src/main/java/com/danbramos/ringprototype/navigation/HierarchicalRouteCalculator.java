@@ -0,0 +1,539 @@
+package com.danbramos.ringprototype.navigation;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.IntSet;
+import com.danbramos.ringprototype.maps.MapCache;
+import com.danbramos.ringprototype.maps.TerrainChangeListener;
+import com.danbramos.ringprototype.maps.TraversabilityMap;
+
+/**
+ * Plans overworld routes with hierarchical pathfinding (HPA*), so queries on large maps only search a
+ * small abstract graph instead of every tile.
+ * <p>
+ * The map is split into square clusters. Where two neighbouring clusters share a run of passable tiles
+ * along their border, one transition is placed in the middle of the run (or one at each end for wide runs);
+ * the tiles on either side become abstract nodes. Each cluster caches the cost between every pair of its
+ * nodes, found with searches that stay inside the cluster. A query links the start and goal into that graph,
+ * runs A* over it and returns the nodes it passes as waypoints; the tile route between two waypoints is only
+ * refined when it is needed, see {@link #refineSegment}.
+ * <p>
+ * The calculator listens to its map's terrain changes: a changed tile only marks its cluster dirty, and
+ * the next query rebuilds that cluster's borders and the node graphs of it and its direct neighbours.
+ * <p>
+ * Routes are close to, but not always, the cheapest; they cross borders only at transitions. A start on an
+ * impassable tile (e.g. a bridge that collapsed under the party) can only leave through its own cluster.
+ */
+public class HierarchicalRouteCalculator implements TerrainChangeListener, Disposable {
+    public static final int DEFAULT_CLUSTER_SIZE = 16;
+    // Border runs at least this long get a transition at each end rather than one in the middle
+    private static final int WIDE_ENTRANCE = 6;
+
+    private final int clusterSize;
+    private final RouteCalculator local;
+    private MapCache.CachedMap map;
+    private TraversabilityMap blocked;
+    private int width;
+    private int height;
+    private int clustersX;
+    private int clustersY;
+    private Cluster[] clusters;
+    private final IntArray dirtyClusters = new IntArray();
+    private final IntArray staleClusters = new IntArray();
+
+    // Abstract search state, keyed by packed tile; reused between queries
+    private final IntIntMap gScore = new IntIntMap();
+    private final IntIntMap parent = new IntIntMap();
+    private final IntSet closed = new IntSet();
+    private long[] open = new long[64]; // Binary min-heap of (f << 32 | tile), stale entries skipped on pop
+    private int openSize;
+    private int[] startCosts = new int[16];
+    private int[] goalCosts = new int[16];
+    private int[] rowCosts = new int[16];
+    private final IntArray segment = new IntArray();
+    private final IntArray waypoints = new IntArray();
+
+    /**
+     * The tiles on one side of a border between two clusters, stored as pairs of packed tiles:
+     * the tile in the left/lower cluster, then its neighbour in the right/upper cluster
+     */
+    private static class Border {
+        final IntArray transitions = new IntArray();
+        boolean dirty = true;
+    }
+
+    private static class Cluster {
+        final int minX;
+        final int minY;
+        final int maxX;
+        final int maxY;
+        Border east;  // Owned; shared with the cluster to the right
+        Border north; // Owned; shared with the cluster above
+        Border west;
+        Border south;
+        final IntArray nodes = new IntArray(); // Packed entrance tiles inside this cluster
+        final IntArray exits = new IntArray(); // Pairs: entrance tile here, tile across the border
+        int[] costs = new int[0];              // nodes.size^2, row = from; RouteCalculator.UNREACHABLE if none
+        boolean dirty = true;  // Borders need scanning again
+        boolean stale;         // Nodes and costs need rebuilding; set while queued in staleClusters
+
+        Cluster(int minX, int minY, int maxX, int maxY) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+        }
+
+        boolean contains(int x, int y) {
+            return x >= minX && y >= minY && x <= maxX && y <= maxY;
+        }
+    }
+
+    public HierarchicalRouteCalculator(MapCache.CachedMap map) {
+        this(map, DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * @param map The map to plan routes on
+     * @param clusterSize Side of a cluster in tiles; larger clusters mean fewer nodes but slower refinement
+     */
+    public HierarchicalRouteCalculator(MapCache.CachedMap map, int clusterSize) {
+        this.clusterSize = Math.max(2, clusterSize);
+        this.local = new RouteCalculator(map);
+        setMap(map);
+    }
+
+    /**
+     * Switches to another map (or the same map fetched again from the cache). The abstract graph is
+     * rebuilt lazily on the next query.
+     * @param map The map to plan routes on
+     */
+    public void setMap(MapCache.CachedMap map) {
+        if (this.map != null) {
+            this.map.removeTerrainListener(this);
+        }
+        this.map = map;
+        this.blocked = map.getTraversability();
+        this.width = map.getWidthInTiles();
+        this.height = map.getHeightInTiles();
+        local.setMap(map);
+        map.addTerrainListener(this);
+
+        clustersX = (width + clusterSize - 1) / clusterSize;
+        clustersY = (height + clusterSize - 1) / clusterSize;
+        clusters = new Cluster[clustersX * clustersY];
+        dirtyClusters.clear();
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) {
+                int minX = cx * clusterSize;
+                int minY = cy * clusterSize;
+                Cluster cluster = new Cluster(minX, minY,
+                    Math.min(width, minX + clusterSize) - 1, Math.min(height, minY + clusterSize) - 1);
+                if (cx + 1 < clustersX) cluster.east = new Border();
+                if (cy + 1 < clustersY) cluster.north = new Border();
+                if (cx > 0) cluster.west = clusters[cy * clustersX + cx - 1].east;
+                if (cy > 0) cluster.south = clusters[(cy - 1) * clustersX + cx].north;
+                clusters[cy * clustersX + cx] = cluster;
+                dirtyClusters.add(cy * clustersX + cx);
+            }
+        }
+    }
+
+    public MapCache.CachedMap getMap() {
+        return map;
+    }
+
+    /**
+     * Builds the abstract graph now instead of on the first query, e.g. while a screen is being shown
+     */
+    public void prepare() {
+        ensureBuilt();
+    }
+
+    @Override
+    public void onTerrainChanged(MapCache.CachedMap changedMap, int x, int y) {
+        if (changedMap != map || x < 0 || y < 0 || x >= width || y >= height) return;
+        int index = clusterIndex(x, y);
+        if (!clusters[index].dirty) {
+            clusters[index].dirty = true;
+            dirtyClusters.add(index);
+        }
+    }
+
+    /**
+     * Plans a complete tile route, refining every segment up front
+     * @param out Cleared, then filled with packed tiles from the first step to the goal
+     * @return True if a route was found
+     * @see RouteCalculator#findPath(int, int, int, int, IntArray)
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray out) {
+        if (!findWaypoints(startX, startY, goalX, goalY, waypoints)) {
+            out.clear();
+            return false;
+        }
+        out.clear();
+        int fromX = startX;
+        int fromY = startY;
+        for (int i = 0; i < waypoints.size; i++) {
+            int toX = RouteCalculator.unpackX(waypoints.get(i));
+            int toY = RouteCalculator.unpackY(waypoints.get(i));
+            if (!refineSegment(fromX, fromY, toX, toY, segment)) {
+                out.clear();
+                return false;
+            }
+            out.addAll(segment);
+            fromX = toX;
+            fromY = toY;
+        }
+        return true;
+    }
+
+    /**
+     * Plans a route through the abstract graph
+     * @param out Cleared, then filled with packed waypoints ending with the goal; consecutive waypoints
+     *            are either neighbours or in the same cluster, so each segment refines cheaply
+     * @return True if a route was found (an empty one when the start is the goal)
+     */
+    public boolean findWaypoints(int startX, int startY, int goalX, int goalY, IntArray out) {
+        out.clear();
+        if (!inBounds(startX, startY) || !inBounds(goalX, goalY)) return false;
+        if (startX == goalX && startY == goalY) return true;
+        if (blocked.isBlocked(goalX, goalY)) return false;
+        ensureBuilt();
+
+        Cluster startCluster = clusters[clusterIndex(startX, startY)];
+        Cluster goalCluster = clusters[clusterIndex(goalX, goalY)];
+        int goal = RouteCalculator.pack(goalX, goalY);
+        // Nearby goals are usually reachable without leaving the cluster
+        if (startCluster == goalCluster && local.findPath(startX, startY, goalX, goalY,
+            startCluster.minX, startCluster.minY, startCluster.maxX, startCluster.maxY, segment)) {
+            out.add(goal);
+            return true;
+        }
+
+        // Link the start and goal into the graph with one cluster-local search each
+        startCosts = ensureSize(startCosts, startCluster.nodes.size);
+        local.computeCosts(startX, startY, startCluster.minX, startCluster.minY, startCluster.maxX, startCluster.maxY,
+            startCluster.nodes, startCosts);
+        goalCosts = ensureSize(goalCosts, goalCluster.nodes.size);
+        local.computeCosts(goalX, goalY, goalCluster.minX, goalCluster.minY, goalCluster.maxX, goalCluster.maxY,
+            goalCluster.nodes, goalCosts);
+        for (int i = 0; i < goalCluster.nodes.size; i++) {
+            if (goalCosts[i] == RouteCalculator.UNREACHABLE) continue;
+            // The search ran from the goal; walking the same tiles the other way enters the goal instead of the node
+            int node = goalCluster.nodes.get(i);
+            goalCosts[i] += map.getMoveCost(goalX, goalY)
+                - map.getMoveCost(RouteCalculator.unpackX(node), RouteCalculator.unpackY(node));
+        }
+
+        int start = RouteCalculator.pack(startX, startY);
+        gScore.clear();
+        parent.clear();
+        closed.clear();
+        openSize = 0;
+        gScore.put(start, 0);
+        pushOpen(heuristic(start, goalX, goalY), start);
+
+        while (openSize > 0) {
+            int current = (int) popOpen();
+            if (!closed.add(current)) continue; // A stale entry for an already settled node
+            if (current == goal) {
+                writeWaypoints(start, goal, out);
+                return true;
+            }
+            int g = gScore.get(current, 0);
+
+            if (current == start) {
+                for (int i = 0; i < startCluster.nodes.size; i++) {
+                    if (startCosts[i] != RouteCalculator.UNREACHABLE) {
+                        relax(startCluster.nodes.get(i), g + startCosts[i], current, goalX, goalY);
+                    }
+                }
+            }
+
+            int cx = RouteCalculator.unpackX(current);
+            int cy = RouteCalculator.unpackY(current);
+            Cluster cluster = clusters[clusterIndex(cx, cy)];
+            int index = cluster.nodes.indexOf(current);
+            if (index < 0) continue;
+            int count = cluster.nodes.size;
+            for (int j = 0; j < count; j++) {
+                int cost = cluster.costs[index * count + j];
+                if (j != index && cost != RouteCalculator.UNREACHABLE) {
+                    relax(cluster.nodes.get(j), g + cost, current, goalX, goalY);
+                }
+            }
+            for (int i = 0; i < cluster.exits.size; i += 2) {
+                if (cluster.exits.get(i) != current) continue;
+                int across = cluster.exits.get(i + 1);
+                relax(across, g + map.getMoveCost(RouteCalculator.unpackX(across), RouteCalculator.unpackY(across)),
+                    current, goalX, goalY);
+            }
+            if (cluster == goalCluster && goalCosts[index] != RouteCalculator.UNREACHABLE) {
+                relax(goal, g + goalCosts[index], current, goalX, goalY);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Refines the tile route between two consecutive waypoints from {@link #findWaypoints}
+     * @param out Cleared, then filled with packed tiles after the start up to and including the end
+     * @return True if the segment could be walked
+     */
+    public boolean refineSegment(int fromX, int fromY, int toX, int toY, IntArray out) {
+        out.clear();
+        if (Math.abs(toX - fromX) + Math.abs(toY - fromY) == 1) {
+            // A border crossing, or a single step inside a cluster
+            if (blocked.isBlocked(toX, toY)) return false;
+            out.add(RouteCalculator.pack(toX, toY));
+            return true;
+        }
+        ensureBuilt();
+        Cluster a = clusters[clusterIndex(fromX, fromY)];
+        Cluster b = clusters[clusterIndex(toX, toY)];
+        return local.findPath(fromX, fromY, toX, toY,
+            Math.min(a.minX, b.minX), Math.min(a.minY, b.minY), Math.max(a.maxX, b.maxX), Math.max(a.maxY, b.maxY), out);
+    }
+
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    @Override
+    public void dispose() {
+        if (map != null) {
+            map.removeTerrainListener(this);
+        }
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height;
+    }
+
+    private int clusterIndex(int x, int y) {
+        return (y / clusterSize) * clustersX + x / clusterSize;
+    }
+
+    private static int heuristic(int tile, int goalX, int goalY) {
+        return (Math.abs(goalX - RouteCalculator.unpackX(tile)) + Math.abs(goalY - RouteCalculator.unpackY(tile)))
+            * MapCache.DEFAULT_MOVE_COST;
+    }
+
+    private void relax(int tile, int g, int from, int goalX, int goalY) {
+        if (closed.contains(tile)) return;
+        if (gScore.containsKey(tile) && gScore.get(tile, 0) <= g) return;
+        gScore.put(tile, g);
+        parent.put(tile, from);
+        pushOpen(g + heuristic(tile, goalX, goalY), tile);
+    }
+
+    private void writeWaypoints(int start, int goal, IntArray out) {
+        for (int tile = goal; tile != start; tile = parent.get(tile, start)) {
+            out.add(tile);
+        }
+        out.reverse();
+    }
+
+    /**
+     * Rebuilds the borders of dirty clusters, then the nodes and cached costs of every cluster touching them
+     */
+    private void ensureBuilt() {
+        if (dirtyClusters.size == 0) return;
+        long start = System.nanoTime();
+        int rebuilt = dirtyClusters.size;
+
+        staleClusters.clear();
+        for (int i = 0; i < dirtyClusters.size; i++) {
+            int index = dirtyClusters.get(i);
+            Cluster cluster = clusters[index];
+            cluster.dirty = false;
+            markBorderDirty(cluster.east);
+            markBorderDirty(cluster.north);
+            markBorderDirty(cluster.west);
+            markBorderDirty(cluster.south);
+            // Neighbours share the rebuilt borders, so their entrance nodes may change too
+            int cx = index % clustersX;
+            int cy = index / clustersX;
+            markStale(cx, cy);
+            markStale(cx + 1, cy);
+            markStale(cx - 1, cy);
+            markStale(cx, cy + 1);
+            markStale(cx, cy - 1);
+        }
+        dirtyClusters.clear();
+
+        for (int i = 0; i < staleClusters.size; i++) {
+            Cluster cluster = clusters[staleClusters.get(i)];
+            if (cluster.east != null && cluster.east.dirty) buildEastBorder(cluster);
+            if (cluster.north != null && cluster.north.dirty) buildNorthBorder(cluster);
+        }
+        // A west or south border belongs to a neighbour, which is stale too and built it above
+        for (int i = 0; i < staleClusters.size; i++) {
+            Cluster cluster = clusters[staleClusters.get(i)];
+            buildNodes(cluster);
+            cluster.stale = false;
+        }
+        Gdx.app.debug("HierarchicalRouteCalculator", "Rebuilt " + rebuilt + " dirty and " + staleClusters.size
+            + " affected clusters in " + (System.nanoTime() - start) / 1000 + " us.");
+        staleClusters.clear();
+    }
+
+    private static void markBorderDirty(Border border) {
+        if (border != null) border.dirty = true;
+    }
+
+    private void markStale(int cx, int cy) {
+        if (cx < 0 || cy < 0 || cx >= clustersX || cy >= clustersY) return;
+        Cluster cluster = clusters[cy * clustersX + cx];
+        if (cluster.stale) return;
+        cluster.stale = true;
+        staleClusters.add(cy * clustersX + cx);
+    }
+
+    private void buildEastBorder(Cluster cluster) {
+        Border border = cluster.east;
+        border.transitions.clear();
+        int x = cluster.maxX;
+        int runStart = -1;
+        for (int y = cluster.minY; y <= cluster.maxY + 1; y++) {
+            boolean open = y <= cluster.maxY && !blocked.isBlocked(x, y) && !blocked.isBlocked(x + 1, y);
+            if (open && runStart < 0) {
+                runStart = y;
+            } else if (!open && runStart >= 0) {
+                int runEnd = y - 1;
+                if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+                    addTransition(border, x, runStart, x + 1, runStart);
+                    addTransition(border, x, runEnd, x + 1, runEnd);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(border, x, middle, x + 1, middle);
+                }
+                runStart = -1;
+            }
+        }
+        border.dirty = false;
+    }
+
+    private void buildNorthBorder(Cluster cluster) {
+        Border border = cluster.north;
+        border.transitions.clear();
+        int y = cluster.maxY;
+        int runStart = -1;
+        for (int x = cluster.minX; x <= cluster.maxX + 1; x++) {
+            boolean open = x <= cluster.maxX && !blocked.isBlocked(x, y) && !blocked.isBlocked(x, y + 1);
+            if (open && runStart < 0) {
+                runStart = x;
+            } else if (!open && runStart >= 0) {
+                int runEnd = x - 1;
+                if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+                    addTransition(border, runStart, y, runStart, y + 1);
+                    addTransition(border, runEnd, y, runEnd, y + 1);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(border, middle, y, middle, y + 1);
+                }
+                runStart = -1;
+            }
+        }
+        border.dirty = false;
+    }
+
+    private static void addTransition(Border border, int lowX, int lowY, int highX, int highY) {
+        border.transitions.add(RouteCalculator.pack(lowX, lowY));
+        border.transitions.add(RouteCalculator.pack(highX, highY));
+    }
+
+    /**
+     * Collects a cluster's entrance nodes from its borders and caches the cost between each pair
+     */
+    private void buildNodes(Cluster cluster) {
+        cluster.nodes.clear();
+        cluster.exits.clear();
+        addExits(cluster, cluster.east, true);
+        addExits(cluster, cluster.north, true);
+        addExits(cluster, cluster.west, false);
+        addExits(cluster, cluster.south, false);
+
+        int count = cluster.nodes.size;
+        if (cluster.costs.length < count * count) {
+            cluster.costs = new int[count * count];
+        }
+        rowCosts = ensureSize(rowCosts, count);
+        int[] costs = cluster.costs;
+        for (int i = 0; i < count; i++) {
+            int node = cluster.nodes.get(i);
+            int nodeCost = map.getMoveCost(RouteCalculator.unpackX(node), RouteCalculator.unpackY(node));
+            costs[i * count + i] = 0;
+            // Walking a route backwards enters the other end instead of this one, so the reverse cost only
+            // differs by the two end tiles; each search just has to settle the nodes after this one
+            local.computeCosts(RouteCalculator.unpackX(node), RouteCalculator.unpackY(node),
+                cluster.minX, cluster.minY, cluster.maxX, cluster.maxY, cluster.nodes, i + 1, rowCosts);
+            for (int j = i + 1; j < count; j++) {
+                int cost = rowCosts[j];
+                costs[i * count + j] = cost;
+                if (cost == RouteCalculator.UNREACHABLE) {
+                    costs[j * count + i] = RouteCalculator.UNREACHABLE;
+                } else {
+                    int other = cluster.nodes.get(j);
+                    costs[j * count + i] = cost + nodeCost
+                        - map.getMoveCost(RouteCalculator.unpackX(other), RouteCalculator.unpackY(other));
+                }
+            }
+        }
+    }
+
+    /**
+     * @param ownSideLow True if this cluster is the left/lower side of the border
+     */
+    private static void addExits(Cluster cluster, Border border, boolean ownSideLow) {
+        if (border == null) return;
+        IntArray transitions = border.transitions;
+        for (int i = 0; i < transitions.size; i += 2) {
+            int inside = transitions.get(ownSideLow ? i : i + 1);
+            int across = transitions.get(ownSideLow ? i + 1 : i);
+            cluster.exits.add(inside);
+            cluster.exits.add(across);
+            if (!cluster.nodes.contains(inside)) cluster.nodes.add(inside);
+        }
+    }
+
+    private static int[] ensureSize(int[] array, int size) {
+        return array.length >= size ? array : new int[Math.max(size, array.length * 2)];
+    }
+
+    private void pushOpen(int f, int tile) {
+        if (openSize == open.length) {
+            long[] grown = new long[open.length * 2];
+            System.arraycopy(open, 0, grown, 0, openSize);
+            open = grown;
+        }
+        long entry = ((long) f << 32) | (tile & 0xFFFFFFFFL);
+        int slot = openSize++;
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            if (open[parentSlot] <= entry) break;
+            open[slot] = open[parentSlot];
+            slot = parentSlot;
+        }
+        open[slot] = entry;
+    }
+
+    private long popOpen() {
+        long top = open[0];
+        long last = open[--openSize];
+        int slot = 0;
+        int half = openSize >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            if (child + 1 < openSize && open[child + 1] < open[child]) child++;
+            if (open[child] >= last) break;
+            open[slot] = open[child];
+            slot = child;
+        }
+        if (openSize > 0) open[slot] = last;
+        return top & 0xFFFFFFFFL;
+    }
+}
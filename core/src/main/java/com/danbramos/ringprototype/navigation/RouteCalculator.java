@@ -0,0 +1,348 @@
+package com.danbramos.ringprototype.navigation;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.danbramos.ringprototype.maps.MapCache;
+import com.danbramos.ringprototype.maps.TraversabilityMap;
+
+import java.util.Arrays;
+
+/**
+ * Finds the cheapest 4-way route between two overworld tiles with A*, using the {@link TraversabilityMap}
+ * and "moveCost" grid the {@link MapCache} compiles for each map.
+ * <p>
+ * All search state lives in primitive arrays reused between queries: the open set is a binary heap of
+ * tile indices with decrease-key, and a per-tile generation stamp marks which entries belong to the
+ * current search, so nothing is cleared or allocated per query. The arrays are indexed relative to the
+ * searched rectangle and sized to it, so searches bounded to one cluster of a large map stay small.
+ * Routes are written to an {@link IntArray} of packed tile coordinates (see {@link #pack(int, int)}).
+ * <p>
+ * Not thread safe; use one calculator per thread.
+ */
+public class RouteCalculator {
+    /** Returned by {@link #computeCosts} for tiles that can't be reached */
+    public static final int UNREACHABLE = -1;
+
+    private static final int CLOSED = -1;
+    private static final int[] NEIGHBOR_DX = {1, -1, 0, 0};
+    private static final int[] NEIGHBOR_DY = {0, 0, 1, -1};
+
+    private MapCache.CachedMap map;
+    private TraversabilityMap blocked;
+    private int width;
+    private int height;
+
+    // The rectangle of the current search, inclusive; local index = (y - originY) * areaWidth + (x - originX)
+    private int originX;
+    private int originY;
+    private int lastX;
+    private int lastY;
+    private int areaWidth;
+
+    // Per-tile search state, only meaningful where stamp[tile] == generation
+    private int[] stamp = new int[0];
+    private int[] gScore = new int[0];
+    private int[] hScore = new int[0];
+    private int[] parent = new int[0];
+    private int[] heapSlot = new int[0]; // Position in the heap, or CLOSED once expanded
+    private int[] targetStamp = new int[0]; // Marks the targets of computeCosts
+    private int generation;
+
+    // Open set: a binary min-heap of tile indices ordered by f = g + h, then by h
+    private int[] heap = new int[0];
+    private int heapSize;
+
+    private int lastExpanded;
+
+    /**
+     * @param map The map to plan routes on
+     */
+    public RouteCalculator(MapCache.CachedMap map) {
+        setMap(map);
+    }
+
+    /**
+     * Switches to another map (or the same map fetched again from the cache)
+     * @param map The map to plan routes on
+     */
+    public void setMap(MapCache.CachedMap map) {
+        this.map = map;
+        this.blocked = map.getTraversability();
+        this.width = map.getWidthInTiles();
+        this.height = map.getHeightInTiles();
+    }
+
+    public MapCache.CachedMap getMap() {
+        return map;
+    }
+
+    /**
+     * Plans a route from one tile to another
+     * @param startX Start tile x; the start tile itself doesn't have to be passable
+     * @param startY Start tile y
+     * @param goalX Goal tile x
+     * @param goalY Goal tile y
+     * @param out Cleared, then filled with the packed tiles to step through, excluding the start and
+     *            ending with the goal; left empty when the start is the goal or there is no route
+     * @return True if a route was found (including the empty route from a tile to itself)
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray out) {
+        return findPath(startX, startY, goalX, goalY, 0, 0, width - 1, height - 1, out);
+    }
+
+    /**
+     * Plans a route that stays inside a rectangle of tiles, e.g. one cluster of a hierarchical search
+     * @param minX Smallest tile x the route may use
+     * @param minY Smallest tile y the route may use
+     * @param maxX Largest tile x the route may use
+     * @param maxY Largest tile y the route may use
+     * @see #findPath(int, int, int, int, IntArray)
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY,
+                            int minX, int minY, int maxX, int maxY, IntArray out) {
+        out.clear();
+        lastExpanded = 0;
+        if (!beginSearch(startX, startY, minX, minY, maxX, maxY)) return false;
+        if (!contains(goalX, goalY)) return false;
+        if (startX == goalX && startY == goalY) return true;
+        if (blocked.isBlocked(goalX, goalY)) return false;
+
+        int start = localIndex(startX, startY);
+        int goal = localIndex(goalX, goalY);
+        visit(start, 0, heuristic(startX, startY, goalX, goalY), -1);
+        push(start);
+        while (heapSize > 0) {
+            int current = pop();
+            if (current == goal) {
+                writeRoute(start, goal, out);
+                return true;
+            }
+            expand(current, goalX, goalY, true);
+        }
+        return false;
+    }
+
+    /**
+     * Finds the cheapest cost from one tile to each of a set of targets with a single Dijkstra search
+     * inside a rectangle, stopping as soon as every target is settled
+     * @param startX Start tile x
+     * @param startY Start tile y
+     * @param targets Packed target tiles
+     * @param outCosts Receives one cost per target, or {@link #UNREACHABLE}; at least targets.size long
+     * @return How many targets were reached
+     */
+    public int computeCosts(int startX, int startY, int minX, int minY, int maxX, int maxY,
+                            IntArray targets, int[] outCosts) {
+        return computeCosts(startX, startY, minX, minY, maxX, maxY, targets, 0, outCosts);
+    }
+
+    /**
+     * Like {@link #computeCosts(int, int, int, int, int, int, IntArray, int[])}, but only for the targets
+     * from index first on; earlier entries of outCosts are left untouched
+     */
+    public int computeCosts(int startX, int startY, int minX, int minY, int maxX, int maxY,
+                            IntArray targets, int first, int[] outCosts) {
+        Arrays.fill(outCosts, first, targets.size, UNREACHABLE);
+        lastExpanded = 0;
+        if (!beginSearch(startX, startY, minX, minY, maxX, maxY)) return 0;
+
+        int remaining = 0;
+        for (int i = first; i < targets.size; i++) {
+            int tx = unpackX(targets.get(i));
+            int ty = unpackY(targets.get(i));
+            if (contains(tx, ty) && targetStamp[localIndex(tx, ty)] != generation) {
+                targetStamp[localIndex(tx, ty)] = generation;
+                remaining++;
+            }
+        }
+
+        int start = localIndex(startX, startY);
+        visit(start, 0, 0, -1);
+        push(start);
+        while (heapSize > 0 && remaining > 0) {
+            int current = pop();
+            if (targetStamp[current] == generation) remaining--;
+            expand(current, 0, 0, false);
+        }
+
+        int reached = 0;
+        for (int i = first; i < targets.size; i++) {
+            int tx = unpackX(targets.get(i));
+            int ty = unpackY(targets.get(i));
+            if (!contains(tx, ty)) continue;
+            int tile = localIndex(tx, ty);
+            if (stamp[tile] == generation && heapSlot[tile] == CLOSED) {
+                outCosts[i] = gScore[tile];
+                reached++;
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * @return How many tiles the last query expanded, for profiling
+     */
+    public int getLastExpandedCount() {
+        return lastExpanded;
+    }
+
+    /**
+     * Packs tile coordinates into one int; maps are limited to 65535 tiles per side
+     */
+    public static int pack(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    public static int unpackX(int packed) {
+        return packed >>> 16;
+    }
+
+    public static int unpackY(int packed) {
+        return packed & 0xFFFF;
+    }
+
+    // Manhattan distance times the cheapest step, so the estimate never overshoots
+    private static int heuristic(int x, int y, int goalX, int goalY) {
+        return (Math.abs(goalX - x) + Math.abs(goalY - y)) * MapCache.DEFAULT_MOVE_COST;
+    }
+
+    /**
+     * Clamps the rectangle to the map, sizes the buffers for it and starts a new generation
+     * @return False if the start lies outside the rectangle
+     */
+    private boolean beginSearch(int startX, int startY, int minX, int minY, int maxX, int maxY) {
+        originX = Math.max(0, minX);
+        originY = Math.max(0, minY);
+        int lastX = Math.min(width - 1, maxX);
+        int lastY = Math.min(height - 1, maxY);
+        if (lastX < originX || lastY < originY) return false;
+        areaWidth = lastX - originX + 1;
+        ensureCapacity(areaWidth * (lastY - originY + 1));
+        this.lastX = lastX;
+        this.lastY = lastY;
+        if (!contains(startX, startY)) return false;
+
+        generation++;
+        if (generation == Integer.MAX_VALUE) {
+            // Stamps from two billion queries ago could collide with new ones after the wrap
+            Arrays.fill(stamp, 0);
+            Arrays.fill(targetStamp, 0);
+            generation = 1;
+        }
+        heapSize = 0;
+        return true;
+    }
+
+    private boolean contains(int x, int y) {
+        return x >= originX && y >= originY && x <= lastX && y <= lastY;
+    }
+
+    private int localIndex(int x, int y) {
+        return (y - originY) * areaWidth + (x - originX);
+    }
+
+    private void ensureCapacity(int tiles) {
+        if (stamp.length >= tiles) return;
+        stamp = new int[tiles];
+        gScore = new int[tiles];
+        hScore = new int[tiles];
+        parent = new int[tiles];
+        heapSlot = new int[tiles];
+        targetStamp = new int[tiles];
+        heap = new int[tiles];
+        generation = 0;
+    }
+
+    private void expand(int current, int goalX, int goalY, boolean useHeuristic) {
+        heapSlot[current] = CLOSED;
+        lastExpanded++;
+        int cx = originX + current % areaWidth;
+        int cy = originY + current / areaWidth;
+        for (int i = 0; i < NEIGHBOR_DX.length; i++) {
+            int nx = cx + NEIGHBOR_DX[i];
+            int ny = cy + NEIGHBOR_DY[i];
+            if (!contains(nx, ny) || blocked.isBlocked(nx, ny)) continue;
+            int next = localIndex(nx, ny);
+            int g = gScore[current] + map.getMoveCost(nx, ny);
+            if (stamp[next] != generation) {
+                visit(next, g, useHeuristic ? heuristic(nx, ny, goalX, goalY) : 0, current);
+                push(next);
+            } else if (heapSlot[next] != CLOSED && g < gScore[next]) {
+                gScore[next] = g;
+                parent[next] = current;
+                siftUp(heapSlot[next]);
+            }
+        }
+    }
+
+    private void visit(int tile, int g, int h, int from) {
+        stamp[tile] = generation;
+        gScore[tile] = g;
+        hScore[tile] = h;
+        parent[tile] = from;
+    }
+
+    private void writeRoute(int start, int goal, IntArray out) {
+        int length = 0;
+        for (int tile = goal; tile != start; tile = parent[tile]) {
+            length++;
+        }
+        int[] items = out.setSize(length);
+        for (int tile = goal, i = length - 1; tile != start; tile = parent[tile], i--) {
+            items[i] = pack(originX + tile % areaWidth, originY + tile / areaWidth);
+        }
+    }
+
+    // Lower f first; on equal f prefer the tile closer to the goal, which cuts expansions on open ground
+    private boolean less(int a, int b) {
+        int fa = gScore[a] + hScore[a];
+        int fb = gScore[b] + hScore[b];
+        return fa < fb || (fa == fb && hScore[a] < hScore[b]);
+    }
+
+    private void push(int tile) {
+        heap[heapSize] = tile;
+        heapSlot[tile] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapSlot[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int slot) {
+        int tile = heap[slot];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parentTile = heap[parentSlot];
+            if (!less(tile, parentTile)) break;
+            heap[slot] = parentTile;
+            heapSlot[parentTile] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = tile;
+        heapSlot[tile] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int tile = heap[slot];
+        int half = heapSize >>> 1;
+        while (slot < half) {
+            int child = 2 * slot + 1;
+            int right = child + 1;
+            if (right < heapSize && less(heap[right], heap[child])) child = right;
+            if (!less(heap[child], tile)) break;
+            heap[slot] = heap[child];
+            heapSlot[heap[slot]] = slot;
+            slot = child;
+        }
+        heap[slot] = tile;
+        heapSlot[tile] = slot;
+    }
+}
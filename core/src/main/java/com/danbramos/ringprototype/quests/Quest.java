@@ -18,6 +18,8 @@ public class Quest {
     private DialogueContainer dialogues;
     private List<QuestObjective> objectives;
     private QuestRewards rewards;
+    // Objectives not completed yet, counted down by the QuestManager while the quest is in progress (not in JSON)
+    private transient int remainingObjectives;
 
     /**
      * Default constructor for JSON deserialization
@@ -100,6 +102,17 @@ public class Quest {
         this.objectives = objectives;
     }
 
+    /**
+     * @return Number of objectives still open; only kept up to date while the quest is in progress
+     */
+    public int getRemainingObjectives() {
+        return remainingObjectives;
+    }
+
+    void setRemainingObjectives(int remainingObjectives) {
+        this.remainingObjectives = remainingObjectives;
+    }
+
     public QuestRewards getRewards() {
         return rewards;
     }
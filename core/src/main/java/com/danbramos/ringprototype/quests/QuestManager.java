@@ -4,20 +4,46 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Json;
 import com.badlogic.gdx.math.Vector2;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Manages all quests in the game, loading them from JSON files.
+ * <p>
+ * The open objectives of quests in progress are indexed by objective type and target, so a game event
+ * (e.g. a kill) only visits the objectives it can advance, however many quests are loaded. Each quest
+ * counts its open objectives down as they complete instead of re-checking them all. Quest status and
+ * objective completion should therefore only be changed through this class.
  */
 public class QuestManager {
     // Map of quest ID to quest definition
     private final Map<String, Quest> quests;
+    // Quests in progress, in the order they were accepted
+    private final List<Quest> activeQuests;
+    // Open objectives of quests in progress, by type and target ID
+    private final Map<Quest.ObjectiveType, Map<String, Array<TrackedObjective>>> objectiveIndex;
+    // Quests completed by the event being dispatched, finished once the index is no longer iterated
+    private final Array<Quest> completedScratch = new Array<>();
+
+    /**
+     * An indexed objective together with the quest it belongs to
+     */
+    private static class TrackedObjective {
+        final Quest quest;
+        final Quest.QuestObjective objective;
+
+        TrackedObjective(Quest quest, Quest.QuestObjective objective) {
+            this.quest = quest;
+            this.objective = objective;
+        }
+    }
     
     // Singleton instance
     private static QuestManager instance;
@@ -38,6 +64,8 @@ public class QuestManager {
      */
     private QuestManager() {
         quests = new HashMap<>();
+        activeQuests = new ArrayList<>();
+        objectiveIndex = new EnumMap<>(Quest.ObjectiveType.class);
         loadQuests();
     }
     
@@ -63,6 +91,10 @@ public class QuestManager {
                 if (quest != null) {
                     quests.put(quest.getId(), quest);
                     Gdx.app.debug("QuestManager", "Loaded quest: " + quest.getTitle());
+                    // Quests can be stored as already in progress
+                    if (quest.getStatus() == Quest.QuestStatus.IN_PROGRESS) {
+                        trackQuest(quest);
+                    }
                 }
             } catch (Exception e) {
                 Gdx.app.error("QuestManager", "Error loading quest from " + fileHandle.path(), e);
@@ -109,13 +141,7 @@ public class QuestManager {
      * @return A list of active quests
      */
     public List<Quest> getActiveQuests() {
-        List<Quest> activeQuests = new ArrayList<>();
-        for (Quest quest : quests.values()) {
-            if (quest.getStatus() == Quest.QuestStatus.IN_PROGRESS) {
-                activeQuests.add(quest);
-            }
-        }
-        return activeQuests;
+        return new ArrayList<>(activeQuests);
     }
     
     /**
@@ -128,6 +154,7 @@ public class QuestManager {
         if (quest != null && quest.getStatus() == Quest.QuestStatus.NOT_STARTED) {
             quest.setStatus(Quest.QuestStatus.IN_PROGRESS);
             Gdx.app.log("QuestManager", "Quest accepted: " + quest.getTitle());
+            trackQuest(quest);
             return true;
         }
         return false;
@@ -138,49 +165,108 @@ public class QuestManager {
      * @param enemyId The ID of the enemy killed
      */
     public void updateKillObjectives(String enemyId) {
-        for (Quest quest : getActiveQuests()) {
-            for (Quest.QuestObjective objective : quest.getObjectives()) {
-                if (objective.getType() == Quest.ObjectiveType.KILL && 
-                    objective.getTargetId().equals(enemyId) &&
-                    !objective.isCompleted()) {
-                    
-                    // Increment the current count
-                    objective.incrementProgress();
-                    Gdx.app.log("QuestManager", "Updated kill objective for " + quest.getTitle() + 
-                                ": " + objective.getProgress() + "/" + objective.getCount());
-                    
-                    // Check if the objective is now complete
-                    if (objective.getProgress() >= objective.getCount()) {
-                        objective.setCompleted(true);
-                        Gdx.app.log("QuestManager", "Objective completed: " + objective.getDescription());
-                        
-                        // Check if all objectives are complete
-                        checkQuestCompletion(quest);
-                    }
-                }
+        updateObjectives(Quest.ObjectiveType.KILL, enemyId, 1);
+    }
+
+    /**
+     * Advances the open objectives of active quests that wait for an event
+     * @param type The kind of event, e.g. KILL
+     * @param targetId What the event was about, e.g. the ID of the enemy killed
+     * @param amount How much progress the event makes, e.g. 1 per kill
+     */
+    public void updateObjectives(Quest.ObjectiveType type, String targetId, int amount) {
+        if (type == null || targetId == null || amount <= 0) return;
+        Map<String, Array<TrackedObjective>> byTarget = objectiveIndex.get(type);
+        Array<TrackedObjective> tracked = byTarget != null ? byTarget.get(targetId) : null;
+        if (tracked == null) return;
+
+        // Iterate backwards so completed objectives can be dropped from the index on the way
+        for (int i = tracked.size - 1; i >= 0; i--) {
+            TrackedObjective entry = tracked.get(i);
+            Quest.QuestObjective objective = entry.objective;
+            objective.setProgress(objective.getProgress() + amount);
+            Gdx.app.log("QuestManager", "Updated " + type + " objective for " + entry.quest.getTitle() +
+                        ": " + objective.getProgress() + "/" + objective.getCount());
+            if (!objective.isCompleted()) continue;
+
+            Gdx.app.log("QuestManager", "Objective completed: " + objective.getDescription());
+            tracked.removeIndex(i);
+            Quest quest = entry.quest;
+            quest.setRemainingObjectives(quest.getRemainingObjectives() - 1);
+            if (quest.getRemainingObjectives() <= 0) {
+                completedScratch.add(quest);
             }
         }
+
+        for (int i = 0; i < completedScratch.size; i++) {
+            completeQuest(completedScratch.get(i));
+        }
+        completedScratch.clear();
     }
-    
+
     /**
-     * Check if all objectives for a quest are complete
-     * @param quest The quest to check
+     * Adds the open objectives of a quest that just went in progress to the index and counts them
      */
-    private void checkQuestCompletion(Quest quest) {
-        boolean allComplete = true;
+    private void trackQuest(Quest quest) {
+        if (activeQuests.contains(quest)) return;
+        activeQuests.add(quest);
+
+        int remaining = 0;
         for (Quest.QuestObjective objective : quest.getObjectives()) {
-            if (!objective.isCompleted()) {
-                allComplete = false;
-                break;
+            if (objective.isCompleted()) continue;
+            remaining++;
+            if (objective.getType() == null || objective.getTargetId() == null) {
+                // Nothing can advance it, so the quest stays in progress, as it always did
+                Gdx.app.error("QuestManager", "Objective '" + objective.getId() + "' of quest " + quest.getId() + " has no type or target.");
+                continue;
+            }
+            Map<String, Array<TrackedObjective>> byTarget = objectiveIndex.get(objective.getType());
+            if (byTarget == null) {
+                byTarget = new HashMap<>();
+                objectiveIndex.put(objective.getType(), byTarget);
             }
+            Array<TrackedObjective> tracked = byTarget.get(objective.getTargetId());
+            if (tracked == null) {
+                tracked = new Array<>();
+                byTarget.put(objective.getTargetId(), tracked);
+            }
+            tracked.add(new TrackedObjective(quest, objective));
         }
-        
-        if (allComplete) {
-            quest.setStatus(Quest.QuestStatus.COMPLETED);
-            Gdx.app.log("QuestManager", "Quest completed: " + quest.getTitle());
-            // TODO: Award quest rewards here or when turning in the quest
+        quest.setRemainingObjectives(remaining);
+
+        if (remaining == 0) {
+            completeQuest(quest);
+        }
+    }
+
+    /**
+     * Removes a quest that is no longer in progress from the index
+     */
+    private void untrackQuest(Quest quest) {
+        activeQuests.remove(quest);
+        for (Quest.QuestObjective objective : quest.getObjectives()) {
+            if (objective.getType() == null || objective.getTargetId() == null) continue;
+            Map<String, Array<TrackedObjective>> byTarget = objectiveIndex.get(objective.getType());
+            Array<TrackedObjective> tracked = byTarget != null ? byTarget.get(objective.getTargetId()) : null;
+            if (tracked == null) continue;
+            for (int i = tracked.size - 1; i >= 0; i--) {
+                if (tracked.get(i).objective == objective) {
+                    tracked.removeIndex(i);
+                }
+            }
         }
     }
+
+    /**
+     * Marks a quest whose objectives are all done as completed
+     * @param quest The quest to complete
+     */
+    private void completeQuest(Quest quest) {
+        quest.setStatus(Quest.QuestStatus.COMPLETED);
+        untrackQuest(quest);
+        Gdx.app.log("QuestManager", "Quest completed: " + quest.getTitle());
+        // TODO: Award quest rewards here or when turning in the quest
+    }
     
     /**
      * Create a TextureRegion for a quest giver based on its sprite info
@@ -1,6 +1,7 @@
 package com.danbramos.ringprototype.resources;
 
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -9,9 +10,11 @@ import java.util.Map;
  */
 public class DefaultResourceManager implements ResourceManager {
     private final Map<ResourceType, Integer> resources;
+    private final Array<ResourceChangeListener> listeners;
 
     public DefaultResourceManager() {
         this.resources = new EnumMap<>(ResourceType.class);
+        this.listeners = new Array<>();
         initializeDefaultResources();
     }
 
@@ -44,9 +47,10 @@ public class DefaultResourceManager implements ResourceManager {
             return true; // Spending 0 or negative is technically successful without change
         }
         if (hasEnoughResource(type, amountToSpend)) {
-            resources.put(type, resources.get(type) - amountToSpend);
+            int oldAmount = resources.get(type);
+            resources.put(type, oldAmount - amountToSpend);
             Gdx.app.log("ResourceManager", "Spent " + amountToSpend + " " + type.getDisplayName() + ". Remaining: " + resources.get(type));
-            // TODO: Fire an event here if other systems need to react to resource changes
+            fireResourceChanged(type, oldAmount, resources.get(type));
             return true;
         } else {
             Gdx.app.log("ResourceManager", "Not enough " + type.getDisplayName() + " to spend " + amountToSpend + ". Required: " + amountToSpend + ", Have: " + getResourceAmount(type));
@@ -60,9 +64,10 @@ public class DefaultResourceManager implements ResourceManager {
             Gdx.app.log("ResourceManager", "Attempted to add non-positive amount of " + type.getDisplayName() + ": " + amountToAdd);
             return;
         }
-        resources.put(type, resources.getOrDefault(type, 0) + amountToAdd);
+        int oldAmount = resources.getOrDefault(type, 0);
+        resources.put(type, oldAmount + amountToAdd);
         Gdx.app.log("ResourceManager", "Added " + amountToAdd + " " + type.getDisplayName() + ". Total: " + resources.get(type));
-        // TODO: Fire an event here
+        fireResourceChanged(type, oldAmount, resources.get(type));
     }
 
     /**
@@ -71,6 +76,7 @@ public class DefaultResourceManager implements ResourceManager {
      */
     @Override
     public void setResourceAmount(ResourceType type, int newAmount) {
+        int oldAmount = resources.getOrDefault(type, 0);
         if (newAmount < 0) {
             Gdx.app.error("ResourceManager", "Attempted to set negative resource amount for " + type.getDisplayName() + ": " + newAmount);
             resources.put(type, 0);
@@ -78,7 +84,7 @@ public class DefaultResourceManager implements ResourceManager {
             resources.put(type, newAmount);
         }
         Gdx.app.log("ResourceManager", type.getDisplayName() + " set to " + resources.get(type));
-        // TODO: Fire an event here
+        fireResourceChanged(type, oldAmount, resources.get(type));
     }
 
     @Override
@@ -86,6 +92,26 @@ public class DefaultResourceManager implements ResourceManager {
         return new EnumMap<>(resources); // Return a copy to prevent external modification
     }
 
+    @Override
+    public void addListener(ResourceChangeListener listener) {
+        if (listener != null && !listeners.contains(listener, true)) {
+            listeners.add(listener);
+        }
+    }
+
+    @Override
+    public void removeListener(ResourceChangeListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    private void fireResourceChanged(ResourceType type, int oldAmount, int newAmount) {
+        if (oldAmount == newAmount) return;
+        // Iterate by index so a listener can unregister itself while being notified
+        for (int i = listeners.size - 1; i >= 0; i--) {
+            listeners.get(i).onResourceChanged(type, oldAmount, newAmount);
+        }
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("ResourceManager{\n");
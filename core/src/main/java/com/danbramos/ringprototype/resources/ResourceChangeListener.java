@@ -0,0 +1,13 @@
+package com.danbramos.ringprototype.resources;
+
+/**
+ * Notified by a {@link ResourceManager} whenever the amount of a resource actually changes
+ */
+public interface ResourceChangeListener {
+    /**
+     * @param type The resource that changed
+     * @param oldAmount The amount before the change
+     * @param newAmount The amount after the change
+     */
+    void onResourceChanged(ResourceType type, int oldAmount, int newAmount);
+}
@@ -50,4 +50,16 @@ public interface ResourceManager {
      * @return A map of resources and their amounts
      */
     Map<ResourceType, Integer> getAllResources();
+
+    /**
+     * Registers a listener that is told about every change in a resource amount
+     * @param listener The listener to add
+     */
+    void addListener(ResourceChangeListener listener);
+
+    /**
+     * Unregisters a listener added with {@link #addListener(ResourceChangeListener)}
+     * @param listener The listener to remove
+     */
+    void removeListener(ResourceChangeListener listener);
 }
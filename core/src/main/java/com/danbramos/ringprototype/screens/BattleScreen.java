@@ -4,28 +4,28 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.InputMultiplexer;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.Timer; // Import Timer for delayed screen transition
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.danbramos.ringprototype.RingPrototypeGame;
+import com.danbramos.ringprototype.assets.GameAssets;
 import com.danbramos.ringprototype.battle.*;
 import com.danbramos.ringprototype.battle.skills.Skill;
 import com.danbramos.ringprototype.battle.skills.SkillType;
+import com.danbramos.ringprototype.debug.PerformanceOverlay;
+import com.danbramos.ringprototype.graphics.TileHighlightLayer;
+import com.danbramos.ringprototype.input.BattleHoverTracker;
 import com.danbramos.ringprototype.input.BattleInputHandler;
+import com.danbramos.ringprototype.maps.MapCache;
+import com.danbramos.ringprototype.maps.TraversabilityMap;
 import com.danbramos.ringprototype.party.GameCharacter;
 import com.danbramos.ringprototype.quests.QuestManager;
 import com.danbramos.ringprototype.resources.ResourceType; // Import ResourceType for rewards
@@ -35,18 +35,26 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
-public class BattleScreen implements Screen {
+/**
+ * Runs a single battle. Instances are pooled by {@link ScreenRegistry}: the GPU-backed members
+ * (stage, highlight layer) live as long as the instance, while everything tied to one battle is
+ * rebuilt in {@link #show()} and dropped in {@link #reset()}.
+ */
+public class BattleScreen implements Screen, Pool.Poolable, RenderOnDemand {
     private final RingPrototypeGame game;
     private TiledMap map;
     private TiledMapRenderer mapRenderer;
     private OrthographicCamera camera;
     private Stage stage;
-    private ShapeRenderer shapeRenderer;
+    private TileHighlightLayer highlightLayer;
+    private int builtHighlightVersion = -1; // Input handler highlight version the layer was last built from
+    private final BattleHoverTracker hoverTracker = new BattleHoverTracker();
 
     private int tileWidth;
     private int tileHeight;
     private int mapWidthInTiles;
     private int mapHeightInTiles;
+    private TraversabilityMap traversability; // Owned by the MapCache entry
 
     private static final float VIEWPORT_WIDTH_IN_TILES = 20f;
     private static final float VIEWPORT_HEIGHT_IN_TILES = 15f;
@@ -56,11 +64,13 @@ public class BattleScreen implements Screen {
     private static final int PLAYER_SIDE_X_MAX = 5;
     private static final int ENEMY_SIDE_X_MIN = 10;
     private static final int ENEMY_SIDE_X_MAX = 14;
-    private static final int MIN_ENEMIES = 2;
-    private static final int MAX_ENEMIES = 3;
-    private static final String[] ENEMY_TYPES = {"orc_grunt", "goblin_archer", "warg"};
 
     private Random random = new Random();
+    private EncounterTable encounterTable; // Set by whoever starts the battle; null for the table for anywhere
+    // Free tiles on each side of the battle map, built once per map and reused by every battle on it
+    private SpawnZone playerSpawnZone;
+    private SpawnZone enemySpawnZone;
+    private final Vector2 spawnPosition = new Vector2();
 
     // Turn Management
     private boolean battleEnded = false; // Flag to prevent multiple end-game logic calls
@@ -98,35 +108,52 @@ public class BattleScreen implements Screen {
         return uiManager;
     }
 
+    public PerformanceOverlay getPerformanceOverlay() {
+        return game.perf;
+    }
+
+    /**
+     * Chooses what the next battle on this screen is fought against; call before the screen is shown
+     * @param encounterTable The table for the place the battle starts at, see {@link EncounterData#getTable}
+     */
+    public void setEncounterTable(EncounterTable encounterTable) {
+        this.encounterTable = encounterTable;
+    }
+
     @Override
     public void show() {
         Gdx.app.log("BattleScreen", "Showing BattleScreen.");
         battleEnded = false; // Reset battle end flag
         turnManager = new TurnManager(); // Instantiate TurnManager
 
-        map = new TmxMapLoader().load("tilemaps/battle_map.tmx");
-        shapeRenderer = new ShapeRenderer();
-
-        if (map.getProperties().containsKey("tilewidth") && map.getProperties().containsKey("tileheight")) {
-            tileWidth = map.getProperties().get("tilewidth", Integer.class);
-            tileHeight = map.getProperties().get("tileheight", Integer.class);
-        } else if (map.getLayers().getCount() > 0 && map.getLayers().get(0) instanceof TiledMapTileLayer) {
-            TiledMapTileLayer firstLayer = (TiledMapTileLayer) map.getLayers().get(0);
-            tileWidth = (int) firstLayer.getTileWidth();
-            tileHeight = (int) firstLayer.getTileHeight();
-        } else {
-            tileWidth = 16; tileHeight = 16;
-            Gdx.app.error("BattleMapLoad", "Could not determine tile size, using default 16x16.");
+        MapCache.CachedMap cachedMap = game.mapCache.get(GameAssets.BATTLE_MAP.fileName);
+        map = cachedMap.getMap();
+
+        tileWidth = cachedMap.getTileWidth();
+        tileHeight = cachedMap.getTileHeight();
+        mapWidthInTiles = cachedMap.getWidthInTiles();
+        mapHeightInTiles = cachedMap.getHeightInTiles();
+        traversability = cachedMap.getTraversability();
+        if (playerSpawnZone == null || playerSpawnZone.getTraversability() != traversability) {
+            playerSpawnZone = new SpawnZone(traversability, PLAYER_SIDE_X_MIN, PLAYER_SIDE_X_MAX, 1, mapHeightInTiles - 2);
+            enemySpawnZone = new SpawnZone(traversability, ENEMY_SIDE_X_MIN, ENEMY_SIDE_X_MAX, 1, mapHeightInTiles - 2);
         }
-
-        mapWidthInTiles = map.getProperties().get("width", Integer.class);
-        mapHeightInTiles = map.getProperties().get("height", Integer.class);
+        if (highlightLayer == null) {
+            // Skill range and AoE preview can overlap, so allow two quads per tile
+            highlightLayer = new TileHighlightLayer(tileWidth, tileHeight, mapWidthInTiles * mapHeightInTiles * 2);
+        }
+        builtHighlightVersion = -1;
+        hoverTracker.reset();
         int mapPixelWidth = mapWidthInTiles * tileWidth;
         int mapPixelHeight = mapHeightInTiles * tileHeight;
 
-        mapRenderer = new OrthogonalTiledMapRenderer(map, 1f);
-        camera = new OrthographicCamera();
-        stage = new Stage(new ScreenViewport());
+        mapRenderer = cachedMap.getRenderer(1f); // Owned by the MapCache
+        if (camera == null) {
+            camera = new OrthographicCamera();
+        }
+        if (stage == null) {
+            stage = new Stage(new ScreenViewport());
+        }
 
         uiManager = new BattleUiManager(game, stage, this);
         inputHandler = new BattleInputHandler(this, camera, tileWidth, tileHeight, mapWidthInTiles, mapHeightInTiles);
@@ -145,51 +172,57 @@ public class BattleScreen implements Screen {
         generateRandomEncounter();
 
         // Initialize turn system using TurnManager
+        // The UI refreshes from turn, HP and mana events instead of polling every frame
+        turnManager.addTurnListener(uiManager);
         turnManager.initializeTurnOrder(game.partyManager.getMembers(), game.currentBattleEnemies);
+        for (IBattleActor actor : turnManager.getTurnOrder()) {
+            actor.setStatListener(uiManager);
+            actor.setMoveListener(hoverTracker);
+        }
         startTurnFor(turnManager.getCurrentActor()); // Start turn for the first actor
     }
 
     /**
-     * Generates a random battle encounter with 2-3 enemies
+     * Generates a random battle encounter from the encounter table
      * and positions all actors randomly on the battle map
      */
     private void generateRandomEncounter() {
         // Clear previous battle state
         game.currentBattleEnemies.clear();
+        playerSpawnZone.reset();
+        enemySpawnZone.reset();
 
-        // 1. Generate random enemy positions on the right side
-        int numEnemies = MIN_ENEMIES + random.nextInt(MAX_ENEMIES - MIN_ENEMIES + 1);
+        EncounterTable table = encounterTable != null ? encounterTable : EncounterData.getInstance().getTable(null, null);
+        Gdx.app.log("BattleScreen", "Rolling encounter from table '" + table.getId() + "'");
 
-        // Create a list of occupied positions to avoid overlap
-        List<Vector2> occupiedPositions = new ArrayList<>();
-
-        // 2. Generate random enemies
+        // 1. Generate random enemies on the right side
+        int numEnemies = table.rollEnemyCount(random);
         for (int i = 0; i < numEnemies; i++) {
-            generateRandomEnemy(occupiedPositions);
+            generateRandomEnemy(table);
         }
 
-        // 3. Randomly place player characters on the left side
-        randomlyPositionPartyMembers(occupiedPositions);
+        // 2. Randomly place player characters on the left side
+        randomlyPositionPartyMembers();
     }
 
     /**
      * Generates a random enemy and adds it to the battle
      */
-    private void generateRandomEnemy(List<Vector2> occupiedPositions) {
+    private void generateRandomEnemy(EncounterTable table) {
         if (game.characterSheet == null) {
             Gdx.app.error("BattleScreen", "Cannot create enemies, character sheet is null");
             return;
         }
 
         // Get random position on right side of map
-        Vector2 position = getRandomUnoccupiedPosition(
-            ENEMY_SIDE_X_MIN, ENEMY_SIDE_X_MAX,
-            1, mapHeightInTiles - 2,
-            occupiedPositions
-        );
+        if (!enemySpawnZone.take(random, spawnPosition)) {
+            Gdx.app.error("BattleScreen", "No free tile left on the enemy side, skipping enemy");
+            return;
+        }
+        Vector2 position = spawnPosition;
 
-        // Select a random enemy type from the enemy IDs array
-        String enemyId = ENEMY_TYPES[random.nextInt(ENEMY_TYPES.length)];
+        // Select an enemy type by weight from the encounter table
+        String enemyId = table.rollEnemy(random);
 
         // Create the enemy using the EnemyData system
         Enemy enemy = EnemyData.getInstance().createEnemy(enemyId, game.characterSheet, position.x, position.y);
@@ -253,7 +286,6 @@ public class BattleScreen implements Screen {
         }
 
         game.currentBattleEnemies.add(enemy);
-        occupiedPositions.add(position);
 
         Gdx.app.log("BattleScreen", enemy.getName() + " added at position " + position);
     }
@@ -261,51 +293,23 @@ public class BattleScreen implements Screen {
     /**
      * Randomly positions party members on the left side of the battlefield
      */
-    private void randomlyPositionPartyMembers(List<Vector2> occupiedPositions) {
-        // For each party member, find a random position on the left side
+    private void randomlyPositionPartyMembers() {
+        // For each party member, take a random free tile on the left side
         for (GameCharacter character : game.partyManager.getMembers()) {
             if (character != null) {
-                Vector2 position = getRandomUnoccupiedPosition(
-                    PLAYER_SIDE_X_MIN, PLAYER_SIDE_X_MAX,
-                    1, mapHeightInTiles - 2,
-                    occupiedPositions
-                );
+                if (!playerSpawnZone.take(random, spawnPosition)) {
+                    Gdx.app.error("BattleScreen", "No free tile left on the party side for " + character.getName());
+                    continue;
+                }
 
                 // Set the character's battle position to this random position
-                character.setBattleMapPosition(position.x, position.y);
-                occupiedPositions.add(position);
+                character.setBattleMapPosition(spawnPosition.x, spawnPosition.y);
 
-                Gdx.app.log("BattleScreen", character.getName() + " positioned at " + position);
+                Gdx.app.log("BattleScreen", character.getName() + " positioned at " + spawnPosition);
             }
         }
     }
 
-    /**
-     * Gets a random unoccupied position within the given bounds
-     */
-    private Vector2 getRandomUnoccupiedPosition(int xMin, int xMax, int yMin, int yMax, List<Vector2> occupiedPositions) {
-        Vector2 position;
-        boolean validPosition;
-
-        // Try to find an unoccupied position
-        do {
-            int x = xMin + random.nextInt(xMax - xMin + 1);
-            int y = yMin + random.nextInt(yMax - yMin + 1);
-            position = new Vector2(x, y);
-
-            // Check if this position is already occupied
-            validPosition = true;
-            for (Vector2 occupied : occupiedPositions) {
-                if (occupied.epsilonEquals(position)) {
-                    validPosition = false;
-                    break;
-                }
-            }
-        } while (!validPosition);
-
-        return position;
-    }
-
     private void startTurnFor(IBattleActor actor) {
         if (actor == null || battleEnded) return;
         inputHandler.resetState();
@@ -353,6 +357,14 @@ public class BattleScreen implements Screen {
         return tileX >= 0 && tileX < mapWidthInTiles && tileY >= 0 && tileY < mapHeightInTiles;
     }
 
+    /**
+     * Checks the battle map's traversability bitmap, built from its "Collision" layer and "blocked" tiles
+     * @return True if nobody can stand on the tile; tiles outside the map count as blocked
+     */
+    public boolean isTileBlocked(float tileX, float tileY) {
+        return traversability == null || traversability.isBlocked((int) tileX, (int) tileY);
+    }
+
     // Delegated to TurnManager
     public boolean isBattleOver() {
         return turnManager.isBattleOver() || battleEnded; // Also check local flag
@@ -390,15 +402,11 @@ public class BattleScreen implements Screen {
 
         if(playersWon) {
             Gdx.app.log("BattleScreen", "PLAYER VICTORY!");
-            uiManager.updateTurnInfo(null); // Clear turn info
-
             // Display victory message in the battle log
             uiManager.updateBattleLog("VICTORY! Your party is triumphant!");
 
-            // Update UI to show "Victory!"
-            if (uiManager != null) { // Check if uiManager is initialized
-                if (uiManager.turnInfoLabel != null) uiManager.turnInfoLabel.setText("VICTORY!");
-            }
+            // Clear turn info and show "Victory!"
+            uiManager.showBattleResult("VICTORY!");
 
             // Apply XP, loot, etc. to the *original* GameCharacters
             for(GameCharacter originalChar : game.partyManager.getMembers()){
@@ -441,7 +449,7 @@ public class BattleScreen implements Screen {
                 @Override
                 public void run() {
                     if (game != null) { // Ensure game still exists
-                        game.setScreen(new MapScreen(game));
+                        game.setScreen(game.screens.getMapScreen());
                     }
                 }
             }, 3); // 3 second delay
@@ -451,9 +459,7 @@ public class BattleScreen implements Screen {
             // Display defeat message in the battle log
             uiManager.updateBattleLog("DEFEAT! Your party has fallen in battle...");
 
-            if (uiManager != null) {
-                if (uiManager.turnInfoLabel != null) uiManager.turnInfoLabel.setText("GAME OVER!");
-            }
+            uiManager.showBattleResult("GAME OVER!");
             // Handle game over:
             // - Show a game over message prominently
             // - Disable all input except maybe a "Quit" or "Main Menu" button
@@ -534,11 +540,11 @@ public class BattleScreen implements Screen {
         if (battleEnded) return;
         // Mana cost check
         if (caster.getSourceCharacter().getManaPoints() < skill.getManaCost()) {
-            uiManager.updateBattleLog(caster.getName() + " does not have enough mana for " + skill.getName() + "!");
+            uiManager.getBattleLog().notEnoughMana(caster, skill.getName());
             inputHandler.setActionState(BattleInputHandler.ActionState.IDLE); // Reset state
             return;
         }
-        caster.getSourceCharacter().setManaPoints(caster.getSourceCharacter().getManaPoints() - skill.getManaCost());
+        caster.spendMana(skill.getManaCost());
 
 
         Gdx.app.log("BattleScreen", caster.getName() + " attempts " + skill.getName() + " on " + target.getName());
@@ -561,7 +567,7 @@ public class BattleScreen implements Screen {
 
         if (!target.isAlive()) {
             Gdx.app.log("BattleScreen", target.getName() + " has been defeated!");
-            uiManager.updateBattleLog(target.getName() + " has been defeated!");
+            uiManager.getBattleLog().defeated(target);
             if (target instanceof Enemy) {
                 String enemyType = target.getName().toLowerCase().replace(" ", "_");
                 QuestManager.getInstance().updateKillObjectives(enemyType);
@@ -578,11 +584,11 @@ public class BattleScreen implements Screen {
         }
         // Mana cost check
         if (caster.getSourceCharacter().getManaPoints() < skill.getManaCost()) {
-            uiManager.updateBattleLog(caster.getName() + " does not have enough mana for " + skill.getName() + "!");
+            uiManager.getBattleLog().notEnoughMana(caster, skill.getName());
             inputHandler.setActionState(BattleInputHandler.ActionState.IDLE); // Reset state
             return;
         }
-        caster.getSourceCharacter().setManaPoints(caster.getSourceCharacter().getManaPoints() - skill.getManaCost());
+        caster.spendMana(skill.getManaCost());
 
         Gdx.app.log("BattleScreen", caster.getName() + " attempts support skill: " + skill.getName());
 
@@ -618,11 +624,11 @@ public class BattleScreen implements Screen {
         if (battleEnded) return;
         // Mana cost check
         if (caster.getSourceCharacter().getManaPoints() < skill.getManaCost()) {
-            uiManager.updateBattleLog(caster.getName() + " does not have enough mana for " + skill.getName() + "!");
+            uiManager.getBattleLog().notEnoughMana(caster, skill.getName());
             inputHandler.setActionState(BattleInputHandler.ActionState.IDLE); // Reset state
             return;
         }
-        caster.getSourceCharacter().setManaPoints(caster.getSourceCharacter().getManaPoints() - skill.getManaCost());
+        caster.spendMana(skill.getManaCost());
 
         Gdx.app.log("BattleScreen", caster.getName() + " attempts " + skill.getName() + " centered at " + centerTile);
 
@@ -658,11 +664,19 @@ public class BattleScreen implements Screen {
     }
 
     private void renderHighlights() {
-        if (shapeRenderer == null || battleEnded) return;
-        Gdx.gl.glEnable(GL20.GL_BLEND);
-        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        if (highlightLayer == null || battleEnded) return;
+        if (inputHandler.getHighlightVersion() != builtHighlightVersion) {
+            rebuildHighlights();
+            builtHighlightVersion = inputHandler.getHighlightVersion();
+        }
+        highlightLayer.render(camera.combined);
+    }
+
+    /**
+     * Rebuilds the highlight mesh from the input handler's tile lists; only runs when they changed
+     */
+    private void rebuildHighlights() {
+        highlightLayer.begin();
 
         BattleInputHandler.ActionState currentState = inputHandler.getCurrentActionState();
         Skill currentSkill = inputHandler.getSelectedSkill(); // Keep this for AoE check
@@ -670,42 +684,31 @@ public class BattleScreen implements Screen {
 
         // Movement tiles (Normal Movement)
         if (currentState == BattleInputHandler.ActionState.IDLE || currentState == BattleInputHandler.ActionState.MOVING) {
-            shapeRenderer.setColor(0.3f, 0.5f, 1f, 0.3f); // Light blue
-            for (Vector2 tilePos : inputHandler.getMovementReachableTiles()) {
-                shapeRenderer.rect(tilePos.x * tileWidth, tilePos.y * tileHeight, tileWidth, tileHeight);
-            }
+            highlightLayer.addTiles(inputHandler.getMovementReachableTiles(), 0.3f, 0.5f, 1f, 0.3f); // Light blue
         }
 
         // Nimble Movement tiles
         if (currentState == BattleInputHandler.ActionState.TARGETING_NIMBLE_MOVEMENT) {
-            shapeRenderer.setColor(0.2f, 0.8f, 0.8f, 0.35f); // Teal for nimble movement
-            for (Vector2 tilePos : inputHandler.getNimbleMovementTiles()) {
-                shapeRenderer.rect(tilePos.x * tileWidth, tilePos.y * tileHeight, tileWidth, tileHeight);
-            }
+            highlightLayer.addTiles(inputHandler.getNimbleMovementTiles(), 0.2f, 0.8f, 0.8f, 0.35f); // Teal for nimble movement
         }
 
         // Skill Range tiles (for attacks, targeted support, AoE placement)
         if (currentState == BattleInputHandler.ActionState.TARGETING_SKILL_TILE || currentState == BattleInputHandler.ActionState.TARGETING_SKILL_ACTOR) {
-            shapeRenderer.setColor(0, 1f, 0, 0.25f); // Green
-            for (Vector2 tilePos : inputHandler.getSkillRangeTiles()) {
-                shapeRenderer.rect(tilePos.x * tileWidth, tilePos.y * tileHeight, tileWidth, tileHeight);
-            }
+            highlightLayer.addTiles(inputHandler.getSkillRangeTiles(), 0, 1f, 0, 0.25f); // Green
         }
 
         // Skill AoE tiles (preview/confirmation)
         if (currentState == BattleInputHandler.ActionState.TARGETING_SKILL_AOE_CONFIRM ||
             (currentState == BattleInputHandler.ActionState.TARGETING_SKILL_TILE && currentSkill != null && currentSkill.getAoeRadius() > 0 && currentAoeCenter != null)) {
-            shapeRenderer.setColor(1f, 0.5f, 0f, 0.35f); // Orange
-            for (Vector2 tilePos : inputHandler.getSkillAoeTiles()) {
-                shapeRenderer.rect(tilePos.x * tileWidth, tilePos.y * tileHeight, tileWidth, tileHeight);
-            }
+            highlightLayer.addTiles(inputHandler.getSkillAoeTiles(), 1f, 0.5f, 0f, 0.35f); // Orange
         }
-        shapeRenderer.end();
-        Gdx.gl.glDisable(GL20.GL_BLEND);
+        highlightLayer.end();
     }
 
     @Override
     public void render(float delta) {
+        PerformanceOverlay perf = game.perf;
+        perf.render.start();
         ScreenUtils.clear(0.1f, 0.1f, 0.15f, 1f);
         camera.update();
         mapRenderer.setView(camera);
@@ -792,13 +795,19 @@ public class BattleScreen implements Screen {
         
         game.batch.setColor(Color.WHITE); // Reset color
         game.batch.end();
+        perf.render.stop();
 
+        // Apply this frame's UI changes in one pass, however many events arrived
+        perf.ui.start();
+        uiManager.refreshIfDirty();
         stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f));
         stage.draw();
+        perf.ui.stop();
 
         // Enemy AI Turn - Check using TurnManager's current actor
         currentActor = turnManager.getCurrentActor(); // Re-get in case it changed during player actions
         if (!battleEnded && currentActor instanceof Enemy && !currentActor.hasPerformedMajorAction()) {
+            perf.ai.start();
             Enemy enemy = (Enemy) currentActor;
             enemy.performSimpleAI(turnManager.getTurnOrder(), this);
             // Check for battle end immediately after AI action, before advancing turn via main logic
@@ -808,11 +817,16 @@ public class BattleScreen implements Screen {
                 // Advance turn only if the battle didn't end during the AI's action
                 advanceTurn();
             }
+            perf.ai.stop();
+            // The UI changes made by the AI turn are only applied next frame, so make sure there is one
+            Gdx.graphics.requestRendering();
         }
         
         // Handle hover detection for character info popups
         if (!battleEnded) {
+            perf.input.start();
             handleHoverDetection();
+            perf.input.stop();
         }
     }
     
@@ -888,14 +902,11 @@ public class BattleScreen implements Screen {
             }
             
             pixmap.fillCircle(8, 8, 6);
-            Texture iconTexture = new Texture(pixmap);
-            pixmap.dispose();
             
-            // Create a new region
-            region = new TextureRegion(iconTexture);
-            
-            // Store for reuse
-            game.addDynamicTexture(key, region);
+            // Pack into the shared icon atlas for reuse
+            game.addDynamicTexture(key, pixmap);
+            pixmap.dispose();
+            region = game.getDynamicTexture(key);
         }
         
         return region;
@@ -905,25 +916,13 @@ public class BattleScreen implements Screen {
      * Handles detection of mouse hover over characters/enemies
      */
     private void handleHoverDetection() {
-        // Get mouse position
-        int screenX = Gdx.input.getX();
-        int screenY = Gdx.input.getY();
-        
-        // Convert to world coordinates
-        Vector3 worldCoords = camera.unproject(new Vector3(screenX, screenY, 0));
-        int tileX = (int)(worldCoords.x / tileWidth);
-        int tileY = (int)(worldCoords.y / tileHeight);
-        
-        // Check if hovering over an actor
-        IBattleActor hoveredActor = getActorAtTile(tileX, tileY);
-        
-        if (hoveredActor != null && hoveredActor.isAlive()) {
-            // Show character info popup
-            uiManager.showCharacterInfoPopup(hoveredActor, worldCoords.x, worldCoords.y);
-        } else {
-            // Hide popup if not hovering over a character
-            uiManager.hideCharacterInfoPopup();
-        }
+        hoverTracker.update(camera, this, uiManager);
+    }
+
+    @Override
+    public boolean isAnimating() {
+        // Keep frames coming while enemies take their turns; player turns only change on input
+        return !battleEnded && turnManager != null && turnManager.getCurrentActor() instanceof Enemy;
     }
 
     @Override
@@ -950,13 +949,27 @@ public class BattleScreen implements Screen {
         Timer.instance().clear();
     }
 
+    /**
+     * Drops the state of the finished battle so the pooled instance can host the next one
+     */
+    @Override
+    public void reset() {
+        battleEnded = false;
+        turnManager = null;
+        uiManager = null;
+        inputHandler = null;
+        inputMultiplexer = null;
+        if (stage != null) stage.clear();
+        game.currentBattleEnemies.clear();
+        encounterTable = null;
+    }
+
     @Override
     public void dispose() {
         Gdx.app.log("BattleScreen", "Disposing BattleScreen.");
-        if (map != null) map.dispose();
-        if (mapRenderer instanceof OrthogonalTiledMapRenderer) ((OrthogonalTiledMapRenderer) mapRenderer).dispose();
+        // The map and its renderer belong to the MapCache and are shared with later instances of this screen
         if (stage != null) stage.dispose();
-        if (shapeRenderer != null) shapeRenderer.dispose();
+        if (highlightLayer != null) highlightLayer.dispose();
         Timer.instance().clear(); // Clear any pending timers
     }
 
@@ -1028,14 +1041,10 @@ public class BattleScreen implements Screen {
             pixmap.fillTriangle(8, 2, 2, 10, 14, 10);
             pixmap.fillRectangle(6, 8, 4, 6);
             
-            Texture iconTexture = new Texture(pixmap);
+            // Pack into the shared icon atlas for reuse
+            game.addDynamicTexture(key, pixmap);
             pixmap.dispose();
-            
-            // Create a new region
-            region = new TextureRegion(iconTexture);
-            
-            // Store for reuse
-            game.addDynamicTexture(key, region);
+            region = game.getDynamicTexture(key);
         }
         
         return region;
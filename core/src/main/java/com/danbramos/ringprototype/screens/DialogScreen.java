@@ -302,7 +302,7 @@ public class DialogScreen implements Screen {
      * Return to the map screen
      */
     private void returnToMap() {
-        game.setScreen(new MapScreen(game));
+        game.setScreen(game.screens.getMapScreen());
     }
 
     @Override
@@ -0,0 +1,94 @@
+package com.danbramos.ringprototype.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.danbramos.ringprototype.RingPrototypeGame;
+
+/**
+ * Drives the game's AssetManager a few milliseconds per frame and draws a progress bar.
+ * The skin isn't available until loading finishes, so the bar is drawn with a ShapeRenderer.
+ * Once everything is loaded it hands control back to {@link RingPrototypeGame#onAssetsLoaded()}.
+ */
+public class LoadingScreen implements Screen {
+    // Time given to the AssetManager each frame; the rest of the frame keeps the window responsive
+    private static final int UPDATE_BUDGET_MILLIS = 12;
+    private static final float BAR_WIDTH_FRACTION = 0.6f;
+    private static final float BAR_HEIGHT = 16f;
+
+    private final RingPrototypeGame game;
+    private final AssetManager assetManager;
+    private OrthographicCamera camera;
+    private ShapeRenderer shapeRenderer;
+    private boolean finished;
+
+    public LoadingScreen(RingPrototypeGame game) {
+        this.game = game;
+        this.assetManager = game.assetManager;
+    }
+
+    @Override
+    public void show() {
+        Gdx.app.log("LoadingScreen", "Loading " + assetManager.getQueuedAssets() + " assets.");
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        shapeRenderer = new ShapeRenderer();
+        finished = false;
+    }
+
+    @Override
+    public void render(float delta) {
+        if (finished) return;
+
+        boolean done = assetManager.update(UPDATE_BUDGET_MILLIS);
+
+        ScreenUtils.clear(0, 0, 0, 1);
+        float barWidth = camera.viewportWidth * BAR_WIDTH_FRACTION;
+        float x = (camera.viewportWidth - barWidth) / 2f;
+        float y = (camera.viewportHeight - BAR_HEIGHT) / 2f;
+        shapeRenderer.setProjectionMatrix(camera.combined);
+        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        shapeRenderer.setColor(0.2f, 0.2f, 0.2f, 1f);
+        shapeRenderer.rect(x, y, barWidth, BAR_HEIGHT);
+        shapeRenderer.setColor(0.85f, 0.7f, 0.3f, 1f);
+        shapeRenderer.rect(x, y, barWidth * assetManager.getProgress(), BAR_HEIGHT);
+        shapeRenderer.end();
+
+        if (done) {
+            finished = true;
+            Gdx.app.log("LoadingScreen", "All assets loaded.");
+            game.onAssetsLoaded(); // Switches away from this screen
+        }
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        if (camera != null) {
+            camera.setToOrtho(false, width, height);
+        }
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        if (shapeRenderer != null) {
+            shapeRenderer.dispose();
+            shapeRenderer = null;
+        }
+    }
+}
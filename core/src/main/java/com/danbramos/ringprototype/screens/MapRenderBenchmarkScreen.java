@@ -0,0 +1,177 @@
+package com.danbramos.ringprototype.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ScreenUtils;
+import com.danbramos.ringprototype.RingPrototypeGame;
+import com.danbramos.ringprototype.assets.GameAssets;
+import com.danbramos.ringprototype.maps.CachedTileMapRenderer;
+
+/**
+ * Draws each game map with OrthogonalTiledMapRenderer and with {@link CachedTileMapRenderer}
+ * for a fixed number of frames while the camera pans, then logs draw calls, vertices and
+ * the CPU time spent in render() per frame for each combination, and exits.
+ * Started with -Dringprototype.mapRenderBenchmark=true (see the mapRenderBenchmark Gradle task).
+ * <p>
+ * Only the map is drawn, so the numbers isolate the tile renderer. Frame time is bounded by vsync,
+ * so the CPU time around render() is the number to compare. The maps are loaded from their .tmx files even
+ * when the MapCache would serve them from a region file, since both renderers need a TiledMap.
+ */
+public class MapRenderBenchmarkScreen implements Screen {
+    public static final String BENCHMARK_PROPERTY = "ringprototype.mapRenderBenchmark";
+
+    private static final int WARMUP_FRAMES = 60;
+    private static final int MEASURED_FRAMES = 600;
+    private static final float VIEWPORT_WIDTH_IN_TILES = 30f;
+    private static final float VIEWPORT_HEIGHT_IN_TILES = 20f;
+    private static final String[] MAP_PATHS = {
+        GameAssets.OVERWORLD_MAP.fileName,
+        GameAssets.BATTLE_MAP.fileName
+    };
+
+    private final RingPrototypeGame game;
+    private final Array<Run> runs;
+    private final Array<String> loadedMaps = new Array<>(); // Paths this screen holds a reference to
+    private OrthographicCamera camera;
+    private GLProfiler profiler;
+    private int runIndex;
+    private int frame;
+
+    /**
+     * One map drawn by one renderer, with its accumulated measurements
+     */
+    private static class Run {
+        final String label;
+        final TiledMapRenderer renderer;
+        final float mapWidth;
+        final float mapHeight;
+        long renderNanos;
+        long drawCalls;
+        long textureBindings;
+        long vertices;
+
+        Run(String label, TiledMapRenderer renderer, float mapWidth, float mapHeight) {
+            this.label = label;
+            this.renderer = renderer;
+            this.mapWidth = mapWidth;
+            this.mapHeight = mapHeight;
+        }
+    }
+
+    public MapRenderBenchmarkScreen(RingPrototypeGame game) {
+        this.game = game;
+        this.runs = new Array<>();
+    }
+
+    @Override
+    public void show() {
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, VIEWPORT_WIDTH_IN_TILES, VIEWPORT_HEIGHT_IN_TILES);
+        profiler = new GLProfiler(Gdx.graphics);
+        profiler.enable();
+
+        for (String path : MAP_PATHS) {
+            // Takes its own reference, released in dispose()
+            game.assetManager.load(path, TiledMap.class);
+            game.assetManager.finishLoadingAsset(path);
+            loadedMaps.add(path);
+            TiledMap map = game.assetManager.get(path, TiledMap.class);
+            MapProperties properties = map.getProperties();
+            float unitScale = 1f / properties.get("tilewidth", 16, Integer.class);
+            int width = properties.get("width", Integer.class);
+            int height = properties.get("height", Integer.class);
+            // Fresh renderers, so the cached one builds its SpriteCache during warm-up like it would in game
+            runs.add(new Run(path + " orthogonal", new OrthogonalTiledMapRenderer(map, unitScale), width, height));
+            runs.add(new Run(path + " cached", new CachedTileMapRenderer(map, unitScale), width, height));
+        }
+        Gdx.app.log("MapRenderBenchmark", "Running " + runs.size + " runs of " + MEASURED_FRAMES + " frames.");
+    }
+
+    @Override
+    public void render(float delta) {
+        if (runIndex >= runs.size) return;
+        Run run = runs.get(runIndex);
+
+        // Pan slowly around the map centre so the view bounds change every frame
+        float angle = frame * 0.02f;
+        camera.position.set(run.mapWidth / 2f + MathUtils.cos(angle) * 3f, run.mapHeight / 2f + MathUtils.sin(angle) * 3f, 0);
+        camera.update();
+
+        ScreenUtils.clear(0f, 0f, 0f, 1f);
+        profiler.reset();
+        long start = System.nanoTime();
+        run.renderer.setView(camera);
+        run.renderer.render();
+        long elapsed = System.nanoTime() - start;
+
+        if (frame >= WARMUP_FRAMES) {
+            run.renderNanos += elapsed;
+            run.drawCalls += profiler.getDrawCalls();
+            run.textureBindings += profiler.getTextureBindings();
+            run.vertices += (long) profiler.getVertexCount().total;
+        }
+
+        frame++;
+        if (frame >= WARMUP_FRAMES + MEASURED_FRAMES) {
+            frame = 0;
+            runIndex++;
+            if (runIndex >= runs.size) {
+                logResults();
+                Gdx.app.exit();
+            }
+        }
+    }
+
+    private void logResults() {
+        StringBuilder sb = new StringBuilder("Map render benchmark (per frame, averaged over ")
+            .append(MEASURED_FRAMES).append(" frames):\n");
+        sb.append(String.format("  %-40s %12s %10s %10s %10s%n", "Run", "render (us)", "draws", "binds", "vertices"));
+        for (Run run : runs) {
+            sb.append(String.format("  %-40s %12.1f %10.1f %10.1f %10.0f%n",
+                run.label,
+                run.renderNanos / 1000.0 / MEASURED_FRAMES,
+                run.drawCalls / (double) MEASURED_FRAMES,
+                run.textureBindings / (double) MEASURED_FRAMES,
+                run.vertices / (double) MEASURED_FRAMES));
+        }
+        Gdx.app.log("MapRenderBenchmark", sb.toString());
+    }
+
+    @Override
+    public void resize(int width, int height) {
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void hide() {
+        if (profiler != null) profiler.disable();
+    }
+
+    @Override
+    public void dispose() {
+        for (Run run : runs) {
+            if (run.renderer instanceof Disposable) ((Disposable) run.renderer).dispose();
+        }
+        runs.clear();
+        for (String path : loadedMaps) {
+            game.assetManager.unload(path);
+        }
+        loadedMaps.clear();
+    }
+}
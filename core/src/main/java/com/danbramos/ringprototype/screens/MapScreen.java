@@ -6,33 +6,67 @@ import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.maps.tiled.TiledMap;
-import com.badlogic.gdx.maps.tiled.TiledMapRenderer;
-import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.maps.tiled.TmxMapLoader;
-import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.ui.Label;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.utils.Align;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.danbramos.ringprototype.RingPrototypeGame;
+import com.danbramos.ringprototype.assets.GameAssets;
+import com.danbramos.ringprototype.battle.EncounterData;
+import com.danbramos.ringprototype.debug.PerformanceOverlay;
 import com.danbramos.ringprototype.input.MapInputHandler;
+import com.danbramos.ringprototype.maps.ChunkMeshRenderer;
+import com.danbramos.ringprototype.maps.ChunkSource;
+import com.danbramos.ringprototype.maps.ChunkStreamer;
+import com.danbramos.ringprototype.maps.ChunkTileset;
+import com.danbramos.ringprototype.maps.FogOfWar;
+import com.danbramos.ringprototype.maps.MapCache;
+import com.danbramos.ringprototype.maps.MapInteraction;
+import com.danbramos.ringprototype.maps.MapInteractionIndex;
+import com.danbramos.ringprototype.maps.RegionFile;
+import com.danbramos.ringprototype.maps.TiledMapChunkSource;
+import com.danbramos.ringprototype.maps.TraversabilityMap;
+import com.danbramos.ringprototype.navigation.HierarchicalRouteCalculator;
+import com.danbramos.ringprototype.navigation.RouteCalculator;
 import com.danbramos.ringprototype.quests.Quest;
 import com.danbramos.ringprototype.quests.QuestManager;
+import com.danbramos.ringprototype.resources.ResourceChangeListener;
 import com.danbramos.ringprototype.resources.ResourceType;
+import com.danbramos.ringprototype.world.WorldActivity;
+import com.danbramos.ringprototype.world.WorldEvent;
+import com.danbramos.ringprototype.world.WorldEventListener;
+import com.danbramos.ringprototype.world.WorldSimulation;
 
 import java.util.EnumMap;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.EnumSet;
+
+public class MapScreen implements Screen, RenderOnDemand {
+    // Time the party takes per tile when travelling along a clicked route
+    private static final float TRAVEL_STEP_SECONDS = 0.12f;
+    // Chunks kept around the party's chunk, and extra chunks streamed ahead in the direction of travel
+    private static final int CHUNK_LOAD_RADIUS = 1;
+    private static final int CHUNK_PREFETCH_DISTANCE = 1;
+    // How far the party sees on the overworld, in tiles
+    private static final int VISION_RADIUS = 6;
+    /** How long making camp lasts unless something interrupts it */
+    public static final int CAMP_DAYS = 3;
 
-public class MapScreen implements Screen {
     private final RingPrototypeGame game;
-    private TiledMap map;
-    private TiledMapRenderer mapRenderer;
+    private MapCache.CachedMap cachedMap;
+    // The map's tiles, streamed in chunks around the party and drawn from per-chunk meshes
+    private ChunkStreamer chunkStreamer;
+    private ChunkMeshRenderer chunkRenderer;
+    private MapCache.CachedMap streamedMap;
+    // What the party sees and has seen; kept across shows so exploration isn't lost
+    private FogOfWar fog;
     private OrthographicCamera camera;
     private MapInputHandler inputHandler;
 
@@ -46,62 +80,84 @@ public class MapScreen implements Screen {
     private Skin skin;
     private Table resourceTable;
     private EnumMap<ResourceType, Label> resourceLabels;
+    // Resources whose labels are stale; filled by change events and drained once per frame
+    private final EnumSet<ResourceType> dirtyResources;
+    private final ResourceChangeListener resourceListener;
     
-    // Quest giver management
-    private Map<String, Vector2> questGiverPositions;
-    private Map<String, TextureRegion> questGiverSprites;
-
+    // Quest givers and other things the party can walk into, indexed by tile
+    private MapInteractionIndex interactions;
+    private final Array<MapInteraction> visibleInteractions = new Array<>();
+
+    // Click-to-travel: waypoints from the hierarchical planner, refined into tiles one segment at a time
+    private HierarchicalRouteCalculator router;
+    private final IntArray waypoints = new IntArray();
+    private int waypointIndex;
+    private final IntArray route = new IntArray(); // Packed tiles of the current segment
+    private int routeStep;
+    private float routeTimer;
+    private final Vector3 clickPoint = new Vector3();
+
+    // Set by the world listener while the clock advances, acted on once the advance is over
+    private final WorldEventListener worldListener;
+    private boolean ambushed;
 
     public MapScreen(RingPrototypeGame game) {
         this.game = game;
         this.skin = game.skin; // Get skin from the main game class
-        this.questGiverPositions = new HashMap<>();
-        this.questGiverSprites = new HashMap<>();
+        this.dirtyResources = EnumSet.noneOf(ResourceType.class);
+        this.resourceListener = new ResourceChangeListener() {
+            @Override
+            public void onResourceChanged(ResourceType type, int oldAmount, int newAmount) {
+                dirtyResources.add(type);
+            }
+        };
+        this.worldListener = new WorldEventListener() {
+            @Override
+            public void onWorldEvent(WorldEvent event, long tick) {
+                if (event == WorldEvent.AMBUSH) ambushed = true;
+            }
+        };
     }
 
     @Override
     public void show() {
         Gdx.app.log("MapScreen", "Showing MapScreen.");
-        map = new TmxMapLoader().load("tilemaps/overworld.tmx"); // Ensure this is your map file
-
-        if (map.getProperties().containsKey("tilewidth") && map.getProperties().containsKey("tileheight")) {
-            tileWidth = map.getProperties().get("tilewidth", Integer.class);
-            tileHeight = map.getProperties().get("tileheight", Integer.class);
-        } else if (map.getLayers().getCount() > 0 && map.getLayers().get(0) instanceof TiledMapTileLayer) {
-            TiledMapTileLayer firstLayer = (TiledMapTileLayer) map.getLayers().get(0);
-            tileWidth = (int) firstLayer.getTileWidth();
-            tileHeight = (int) firstLayer.getTileHeight();
-        } else {
-            tileWidth = 16; // Default if not found
-            tileHeight = 16;
-            Gdx.app.error("MapScreen", "Could not determine tile size from map, using default 16x16.");
+        // Fetched on every show(): the cache may have evicted the entry while another screen was active
+        loadOverworld();
+
+        // This screen is long-lived (see ScreenRegistry): the camera, input handler and UI are built once
+        // and kept across battles and dialogs, so the camera also stays where the player left it
+        if (camera == null) {
+            camera = new OrthographicCamera();
+            // Set camera to view a certain number of tiles
+            float viewportWidthInTiles = 30f;
+            float viewportHeightInTiles = 20f;
+            camera.setToOrtho(false, viewportWidthInTiles, viewportHeightInTiles);
+            camera.position.set(viewportWidthInTiles / 2f, viewportHeightInTiles / 2f, 0); // Center camera
+            camera.update();
         }
 
-        // Initialize instance fields
-        this.mapWidthInTiles = map.getProperties().get("width", Integer.class);
-        this.mapHeightInTiles = map.getProperties().get("height", Integer.class);
-        Gdx.app.log("MapScreen", "MapScreen initialized. Map dimensions: " + this.mapWidthInTiles + "x" + this.mapHeightInTiles + " tiles.");
-
-
-        mapRenderer = new OrthogonalTiledMapRenderer(map, 1f / tileWidth); // Adjust unit scale if needed
-        camera = new OrthographicCamera();
-        // Set camera to view a certain number of tiles
-        float viewportWidthInTiles = 30f;
-        float viewportHeightInTiles = 20f;
-        camera.setToOrtho(false, viewportWidthInTiles, viewportHeightInTiles);
-        camera.position.set(viewportWidthInTiles / 2f, viewportHeightInTiles / 2f, 0); // Center camera
-        camera.update();
-
-        inputHandler = new MapInputHandler(this, game); // 'this' refers to the MapScreen instance
-
+        if (inputHandler == null) {
+            inputHandler = new MapInputHandler(this, game); // 'this' refers to the MapScreen instance
+        }
         Gdx.input.setInputProcessor(inputHandler);
 
         // Initialize UI Stage and Resource Display
-        uiStage = new Stage(new ScreenViewport());
-        resourceLabels = new EnumMap<>(ResourceType.class);
-        setupResourceUI();
+        if (uiStage == null) {
+            uiStage = new Stage(new ScreenViewport());
+            resourceLabels = new EnumMap<>(ResourceType.class);
+            setupResourceUI();
+        }
+        // Resources may have changed while this screen was hidden and not listening
+        if (game.resourceManager != null) {
+            game.resourceManager.addListener(resourceListener);
+        }
+        if (game.world != null) {
+            game.world.addListener(worldListener);
+        }
+        dirtyResources.addAll(EnumSet.allOf(ResourceType.class));
         
-        // Initialize quest givers
+        // Refresh quest givers, their quests may have changed while another screen was active
         loadQuestGivers();
 
         // Add uiStage to the input processor if it has interactive elements,
@@ -112,20 +168,97 @@ public class MapScreen implements Screen {
     }
     
     /**
-     * Load quest givers from the QuestManager
+     * Fetches the overworld from the MapCache and points the chunk streaming, router and fog at it
+     */
+    private void loadOverworld() {
+        cachedMap = game.mapCache.get(GameAssets.OVERWORLD_MAP.fileName);
+        tileWidth = cachedMap.getTileWidth();
+        tileHeight = cachedMap.getTileHeight();
+
+        // Initialize instance fields
+        this.mapWidthInTiles = cachedMap.getWidthInTiles();
+        this.mapHeightInTiles = cachedMap.getHeightInTiles();
+        Gdx.app.log("MapScreen", "MapScreen initialized. Map dimensions: " + this.mapWidthInTiles + "x" + this.mapHeightInTiles + " tiles.");
+
+
+        // Rebuilt only if the cache reloaded the map
+        if (chunkStreamer == null || streamedMap != cachedMap) {
+            createChunkStreaming();
+        }
+
+        // Search buffers are kept across shows; the abstract graph is rebuilt for the (possibly reloaded) map
+        if (router == null) {
+            router = new HierarchicalRouteCalculator(cachedMap);
+        } else if (router.getMap() != cachedMap) {
+            router.setMap(cachedMap);
+        }
+        router.prepare();
+        cancelTravel();
+
+        // A reloaded map keeps the explored state unless its size changed
+        TraversabilityMap sightBlockers = cachedMap.getSightBlockers();
+        if (fog != null && (fog.getOpaque().getWidth() != sightBlockers.getWidth()
+            || fog.getOpaque().getHeight() != sightBlockers.getHeight())) {
+            fog.dispose();
+            fog = null;
+        }
+        if (fog == null) {
+            fog = new FogOfWar(sightBlockers, VISION_RADIUS);
+        } else if (fog.getOpaque() != sightBlockers) {
+            fog.setOpaque(sightBlockers);
+        }
+    }
+
+    /**
+     * Replaces the chunk streamer and renderer with ones for the current map. Tiles are streamed from the
+     * map's region file when the MapCache serves it from one (see RegionFileWriter), otherwise cut from the
+     * TiledMap.
+     */
+    private void createChunkStreaming() {
+        disposeChunkStreaming();
+        // Neither source is disposed with the streamer: the region file belongs to the MapCache entry,
+        // and a TiledMapChunkSource only reads the entry's map
+        ChunkSource source;
+        ChunkTileset tileset;
+        RegionFile regionFile = cachedMap.getRegionFile();
+        if (regionFile != null) {
+            source = regionFile;
+            tileset = regionFile.getTileset();
+        } else {
+            source = new TiledMapChunkSource(cachedMap.getMap());
+            tileset = ChunkTileset.fromTiledMap(cachedMap.getMap());
+        }
+        chunkStreamer = new ChunkStreamer(source, CHUNK_LOAD_RADIUS, CHUNK_PREFETCH_DISTANCE);
+        chunkRenderer = tileset != null ? new ChunkMeshRenderer(chunkStreamer, tileset) : null;
+        streamedMap = cachedMap;
+        Gdx.app.log("MapScreen", "Streaming " + chunkStreamer.getWidthInChunks() + "x" + chunkStreamer.getHeightInChunks()
+            + " chunks, at most " + chunkStreamer.getCapacity() + " in memory.");
+    }
+
+    private void disposeChunkStreaming() {
+        if (chunkRenderer != null) chunkRenderer.dispose();
+        if (chunkStreamer != null) chunkStreamer.dispose();
+        chunkRenderer = null;
+        chunkStreamer = null;
+        streamedMap = null;
+    }
+
+    /**
+     * Registers the quest givers from the QuestManager in the interaction index
      */
     private void loadQuestGivers() {
-        questGiverPositions = QuestManager.getInstance().getQuestGiverPositions();
-        
-        // Create sprites for each quest giver
-        for (String questId : questGiverPositions.keySet()) {
-            Quest quest = QuestManager.getInstance().getQuest(questId);
-            if (quest != null) {
-                TextureRegion sprite = QuestManager.getInstance().createQuestGiverSprite(quest, game.characterSheet);
-                if (sprite != null) {
-                    questGiverSprites.put(questId, sprite);
-                    Gdx.app.log("MapScreen", "Loaded quest giver sprite for: " + quest.getTitle());
-                }
+        if (interactions == null || interactions.getWidthInTiles() != mapWidthInTiles
+            || interactions.getHeightInTiles() != mapHeightInTiles) {
+            interactions = new MapInteractionIndex(mapWidthInTiles, mapHeightInTiles);
+        } else {
+            interactions.clear();
+        }
+
+        for (Quest quest : QuestManager.getInstance().getAllQuests()) {
+            if (quest.getGiverMapPosition() == null) continue;
+            TextureRegion sprite = QuestManager.getInstance().createQuestGiverSprite(quest, game.characterSheet);
+            if (interactions.add(MapInteraction.questGiver(quest, sprite)) && sprite != null) {
+                Gdx.app.log("MapScreen", "Loaded quest giver sprite for: " + quest.getTitle());
             }
         }
     }
@@ -147,27 +280,22 @@ public class MapScreen implements Screen {
 
         // Basic boundary check using instance fields
         if (newX >= 0 && newX < this.mapWidthInTiles && newY >= 0 && newY < this.mapHeightInTiles) {
-            // Check if the position contains a quest giver
-            String questGiverId = getQuestGiverAtPosition(newX, newY);
-            if (questGiverId != null) {
-                // Interact with quest giver instead of moving
-                interactWithQuestGiver(questGiverId);
+            // Walking into an interaction (e.g. a quest giver) triggers it instead of moving
+            MapInteraction interaction = interactions.get((int) newX, (int) newY);
+            if (interaction != null) {
+                interact(interaction);
                 return;
             }
             
-            // TODO: Add more sophisticated collision/traversability check here
-            // For example, check a property of the TiledMapTileLayer:
-            // TiledMapTileLayer collisionLayer = (TiledMapTileLayer) map.getLayers().get("CollisionLayerName");
-            // if (collisionLayer != null) {
-            //     Cell cell = collisionLayer.getCell((int)newX, (int)newY);
-            //     if (cell != null && cell.getTile() != null && cell.getTile().getProperties().containsKey("blocked")) {
-            //         Gdx.app.log("MapScreen", "Move blocked by collision layer at " + newX + "," + newY);
-            //         return; // Do not move
-            //     }
-            // }
+            // Passability is precomputed by the MapCache from "blocked" tile properties and a "Collision" layer
+            if (!cachedMap.isPassable((int) newX, (int) newY)) {
+                Gdx.app.log("MapScreen", "Move blocked at " + newX + "," + newY);
+                return; // Do not move
+            }
 
             game.partyManager.setMapPosition(newX, newY);
             Gdx.app.log("MapScreen", "Character moved to: " + newX + ", " + newY);
+            advanceWorld(WorldSimulation.TICKS_PER_TRAVEL_STEP, WorldActivity.TRAVEL);
 
             // Optional: Camera follow logic
             // If the character moves, you might want the camera to follow.
@@ -182,29 +310,166 @@ public class MapScreen implements Screen {
     }
     
     /**
-     * Check if there's a quest giver at the given position
-     * @param x The x coordinate
-     * @param y The y coordinate
-     * @return The quest ID if there's a quest giver, null otherwise
+     * Plans a route to the tile under a screen position and starts travelling along it
+     * @param screenX Screen x, e.g. from a click
+     * @param screenY Screen y
+     * @return True if a route was found
+     */
+    public boolean travelToScreenPoint(int screenX, int screenY) {
+        clickPoint.set(screenX, screenY, 0);
+        camera.unproject(clickPoint);
+        return travelTo(MathUtils.floor(clickPoint.x), MathUtils.floor(clickPoint.y));
+    }
+
+    /**
+     * Plans a route from the party to a tile and starts travelling along it, one tile per step.
+     * Only the waypoints are planned up front; the tiles between two waypoints are worked out when the
+     * party reaches the first of them. Each step goes through {@link #attemptCharacterMove(int, int)}, so
+     * quest givers on the way are met the same way as when walking by hand.
+     * @param tileX Destination tile x
+     * @param tileY Destination tile y
+     * @return True if a route was found
+     */
+    public boolean travelTo(int tileX, int tileY) {
+        cancelTravel();
+        Vector2 partyPosition = game.partyManager != null ? game.partyManager.getMapPosition() : null;
+        if (partyPosition == null || router == null) return false;
+
+        long start = System.nanoTime();
+        boolean found = router.findWaypoints((int) partyPosition.x, (int) partyPosition.y, tileX, tileY, waypoints);
+        Gdx.app.debug("MapScreen", "Route to " + tileX + "," + tileY + ": "
+            + (found ? waypoints.size + " waypoints" : "none") + " in " + (System.nanoTime() - start) / 1000 + " us.");
+        if (!found) {
+            Gdx.app.log("MapScreen", "No route to " + tileX + "," + tileY);
+        }
+        return found;
+    }
+
+    /**
+     * Stops travelling along the current route, e.g. when the player moves by hand
      */
-    private String getQuestGiverAtPosition(float x, float y) {
-        for (Map.Entry<String, Vector2> entry : questGiverPositions.entrySet()) {
-            if (entry.getValue().epsilonEquals(x, y)) {
-                return entry.getKey();
+    public void cancelTravel() {
+        waypoints.clear();
+        waypointIndex = 0;
+        route.clear();
+        routeStep = 0;
+        routeTimer = 0;
+    }
+
+    public boolean isTravelling() {
+        return routeStep < route.size || waypointIndex < waypoints.size;
+    }
+
+    /**
+     * Refines the tiles from the party to the next waypoint
+     * @return False if the segment can't be walked any more, e.g. the terrain changed since planning
+     */
+    private boolean refineNextSegment() {
+        Vector2 position = game.partyManager.getMapPosition();
+        routeStep = 0;
+        while (waypointIndex < waypoints.size) {
+            int next = waypoints.get(waypointIndex++);
+            if (!router.refineSegment((int) position.x, (int) position.y,
+                RouteCalculator.unpackX(next), RouteCalculator.unpackY(next), route)) {
+                return false;
             }
+            if (route.size > 0) return true; // Otherwise the party already stands on that waypoint
         }
-        return null;
+        return false;
     }
-    
+
     /**
-     * Interact with a quest giver
-     * @param questId The ID of the quest given by this NPC
+     * Advances the party along its route at a fixed pace
      */
-    private void interactWithQuestGiver(String questId) {
-        Gdx.app.log("MapScreen", "Interacting with quest giver for quest: " + questId);
-        
-        // Open the dialog screen for this quest
-        game.setScreen(new DialogScreen(game, questId));
+    private void updateTravel(float delta) {
+        if (!isTravelling()) return;
+        // Clamped so the first frame after an idle stretch doesn't jump several tiles at once
+        routeTimer += Math.min(delta, TRAVEL_STEP_SECONDS);
+        while (routeTimer >= TRAVEL_STEP_SECONDS && isTravelling()) {
+            routeTimer -= TRAVEL_STEP_SECONDS;
+            if (routeStep >= route.size && !refineNextSegment()) {
+                // The terrain changed since planning; plan again to the same destination
+                int destination = waypoints.peek();
+                Gdx.app.log("MapScreen", "Route is blocked, planning a new one.");
+                if (!travelTo(RouteCalculator.unpackX(destination), RouteCalculator.unpackY(destination))) break;
+                continue;
+            }
+            int next = route.get(routeStep++);
+            int nextX = RouteCalculator.unpackX(next);
+            int nextY = RouteCalculator.unpackY(next);
+            Vector2 position = game.partyManager.getMapPosition();
+            attemptCharacterMove(nextX - (int) position.x, nextY - (int) position.y);
+            // Stop if the step didn't land (blocked, or a quest giver took over and may have changed screens)
+            position = game.partyManager.getMapPosition();
+            if ((int) position.x != nextX || (int) position.y != nextY) {
+                cancelTravel();
+            }
+        }
+    }
+
+    /**
+     * Triggers an interaction the party walked into
+     * @param interaction The interaction on the target tile
+     */
+    private void interact(MapInteraction interaction) {
+        switch (interaction.getType()) {
+            case QUEST_GIVER:
+                Gdx.app.log("MapScreen", "Interacting with quest giver for quest: " + interaction.getId());
+                // Open the dialog screen for this quest
+                game.setScreen(new DialogScreen(game, interaction.getId()));
+                break;
+            default:
+                Gdx.app.log("MapScreen", "No handler yet for " + interaction.getType() + " '" + interaction.getId() + "'.");
+                break;
+        }
+    }
+
+    /**
+     * Rests or camps where the party stands. The whole stretch is simulated at once; an ambush cuts it short
+     * and starts a battle.
+     * @param ticks How long to rest, in world ticks (hours)
+     */
+    public void rest(int ticks) {
+        if (game.world == null) return;
+        cancelTravel();
+        int rested = advanceWorld(ticks, WorldActivity.REST);
+        Gdx.app.log("MapScreen", "Rested " + rested + " of " + ticks + " hours; it is now day "
+            + game.world.getDay() + ", hour " + game.world.getHourOfDay() + ".");
+    }
+
+    /**
+     * Runs the world clock and starts a battle if the party was ambushed
+     * @return Number of ticks simulated
+     */
+    private int advanceWorld(int ticks, WorldActivity activity) {
+        if (game.world == null) return 0;
+        ambushed = false;
+        int simulated = game.world.advance(ticks, activity);
+        if (ambushed) {
+            ambushed = false;
+            cancelTravel();
+            startBattle();
+        }
+        return simulated;
+    }
+
+    /**
+     * Starts a battle against the encounter table of the region and terrain the party stands on
+     */
+    public void startBattle() {
+        String region = null;
+        String terrain = null;
+        Vector2 position = game.partyManager != null ? game.partyManager.getMapPosition() : null;
+        if (position != null && cachedMap != null) {
+            int x = MathUtils.floor(position.x);
+            int y = MathUtils.floor(position.y);
+            region = cachedMap.getRegionId(x, y);
+            terrain = cachedMap.getTerrainType(x, y);
+        }
+        Gdx.app.log("MapScreen", "Starting battle in region " + region + " on " + terrain + " terrain.");
+        BattleScreen battleScreen = game.screens.obtainBattleScreen();
+        battleScreen.setEncounterTable(EncounterData.getInstance().getTable(region, terrain));
+        game.setScreen(battleScreen);
     }
 
     private Label createLabel(String text, String styleName) {
@@ -240,82 +505,91 @@ public class MapScreen implements Screen {
         uiStage.addActor(resourceTable);
     }
 
+    /**
+     * Refreshes the labels of resources that changed since the last frame; does nothing on an idle frame
+     */
     private void updateResourceUI() {
-        if (game.resourceManager == null || resourceLabels == null) return;
+        if (dirtyResources.isEmpty() || game.resourceManager == null || resourceLabels == null) return;
 
-        for (ResourceType type : ResourceType.values()) {
+        for (ResourceType type : dirtyResources) {
             Label valueLabel = resourceLabels.get(type);
             if (valueLabel != null) {
                 valueLabel.setText(String.valueOf(game.resourceManager.getResourceAmount(type)));
             }
         }
+        dirtyResources.clear();
     }
 
     @Override
     public void render(float delta) {
+        PerformanceOverlay perf = game.perf;
+        perf.render.start();
         ScreenUtils.clear(0.1f, 0.1f, 0.1f, 1f); // Dark clear color
 
+        updateTravel(delta);
+        if (game.partyManager != null && game.partyManager.getMapPosition() != null) {
+            Vector2 partyPosition = game.partyManager.getMapPosition();
+            chunkStreamer.update(partyPosition.x, partyPosition.y);
+            if (chunkStreamer.hasReadFailed() && chunkStreamer.getSource() instanceof RegionFile) {
+                Gdx.app.error("MapScreen", "Couldn't read chunks from '" + ((RegionFile) chunkStreamer.getSource()).getPath()
+                    + "', loading the TiledMap instead.");
+                game.mapCache.rejectRegionFile(GameAssets.OVERWORLD_MAP.fileName);
+                loadOverworld();
+                chunkStreamer.update(partyPosition.x, partyPosition.y);
+            }
+            fog.update(MathUtils.floor(partyPosition.x), MathUtils.floor(partyPosition.y));
+        }
+
         // Update camera based on input (handled by MapInputHandler)
         camera.update();
-        mapRenderer.setView(camera);
-        mapRenderer.render();
+        if (chunkRenderer != null) {
+            chunkRenderer.render(camera);
+        }
 
         // Render party marker or other map elements
         game.batch.setProjectionMatrix(camera.combined);
         game.batch.begin();
         
-        // Draw quest givers
-        for (Map.Entry<String, Vector2> entry : questGiverPositions.entrySet()) {
-            String questId = entry.getKey();
-            Vector2 position = entry.getValue();
-            TextureRegion sprite = questGiverSprites.get(questId);
-            
-            if (sprite != null) {
-                // Draw the quest giver
-                game.batch.draw(sprite, position.x, position.y, 1f, 1f);
-                
-                // Draw an exclamation mark or question mark based on quest status
-                Quest quest = QuestManager.getInstance().getQuest(questId);
-                if (quest != null) {
-                    // Draw indicator above quest giver - safely handle missing fonts
-                    String indicator = "!"; // Default for new quests
-                    if (quest.getStatus() == Quest.QuestStatus.IN_PROGRESS) {
-                        indicator = "?"; // Question mark for in-progress quests
-                    } else if (quest.getStatus() == Quest.QuestStatus.COMPLETED) {
-                        indicator = "✓"; // Checkmark for completed quests
-                    }
-                    
-                    // Create a simple text indicator instead of using the font
-                    // Draw a colored rectangle to indicate quest status
-                    float indicatorX = position.x + 0.7f;
-                    float indicatorY = position.y + 0.7f;
-                    float indicatorSize = 0.25f;
-                    
-                    // Set color based on quest status
-                    if (quest.getStatus() == Quest.QuestStatus.NOT_STARTED) {
-                        game.batch.setColor(Color.YELLOW); // Yellow for new quests
-                    } else if (quest.getStatus() == Quest.QuestStatus.IN_PROGRESS) {
-                        game.batch.setColor(Color.CYAN); // Cyan for in-progress
-                    } else {
-                        game.batch.setColor(Color.GREEN); // Green for completed
-                    }
-                    
-                    // Draw using a colored portion of the quest giver sprite as an indicator
-                    game.batch.draw(sprite, 
-                        indicatorX, indicatorY, 
-                        indicatorSize, indicatorSize);
-                    
-                    // Reset color
-                    game.batch.setColor(Color.WHITE);
+        // Draw the interactions inside the camera view; the index only visits the grid buckets it overlaps
+        float halfWidth = camera.viewportWidth * camera.zoom / 2f;
+        float halfHeight = camera.viewportHeight * camera.zoom / 2f;
+        interactions.query(
+            MathUtils.floor(camera.position.x - halfWidth), MathUtils.floor(camera.position.y - halfHeight),
+            MathUtils.floor(camera.position.x + halfWidth), MathUtils.floor(camera.position.y + halfHeight),
+            visibleInteractions);
+        for (int i = 0; i < visibleInteractions.size; i++) {
+            MapInteraction interaction = visibleInteractions.get(i);
+            TextureRegion sprite = interaction.getSprite();
+            if (sprite == null || !fog.isExplored(interaction.getX(), interaction.getY())) continue;
+            game.batch.draw(sprite, interaction.getX(), interaction.getY(), 1f, 1f);
+
+            Quest quest = interaction.getQuest();
+            if (quest != null) {
+                // Draw a small colored copy of the giver above it to show the quest status
+                float indicatorX = interaction.getX() + 0.7f;
+                float indicatorY = interaction.getY() + 0.7f;
+                float indicatorSize = 0.25f;
+
+                // Set color based on quest status
+                if (quest.getStatus() == Quest.QuestStatus.NOT_STARTED) {
+                    game.batch.setColor(Color.YELLOW); // Yellow for new quests
+                } else if (quest.getStatus() == Quest.QuestStatus.IN_PROGRESS) {
+                    game.batch.setColor(Color.CYAN); // Cyan for in-progress
+                } else {
+                    game.batch.setColor(Color.GREEN); // Green for completed
                 }
+                game.batch.draw(sprite, indicatorX, indicatorY, indicatorSize, indicatorSize);
+                game.batch.setColor(Color.WHITE);
             }
         }
         
+        fog.draw(game.batch);
+
         // Ensure PartyManager and its methods exist and are populated
         if (game.partyManager != null && game.partyManager.getPartyMarkerSprite() != null && game.partyManager.getMapPosition() != null) {
             Vector2 partyPos = game.partyManager.getMapPosition();
             // The drawing coordinates need to align with your map's unit scale.
-            // The mapRenderer is initialized with `1f / tileWidth`.
+            // The chunk meshes are built in tile units.
             // If partyPos.x and partyPos.y are tile coordinates, drawing at (partyPos.x, partyPos.y)
             // with a width/height of 1 world unit will make the sprite one tile large.
             game.batch.draw(game.partyManager.getPartyMarkerSprite(),
@@ -325,11 +599,20 @@ public class MapScreen implements Screen {
                 1f);        // Height in world units (1 tile high)
         }
         game.batch.end();
+        perf.render.stop();
 
         // Update and draw the UI
+        perf.ui.start();
         updateResourceUI();
         uiStage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f));
         uiStage.draw();
+        perf.ui.stop();
+    }
+
+    @Override
+    public boolean isAnimating() {
+        // Only travel along a clicked route moves the party without input
+        return isTravelling();
     }
 
     @Override
@@ -361,6 +644,13 @@ public class MapScreen implements Screen {
     @Override
     public void hide() {
         Gdx.app.log("MapScreen", "Hiding MapScreen.");
+        cancelTravel();
+        if (game.resourceManager != null) {
+            game.resourceManager.removeListener(resourceListener);
+        }
+        if (game.world != null) {
+            game.world.removeListener(worldListener);
+        }
         // Consider if you need to clear the input processor or just let the new screen set it
         // Gdx.input.setInputProcessor(null);
     }
@@ -368,8 +658,10 @@ public class MapScreen implements Screen {
     @Override
     public void dispose() {
         Gdx.app.log("MapScreen", "Disposing MapScreen.");
-        if (map != null) map.dispose();
-        if (mapRenderer instanceof OrthogonalTiledMapRenderer) ((OrthogonalTiledMapRenderer) mapRenderer).dispose();
+        // The map and its region file belong to the MapCache
+        disposeChunkStreaming();
+        if (fog != null) fog.dispose();
+        if (router != null) router.dispose();
         if (uiStage != null) uiStage.dispose();
     }
 }
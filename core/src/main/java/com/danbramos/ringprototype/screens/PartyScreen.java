@@ -38,7 +38,7 @@ public class PartyScreen implements Screen {
         ScreenUtils.clear(0.2f, 0.2f, 0.25f, 1f); // Dark background
 
         if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            game.setScreen(new MapScreen(game));
+            game.setScreen(game.screens.getMapScreen());
         }
 
         stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f));
@@ -110,7 +110,7 @@ public class PauseMenuScreen implements Screen {
         partyButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                game.setScreen(new PartyScreen(game));
+                game.setScreen(game.screens.getPartyScreen());
             }
         });
         mainPauseOptionsTable.add(partyButton).width(200).pad(10).row();
@@ -125,6 +125,16 @@ public class PauseMenuScreen implements Screen {
         });
         mainPauseOptionsTable.add(inventoryButton).width(200).pad(10).row();
 
+        final TextButton overlayButton = new TextButton(overlayButtonText(), skin);
+        overlayButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                game.perf.toggle();
+                overlayButton.setText(overlayButtonText());
+            }
+        });
+        mainPauseOptionsTable.add(overlayButton).width(200).pad(10).row();
+
         TextButton quitButton = new TextButton("Quit Game", skin);
         quitButton.addListener(new ChangeListener() {
             @Override
@@ -137,6 +147,10 @@ public class PauseMenuScreen implements Screen {
         stage.addActor(mainPauseOptionsTable);
     }
 
+    private String overlayButtonText() {
+        return game.perf.isVisible() ? "Hide Performance Overlay" : "Show Performance Overlay";
+    }
+
     // This method is called by InventoryView when its "Back" button is pressed
     public void showMainPauseOptions() {
         showingInventoryView = false;
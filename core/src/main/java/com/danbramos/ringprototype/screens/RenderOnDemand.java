@@ -0,0 +1,16 @@
+package com.danbramos.ringprototype.screens;
+
+/**
+ * Implemented by screens that only need a new frame when something changes, like the turn-based map and
+ * battle screens while the player is thinking. While such a screen is shown the game turns continuous
+ * rendering off; input events, posted runnables (including {@link com.badlogic.gdx.utils.Timer} tasks) and
+ * running Scene2D actions each request a frame, and {@link #isAnimating()} keeps frames coming while the
+ * screen changes on its own.
+ */
+public interface RenderOnDemand {
+    /**
+     * @return True while the screen changes without input (e.g. an AI turn in progress), so it must be
+     * rendered continuously until this returns false again
+     */
+    boolean isAnimating();
+}
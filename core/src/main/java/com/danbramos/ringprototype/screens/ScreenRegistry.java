@@ -0,0 +1,163 @@
+package com.danbramos.ringprototype.screens;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.Pool;
+import com.danbramos.ringprototype.RingPrototypeGame;
+
+/**
+ * Owns the game's screens and decides what happens to a screen when the game switches away from it.
+ * <ul>
+ *     <li>Long-lived screens (map, party) are created once and only ever hidden and shown again.</li>
+ *     <li>Battle screens come from a pool and are reset when a battle is left.</li>
+ *     <li>Any other screen (dialog, pause menu, loading) is transient and disposed after it is replaced.</li>
+ * </ul>
+ * Screens often switch from inside their own input listeners, so releasing is deferred until
+ * {@link #processReleased()} runs at the start of the next frame.
+ * After each transition the managed GPU resource counts are logged, which makes a leak show up as
+ * counts that keep reaching new highs during a long session.
+ */
+public class ScreenRegistry implements Disposable {
+    private static final int MAX_POOLED_BATTLE_SCREENS = 1;
+
+    private final RingPrototypeGame game;
+    private final Pool<BattleScreen> battleScreens;
+    private final Array<Screen> released;
+    private MapScreen mapScreen;
+    private PartyScreen partyScreen;
+
+    // GPU resource tracking
+    private int transitions;
+    private int peakTextures;
+    private int peakShaders;
+
+    public ScreenRegistry(RingPrototypeGame game) {
+        this.game = game;
+        this.released = new Array<>();
+        this.battleScreens = new Pool<BattleScreen>(1, MAX_POOLED_BATTLE_SCREENS) {
+            @Override
+            protected BattleScreen newObject() {
+                Gdx.app.log("ScreenRegistry", "Creating BattleScreen.");
+                return new BattleScreen(ScreenRegistry.this.game);
+            }
+
+            @Override
+            protected void discard(BattleScreen screen) {
+                screen.dispose();
+            }
+        };
+    }
+
+    /**
+     * Gets the overworld screen, creating it on first use
+     * @return The single MapScreen instance
+     */
+    public MapScreen getMapScreen() {
+        if (mapScreen == null) {
+            mapScreen = new MapScreen(game);
+        }
+        return mapScreen;
+    }
+
+    /**
+     * Gets the party screen, creating it on first use
+     * @return The single PartyScreen instance
+     */
+    public PartyScreen getPartyScreen() {
+        if (partyScreen == null) {
+            partyScreen = new PartyScreen(game);
+        }
+        return partyScreen;
+    }
+
+    /**
+     * Gets a battle screen ready for a new battle. It goes back to the pool when the game leaves it.
+     * @return A pooled BattleScreen
+     */
+    public BattleScreen obtainBattleScreen() {
+        return battleScreens.obtain();
+    }
+
+    private boolean isLongLived(Screen screen) {
+        return screen == mapScreen || screen == partyScreen;
+    }
+
+    /**
+     * Called by the game after it switched away from a screen
+     * @param screen The screen that was just hidden
+     */
+    public void release(Screen screen) {
+        if (screen == null || isLongLived(screen) || released.contains(screen, true)) return;
+        released.add(screen);
+    }
+
+    /**
+     * Returns released battle screens to the pool and disposes released transient screens.
+     * Call once per frame, before the current screen renders.
+     */
+    public void processReleased() {
+        if (released.size == 0) return;
+        for (Screen screen : released) {
+            if (screen == game.getScreen()) continue; // Shown again before it could be released
+            if (screen instanceof BattleScreen) {
+                battleScreens.free((BattleScreen) screen);
+            } else {
+                screen.dispose();
+            }
+        }
+        released.clear();
+        logGpuResources();
+    }
+
+    /**
+     * Logs the managed GPU resource counts, noting when one reaches a new high
+     */
+    public void logGpuResources() {
+        transitions++;
+        int textures = Texture.getNumManagedTextures();
+        int shaders = ShaderProgram.getNumManagedShaderPrograms();
+        String counts = "textures=" + textures + ", shaders=" + shaders
+            + ", pooled battle screens=" + battleScreens.getFree() + ", " + Mesh.getManagedStatus();
+        if (textures > peakTextures || shaders > peakShaders) {
+            peakTextures = Math.max(peakTextures, textures);
+            peakShaders = Math.max(peakShaders, shaders);
+            Gdx.app.log("ScreenRegistry", "New GPU resource high after transition " + transitions + ": " + counts);
+        } else {
+            Gdx.app.debug("ScreenRegistry", "GPU resources after transition " + transitions + ": " + counts);
+        }
+    }
+
+    /**
+     * Disposes every screen the registry knows about, plus the given current screen
+     * @param current The screen showing when the game closes, may be null
+     */
+    public void dispose(Screen current) {
+        if (current != null && !isLongLived(current)) {
+            released.removeValue(current, true);
+            current.dispose();
+        }
+        dispose();
+    }
+
+    @Override
+    public void dispose() {
+        for (Screen screen : released) {
+            screen.dispose();
+        }
+        released.clear();
+        battleScreens.clear(); // discard() disposes each pooled screen
+        if (mapScreen != null) {
+            mapScreen.dispose();
+            mapScreen = null;
+        }
+        if (partyScreen != null) {
+            partyScreen.dispose();
+            partyScreen = null;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.danbramos.ringprototype.screens.ui;
+
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.InputEvent;
+import com.badlogic.gdx.scenes.scene2d.InputListener;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.utils.Align;
+import com.danbramos.ringprototype.battle.BattleLog;
+
+/**
+ * Shows a window of a {@link BattleLog}: a fixed number of row labels that are re-pointed at different
+ * entries as the player scrolls with the mouse wheel, newest entry at the bottom.
+ * Only the visible entries are ever formatted, and only when the log or the scroll position changed.
+ */
+public class BattleLogView extends Table {
+    private final BattleLog log;
+    private final Label[] rows;
+    private final StringBuilder text = new StringBuilder(128);
+    private int scrollOffset; // Entries scrolled up from the newest one; 0 follows the newest
+    private long shownVersion = -1;
+    private int shownOffset = -1;
+
+    /**
+     * @param log The log to show
+     * @param skin The skin for the row labels
+     * @param visibleRows How many entries are shown at once
+     * @param width Width of the rows in pixels; long entries wrap
+     */
+    public BattleLogView(BattleLog log, Skin skin, int visibleRows, float width) {
+        this.log = log;
+        this.rows = new Label[Math.max(1, visibleRows)];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = skin.has("default", Label.LabelStyle.class)
+                ? new Label("", skin, "default")
+                : new Label("", skin);
+            rows[i].setAlignment(Align.center);
+            rows[i].setWrap(true);
+            add(rows[i]).width(width).row();
+        }
+
+        addListener(new InputListener() {
+            // The stage only sends wheel events to its scroll focus, so take it while the pointer is over the log
+            @Override
+            public void enter(InputEvent event, float x, float y, int pointer, Actor fromActor) {
+                if (pointer == -1 && getStage() != null) getStage().setScrollFocus(BattleLogView.this);
+            }
+
+            @Override
+            public void exit(InputEvent event, float x, float y, int pointer, Actor toActor) {
+                if (pointer == -1 && getStage() != null && getStage().getScrollFocus() == BattleLogView.this) {
+                    getStage().setScrollFocus(null);
+                }
+            }
+
+            @Override
+            public boolean scrolled(InputEvent event, float x, float y, float amountX, float amountY) {
+                // Wheel down (positive) moves towards the newest entries
+                scrollBy(-Math.round(amountY));
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Scrolls the window by a number of entries; positive values go back in time
+     * @param entries Entries to scroll
+     */
+    public void scrollBy(int entries) {
+        int maxOffset = Math.max(0, log.size() - rows.length);
+        scrollOffset = Math.max(0, Math.min(maxOffset, scrollOffset + entries));
+    }
+
+    /**
+     * Re-formats the visible rows if the log or scroll position changed since the last call.
+     * Cheap to call every frame.
+     */
+    public void refresh() {
+        if (log.getVersion() == shownVersion && scrollOffset == shownOffset) return;
+        shownVersion = log.getVersion();
+        scrollBy(0); // Clamp in case the log was cleared
+        shownOffset = scrollOffset;
+
+        // The bottom row shows the newest visible entry
+        int newest = log.size() - 1 - scrollOffset;
+        for (int row = rows.length - 1, index = newest; row >= 0; row--, index--) {
+            text.setLength(0);
+            if (index >= 0) {
+                log.get(index).format(text);
+            }
+            rows[row].setText(text);
+        }
+    }
+
+    public BattleLog getLog() {
+        return log;
+    }
+}
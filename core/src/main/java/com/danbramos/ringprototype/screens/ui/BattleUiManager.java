@@ -12,18 +12,30 @@ import com.badlogic.gdx.scenes.scene2d.ui.Table;
 import com.badlogic.gdx.scenes.scene2d.ui.TextButton;
 import com.badlogic.gdx.scenes.scene2d.ui.Window;
 import com.badlogic.gdx.scenes.scene2d.utils.ChangeListener;
-import com.badlogic.gdx.utils.Align;
 import com.danbramos.ringprototype.RingPrototypeGame;
+import com.danbramos.ringprototype.battle.ActorStatListener;
 import com.danbramos.ringprototype.battle.BattleCharacter;
+import com.danbramos.ringprototype.battle.BattleLog;
 import com.danbramos.ringprototype.battle.Enemy;
 import com.danbramos.ringprototype.battle.IBattleActor;
 import com.danbramos.ringprototype.battle.StatusEffect;
+import com.danbramos.ringprototype.battle.TurnListener;
 import com.danbramos.ringprototype.battle.skills.Skill;
 import com.danbramos.ringprototype.screens.BattleScreen; // To call back
 
 import java.util.List;
 
-public class BattleUiManager {
+/**
+ * Builds and updates the battle HUD.
+ * <p>
+ * Widgets are not refreshed when something calls in: turn changes, HP and mana events and explicit
+ * {@link #updateTurnInfo(IBattleActor)} calls only mark the panel dirty, and {@link #refreshIfDirty()}
+ * applies them once per frame. An action that fires several events therefore rebuilds the panel once,
+ * and a frame with no changes touches no labels.
+ */
+public class BattleUiManager implements TurnListener, ActorStatListener {
+    private static final int BATTLE_LOG_ROWS = 4;
+
     private final RingPrototypeGame game;
     private final BattleScreen battleScreen; // To call methods like advanceTurn, selectSkill
     private final Skin skin;
@@ -40,7 +52,8 @@ public class BattleUiManager {
     private Label activeCharManaLabel;
     private ProgressBar activeCharManaBar;
     private Label actionStateLabel;
-    private Label battleLogLabel;
+    private BattleLog battleLog;
+    private BattleLogView battleLogView;
 
     // Character popup menu
     private Window actionPopupMenu;
@@ -53,6 +66,12 @@ public class BattleUiManager {
     private int tileWidth;
     private int tileHeight;
 
+    // Pending HUD changes, applied by refreshIfDirty()
+    private IBattleActor displayedActor;
+    private String battleResultText;
+    private boolean turnInfoDirty;
+    private boolean statsDirty;
+
     public BattleUiManager(RingPrototypeGame game, Stage stage, BattleScreen battleScreen) {
         this.game = game;
         this.skin = game.skin;
@@ -151,15 +170,15 @@ public class BattleUiManager {
         centerPanel.setFillParent(true);
         centerPanel.center().bottom();
 
-        battleLogLabel = createLabel("Battle started!", "default");
-        battleLogLabel.setAlignment(Align.center);
-        battleLogLabel.setWrap(true);
+        battleLog = new BattleLog();
+        battleLog.message("Battle started!");
+        battleLogView = new BattleLogView(battleLog, skin, BATTLE_LOG_ROWS, 300);
 
         Table logTable = new Table();
         if (skin.has("panel-background", Skin.TintedDrawable.class)) {
             logTable.setBackground(skin.getTiledDrawable("panel-background"));
         }
-        logTable.add(battleLogLabel).width(300).pad(10);
+        logTable.add(battleLogView).pad(10);
 
         centerPanel.add(logTable).padBottom(100);
         stage.addActor(centerPanel);
@@ -202,7 +221,7 @@ public class BattleUiManager {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
                 // For now just show a log message as items aren't implemented yet
-                battleLogLabel.setText(character.getName() + " checks inventory...");
+                battleLog.message(character.getName() + " checks inventory...");
             }
         });
 
@@ -323,14 +342,60 @@ public class BattleUiManager {
         isPopupVisible = false;
     }
 
+    /**
+     * Marks the turn panel for a refresh showing the given actor; applied by {@link #refreshIfDirty()}
+     * @param currentTurnActor The acting combatant, or null once the battle is complete
+     */
     public void updateTurnInfo(IBattleActor currentTurnActor) {
+        displayedActor = currentTurnActor;
+        turnInfoDirty = true;
+    }
+
+    /**
+     * Clears the turn panel and shows the outcome of the battle in place of the turn info
+     * @param resultText E.g. "VICTORY!"
+     */
+    public void showBattleResult(String resultText) {
+        battleResultText = resultText;
+        updateTurnInfo(null);
+    }
+
+    @Override
+    public void onTurnChanged(IBattleActor previousActor, IBattleActor currentActor) {
+        updateTurnInfo(currentActor);
+    }
+
+    @Override
+    public void onHpChanged(IBattleActor actor, int oldHp, int newHp) {
+        if (actor == displayedActor) statsDirty = true;
+    }
+
+    @Override
+    public void onManaChanged(BattleCharacter character, int oldMana, int newMana) {
+        if (character == displayedActor) statsDirty = true;
+    }
+
+    /**
+     * Applies the changes collected since the last frame. Call once per frame before the stage acts.
+     */
+    public void refreshIfDirty() {
         if (turnInfoLabel == null) return;
+        if (turnInfoDirty) {
+            applyTurnInfo(displayedActor);
+        } else if (statsDirty) {
+            applyStats(displayedActor);
+        }
+        turnInfoDirty = false;
+        statsDirty = false;
+        battleLogView.refresh();
+    }
 
+    private void applyTurnInfo(IBattleActor currentTurnActor) {
         // Hide any popup menu when turn changes
         hidePopupMenu();
 
         if (currentTurnActor == null) {
-            turnInfoLabel.setText("Battle Complete");
+            turnInfoLabel.setText(battleResultText != null ? battleResultText : "Battle Complete");
             activeCharNameLabel.setText("No active combatant");
             activeCharHealthLabel.setText("HP: 0/0");
             activeCharHealthBar.setValue(0);
@@ -347,9 +412,45 @@ public class BattleUiManager {
 
         // Update active combatant info
         activeCharNameLabel.setText(currentTurnActor.getName());
+        applyStats(currentTurnActor);
+
+        if (currentTurnActor instanceof BattleCharacter) {
+            BattleCharacter bc = (BattleCharacter) currentTurnActor;
+
+            // Update action state with more detailed info
+            if (bc.hasPerformedMajorAction()) {
+                if (bc.getRemainingMovement() > 0) {
+                    actionStateLabel.setText("Skill used - Can still move " + bc.getRemainingMovement() + " tiles");
+                } else {
+                    actionStateLabel.setText("No actions left - End turn");
+                }
+            } else {
+                if (bc.getRemainingMovement() > 0) {
+                    actionStateLabel.setText("Select an action or move " + bc.getRemainingMovement() + " tiles");
+                } else {
+                    actionStateLabel.setText("Select an action (no movement left)");
+                }
+            }
+
+            // Show the popup menu for the active character
+            if (!battleScreen.isBattleOver()) {
+                showPopupMenu(bc);
+            }
+        } else {
+            actionStateLabel.setText("Enemy turn");
+        }
+
+        // Update end turn button state
+        endTurnButton.setDisabled(!(currentTurnActor instanceof BattleCharacter) || battleScreen.isBattleOver());
+    }
 
-        int hp = currentTurnActor.getCurrentHp();
-        int maxHp = currentTurnActor.getMaxHp();
+    /**
+     * Updates only the HP and MP widgets of the active combatant panel
+     */
+    private void applyStats(IBattleActor actor) {
+        if (actor == null) return;
+        int hp = actor.getCurrentHp();
+        int maxHp = actor.getMaxHp();
         float hpPercent = (float) hp / maxHp * 100;
 
         activeCharHealthLabel.setText("HP: " + hp + "/" + maxHp);
@@ -365,8 +466,8 @@ public class BattleUiManager {
         }
 
         // Update mana for player characters or hide for enemies
-        if (currentTurnActor instanceof BattleCharacter) {
-            BattleCharacter bc = (BattleCharacter) currentTurnActor;
+        if (actor instanceof BattleCharacter) {
+            BattleCharacter bc = (BattleCharacter) actor;
             int mp = bc.getSourceCharacter().getManaPoints();
             int maxMp = bc.getSourceCharacter().getMaxManaPoints();
             float mpPercent = (float) mp / maxMp * 100;
@@ -375,40 +476,18 @@ public class BattleUiManager {
             activeCharManaBar.setValue(mpPercent);
             activeCharManaLabel.setVisible(true);
             activeCharManaBar.setVisible(true);
-
-            // Update action state with more detailed info
-            if (bc.hasPerformedMajorAction()) {
-                if (bc.getRemainingMovement() > 0) {
-                    actionStateLabel.setText("Skill used - Can still move " + bc.getRemainingMovement() + " tiles");
-                } else {
-                    actionStateLabel.setText("No actions left - End turn");
-                }
-            } else {
-                if (bc.getRemainingMovement() > 0) {
-                    actionStateLabel.setText("Select an action or move " + bc.getRemainingMovement() + " tiles");
-                } else {
-                    actionStateLabel.setText("Select an action (no movement left)");
-                }
-            }
-
-            // Show the popup menu for the active character
-            showPopupMenu(bc);
         } else {
             // Hide mana for enemies
             activeCharManaLabel.setVisible(false);
             activeCharManaBar.setVisible(false);
-            actionStateLabel.setText("Enemy turn");
         }
-
-        // Update end turn button state
-        endTurnButton.setDisabled(!(currentTurnActor instanceof BattleCharacter) || battleScreen.isBattleOver());
     }
 
     public void updateSkillButtons(IBattleActor currentTurnActor) {
-        // Skill buttons are now handled by the popup menu
+        // Skill buttons are now handled by the popup menu, which the turn panel refresh rebuilds.
         // This is kept for compatibility with existing code that calls this method
         if (currentTurnActor instanceof BattleCharacter && !battleScreen.isBattleOver()) {
-            showPopupMenu((BattleCharacter)currentTurnActor);
+            updateTurnInfo(currentTurnActor);
         }
     }
 
@@ -423,12 +502,21 @@ public class BattleUiManager {
         hidePopupMenu();
         }
 
+    /**
+     * Adds a free-text line to the battle log. Prefer the structured methods of {@link #getBattleLog()},
+     * which don't build the text unless the line is shown.
+     * @param message The text to log
+     */
     public void updateBattleLog(String message) {
-        if (battleLogLabel != null) {
-            battleLogLabel.setText(message);
+        if (battleLog != null) {
+            battleLog.message(message);
         }
     }
 
+    public BattleLog getBattleLog() {
+        return battleLog;
+    }
+
     private Label createLabel(String text, String styleName) {
         if (skin.has(styleName, Label.LabelStyle.class)) {
             return new Label(text, skin, styleName);
@@ -15,7 +15,6 @@ import com.danbramos.ringprototype.RingPrototypeGame;
 import com.danbramos.ringprototype.battle.skills.Skill;
 import com.danbramos.ringprototype.items.Item;
 import com.danbramos.ringprototype.party.GameCharacter;
-import com.danbramos.ringprototype.screens.MapScreen; // Needed for back button
 
 public class PartyScreenView {
 
@@ -204,7 +203,7 @@ public class PartyScreenView {
         backButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                game.setScreen(new MapScreen(game));
+                game.setScreen(game.screens.getMapScreen());
             }
         });
 
@@ -0,0 +1,82 @@
+package com.danbramos.ringprototype.util;
+
+import java.util.Random;
+
+/**
+ * Samples indices by weight in constant time with Walker's alias method (Vose's construction).
+ * <p>
+ * Each of the n slots holds a probability and an alias: a sample picks a slot uniformly and keeps it
+ * with that probability, otherwise takes its alias. Building is O(n); the table is immutable afterwards.
+ */
+public class AliasTable {
+    private final float[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights Relative weights, at least one of them positive; negative weights count as zero
+     * @throws IllegalArgumentException If there is no positive weight
+     */
+    public AliasTable(float[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (float weight : weights) {
+            if (weight > 0) total += weight;
+        }
+        if (n == 0 || total <= 0) {
+            throw new IllegalArgumentException("An alias table needs at least one positive weight.");
+        }
+
+        probabilities = new float[n];
+        aliases = new int[n];
+        // Weights scaled so the average is 1; slots below 1 are topped up by slots above it
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = Math.max(0f, weights[i]) * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probabilities[less] = (float) scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding error
+        while (largeCount > 0) {
+            int slot = large[--largeCount];
+            probabilities[slot] = 1f;
+            aliases[slot] = slot;
+        }
+        while (smallCount > 0) {
+            int slot = small[--smallCount];
+            probabilities[slot] = 1f;
+            aliases[slot] = slot;
+        }
+    }
+
+    /**
+     * @param random The random source
+     * @return An index into the weights the table was built from, drawn with probability weight / total
+     */
+    public int sample(Random random) {
+        int slot = random.nextInt(probabilities.length);
+        return random.nextFloat() < probabilities[slot] ? slot : aliases[slot];
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+}
@@ -0,0 +1,162 @@
+package com.danbramos.ringprototype.util;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Records wall time and allocated bytes for named phases, e.g. the steps of
+ * {@link com.danbramos.ringprototype.RingPrototypeGame#create()}.
+ * Phases are measured one at a time on the calling thread: {@link #begin(String)} closes any open phase.
+ */
+public class PhaseTimer {
+    private final String name;
+    private final Array<Phase> phases;
+    private final ThreadMXBean threadBean;
+    private final boolean allocationTracking;
+
+    private String currentPhase;
+    private long phaseStartNanos;
+    private long phaseStartBytes;
+
+    /**
+     * A finished phase with its duration and allocation delta
+     */
+    public static class Phase {
+        public final String name;
+        public final long nanos;
+        public final long allocatedBytes; // -1 if the JVM can't report per-thread allocation
+
+        Phase(String name, long nanos, long allocatedBytes) {
+            this.name = name;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+
+    public PhaseTimer(String name) {
+        this.name = name;
+        this.phases = new Array<>();
+        ThreadMXBean bean = null;
+        boolean tracking = false;
+        try {
+            bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                tracking = sunBean.isThreadAllocatedMemorySupported();
+                if (tracking && !sunBean.isThreadAllocatedMemoryEnabled()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                }
+            }
+        } catch (Throwable t) {
+            // Management beans are optional (e.g. on some native-image builds); timing still works without them
+            tracking = false;
+        }
+        this.threadBean = bean;
+        this.allocationTracking = tracking;
+    }
+
+    /**
+     * Starts timing a phase, ending the previous one if it is still open
+     * @param phaseName The name shown in the summary
+     */
+    public void begin(String phaseName) {
+        if (currentPhase != null) {
+            end();
+        }
+        currentPhase = phaseName;
+        phaseStartBytes = allocatedBytes();
+        phaseStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends the open phase and records it
+     * @return The recorded phase, or null if no phase was open
+     */
+    public Phase end() {
+        if (currentPhase == null) return null;
+        long nanos = System.nanoTime() - phaseStartNanos;
+        long bytes = allocationTracking ? allocatedBytes() - phaseStartBytes : -1;
+        Phase phase = new Phase(currentPhase, nanos, bytes);
+        phases.add(phase);
+        currentPhase = null;
+        return phase;
+    }
+
+    /**
+     * Drops all recorded phases, keeping the timer reusable
+     */
+    public void clear() {
+        phases.clear();
+        currentPhase = null;
+    }
+
+    public Array<Phase> getPhases() {
+        return phases;
+    }
+
+    public long getTotalNanos() {
+        long total = 0;
+        for (Phase phase : phases) {
+            total += phase.nanos;
+        }
+        return total;
+    }
+
+    private long allocatedBytes() {
+        if (!allocationTracking) return 0;
+        return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Logs a table of all recorded phases with each one's share of the total time
+     */
+    public void logSummary() {
+        long total = getTotalNanos();
+        StringBuilder sb = new StringBuilder();
+        sb.append(name).append(" timings:\n");
+        sb.append(String.format("  %-32s %10s %7s %12s%n", "Phase", "Time (ms)", "Share", "Alloc (KB)"));
+        for (Phase phase : phases) {
+            sb.append(String.format("  %-32s %10.2f %6.1f%% %12s%n",
+                phase.name,
+                phase.nanos / 1_000_000.0,
+                total > 0 ? phase.nanos * 100.0 / total : 0.0,
+                phase.allocatedBytes >= 0 ? String.valueOf(phase.allocatedBytes / 1024) : "n/a"));
+        }
+        sb.append(String.format("  %-32s %10.2f", "Total", total / 1_000_000.0));
+        Gdx.app.log("PhaseTimer", sb.toString());
+    }
+
+    /**
+     * Appends the recorded phases as one JSON object per line, so runs can be collected for trend tracking
+     * @param file The file to append to
+     */
+    public void appendJson(FileHandle file) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"name\":\"").append(escape(name)).append('"');
+        sb.append(",\"timestamp\":").append(System.currentTimeMillis());
+        sb.append(",\"totalNanos\":").append(getTotalNanos());
+        sb.append(",\"phases\":[");
+        for (int i = 0; i < phases.size; i++) {
+            Phase phase = phases.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":\"").append(escape(phase.name)).append('"');
+            sb.append(",\"nanos\":").append(phase.nanos);
+            sb.append(",\"allocatedBytes\":").append(phase.allocatedBytes);
+            sb.append('}');
+        }
+        sb.append("]}\n");
+        try {
+            file.writeString(sb.toString(), true);
+        } catch (Exception e) {
+            Gdx.app.error("PhaseTimer", "Could not write timings to " + file.path(), e);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
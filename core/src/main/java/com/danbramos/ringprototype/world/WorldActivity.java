@@ -0,0 +1,11 @@
+package com.danbramos.ringprototype.world;
+
+/**
+ * What the party is doing while the world clock runs; decides which rules apply to a tick
+ */
+public enum WorldActivity {
+    /** Walking the overworld, one tick per tile */
+    TRAVEL,
+    /** Resting or camping: fire is kept, wounds heal */
+    REST
+}
@@ -0,0 +1,33 @@
+package com.danbramos.ringprototype.world;
+
+/**
+ * Random things that can happen to the party as time passes
+ */
+public enum WorldEvent {
+    AMBUSH("Ambush", true),
+    FORAGE("Forage", false);
+
+    private final String displayName;
+    private final boolean interrupting;
+
+    WorldEvent(String displayName, boolean interrupting) {
+        this.displayName = displayName;
+        this.interrupting = interrupting;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * @return True if the event stops a fast-forward, e.g. a rest, at the tick it happens
+     */
+    public boolean isInterrupting() {
+        return interrupting;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
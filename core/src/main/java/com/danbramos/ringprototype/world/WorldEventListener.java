@@ -0,0 +1,13 @@
+package com.danbramos.ringprototype.world;
+
+/**
+ * Notified by the {@link WorldSimulation} about the events rolled while the clock advanced
+ */
+public interface WorldEventListener {
+    /**
+     * Called once per occurrence, after the resources and the party are up to date with the whole advance
+     * @param event The event
+     * @param tick The world tick it happened at
+     */
+    void onWorldEvent(WorldEvent event, long tick);
+}
@@ -0,0 +1,249 @@
+package com.danbramos.ringprototype.world;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongArray;
+import com.danbramos.ringprototype.party.GameCharacter;
+import com.danbramos.ringprototype.party.PartyManager;
+import com.danbramos.ringprototype.resources.ResourceManager;
+import com.danbramos.ringprototype.resources.ResourceType;
+
+import java.util.Random;
+
+/**
+ * The overworld clock. Time advances in fixed ticks of one hour: one per tile travelled, and many at once
+ * when the party rests or camps, without any frames drawn in between.
+ * <p>
+ * A tick's rules don't depend on the previous tick, so an advance doesn't loop over its ticks. Rations,
+ * firewood and recovery build up in integer counters that are settled once at the end of the advance, so
+ * each resource and party member is updated at most once however many days pass. Random events aren't
+ * rolled per tick either: the tick of each event's next occurrence is drawn from a geometric distribution,
+ * and an advance jumps from one scheduled occurrence to the next. Nothing is allocated per advance.
+ */
+public class WorldSimulation {
+    public static final int TICKS_PER_DAY = 24;
+    public static final int TICKS_PER_TRAVEL_STEP = 1;
+    /** A night's rest, and how long one bundle of firewood burns */
+    public static final int NIGHT_TICKS = 8;
+    public static final int MAX_HOPE = 100;
+
+    private static final int TICKS_PER_RATION = TICKS_PER_DAY; // Each member eats one FOOD a day
+    private static final int HUNGER_HOPE_COST = 1; // Per ration that couldn't be eaten
+    private static final int CAMPFIRE_HOPE_GAIN = 1; // Per night by a fire
+    private static final int COLD_CAMP_HOPE_COST = 1; // Per night without firewood
+    private static final int REST_TICKS_PER_RECOVERY = 2; // One HP and one mana for every member
+    private static final int FORAGE_FOOD = 2;
+    private static final float TRAVEL_AMBUSH_CHANCE = 0.03f; // Per tick
+    private static final float REST_AMBUSH_CHANCE = 0.01f;
+    private static final float TRAVEL_FORAGE_CHANCE = 0.02f;
+    private static final long NEVER = Long.MAX_VALUE;
+    private static final WorldEvent[] EVENTS = WorldEvent.values();
+
+    private final PartyManager partyManager;
+    private final ResourceManager resourceManager;
+    private final Random random;
+    private final Array<WorldEventListener> listeners = new Array<>();
+
+    private long tick;
+    private WorldActivity scheduledActivity; // The activity the event schedule was drawn for
+    private final long[] nextEventTicks = new long[EVENTS.length];
+
+    // Built up by advances and settled at their end; remainders carry over to the next advance
+    private long rationTicks; // Member-ticks not yet paid for with a ration
+    private long fireTicks; // Rest ticks not yet paid for with firewood
+    private long recoveryTicks;
+    private int forageFinds;
+
+    // Events of the current advance, announced once the world is settled
+    private final IntArray firedEvents = new IntArray();
+    private final LongArray firedTicks = new LongArray();
+
+    public WorldSimulation(PartyManager partyManager, ResourceManager resourceManager) {
+        this(partyManager, resourceManager, new Random());
+    }
+
+    /**
+     * @param partyManager The party that eats and recovers
+     * @param resourceManager Where FOOD, FIREWOOD and HOPE are taken from
+     * @param random The source of the event rolls
+     */
+    public WorldSimulation(PartyManager partyManager, ResourceManager resourceManager, Random random) {
+        this.partyManager = partyManager;
+        this.resourceManager = resourceManager;
+        this.random = random;
+    }
+
+    /**
+     * Runs the clock forward. Stops early at the tick of an interrupting event such as an ambush.
+     * @param ticks Number of ticks to simulate
+     * @param activity What the party does during them
+     * @return Number of ticks actually simulated
+     */
+    public int advance(int ticks, WorldActivity activity) {
+        if (ticks <= 0) return 0;
+        if (activity != scheduledActivity) {
+            // Waiting times are memoryless, so redrawing them for the new chances is fair
+            schedule(activity);
+        }
+        firedEvents.clear();
+        firedTicks.clear();
+
+        long start = tick;
+        long end = tick + ticks;
+        boolean interrupted = false;
+        while (tick < end && !interrupted) {
+            long next = end;
+            for (long eventTick : nextEventTicks) {
+                next = Math.min(next, eventTick);
+            }
+            accumulate(next - tick, activity);
+            tick = next;
+
+            for (int i = 0; i < EVENTS.length; i++) {
+                if (nextEventTicks[i] != tick) continue;
+                WorldEvent event = EVENTS[i];
+                firedEvents.add(i);
+                firedTicks.add(tick);
+                if (event == WorldEvent.FORAGE) forageFinds++;
+                if (event.isInterrupting()) interrupted = true;
+                nextEventTicks[i] = after(tick, ticksUntilNext(chance(activity, event)));
+            }
+        }
+
+        settle();
+        for (int i = 0; i < firedEvents.size; i++) {
+            WorldEvent event = EVENTS[firedEvents.get(i)];
+            long eventTick = firedTicks.get(i);
+            Gdx.app.log("WorldSimulation", event + " on day " + getDay(eventTick) + ", hour " + eventTick % TICKS_PER_DAY);
+            // Iterate by index so a listener can unregister itself while being notified
+            for (int j = listeners.size - 1; j >= 0; j--) {
+                listeners.get(j).onWorldEvent(event, eventTick);
+            }
+        }
+        return (int) (tick - start);
+    }
+
+    private void accumulate(long ticks, WorldActivity activity) {
+        rationTicks += ticks * partyManager.getPartySize();
+        if (activity == WorldActivity.REST) {
+            fireTicks += ticks;
+            recoveryTicks += ticks;
+        }
+    }
+
+    /**
+     * Pays for everything accumulated with whole rations and bundles of firewood, in one change per resource
+     */
+    private void settle() {
+        long food = (long) resourceManager.getResourceAmount(ResourceType.FOOD) + (long) forageFinds * FORAGE_FOOD;
+        forageFinds = 0;
+        long rationsDue = rationTicks / TICKS_PER_RATION;
+        rationTicks %= TICKS_PER_RATION;
+        long eaten = Math.min(rationsDue, food);
+        long missed = rationsDue - eaten;
+
+        long firewood = resourceManager.getResourceAmount(ResourceType.FIREWOOD);
+        long nights = fireTicks / NIGHT_TICKS;
+        fireTicks %= NIGHT_TICKS;
+        long burnt = Math.min(nights, firewood);
+        long coldNights = nights - burnt;
+
+        long hope = resourceManager.getResourceAmount(ResourceType.HOPE)
+            + burnt * CAMPFIRE_HOPE_GAIN - coldNights * COLD_CAMP_HOPE_COST - missed * HUNGER_HOPE_COST;
+
+        setIfChanged(ResourceType.FOOD, food - eaten);
+        setIfChanged(ResourceType.FIREWOOD, firewood - burnt);
+        setIfChanged(ResourceType.HOPE, Math.max(0, Math.min(MAX_HOPE, hope)));
+        if (missed > 0) {
+            Gdx.app.log("WorldSimulation", "The party went without " + missed + " rations.");
+        }
+
+        long recovery = recoveryTicks / REST_TICKS_PER_RECOVERY;
+        recoveryTicks %= REST_TICKS_PER_RECOVERY;
+        if (recovery > 0 && missed == 0) {
+            // A party that went hungry during the advance doesn't recover
+            int amount = (int) Math.min(Integer.MAX_VALUE, recovery);
+            Array<GameCharacter> members = partyManager.getMembers();
+            for (int i = 0; i < members.size; i++) {
+                GameCharacter member = members.get(i);
+                if (member.getHealthPoints() < member.getMaxHealthPoints()) {
+                    member.heal((int) Math.min(amount, member.getMaxHealthPoints() - member.getHealthPoints()));
+                }
+                member.setManaPoints((int) Math.min(member.getMaxManaPoints(), (long) member.getManaPoints() + amount));
+            }
+        }
+    }
+
+    private void setIfChanged(ResourceType type, long amount) {
+        int value = (int) Math.min(Integer.MAX_VALUE, amount);
+        if (resourceManager.getResourceAmount(type) != value) {
+            resourceManager.setResourceAmount(type, value);
+        }
+    }
+
+    private void schedule(WorldActivity activity) {
+        scheduledActivity = activity;
+        for (int i = 0; i < EVENTS.length; i++) {
+            nextEventTicks[i] = after(tick, ticksUntilNext(chance(activity, EVENTS[i])));
+        }
+    }
+
+    /**
+     * Draws how many ticks pass until an event with a fixed chance per tick happens, i.e. the first success
+     * of repeated rolls, in one draw
+     */
+    private long ticksUntilNext(float chancePerTick) {
+        if (chancePerTick <= 0f) return NEVER;
+        if (chancePerTick >= 1f) return 1;
+        double roll = 1.0 - random.nextDouble(); // (0, 1]
+        return 1 + (long) (Math.log(roll) / Math.log(1.0 - chancePerTick));
+    }
+
+    private static long after(long from, long ticks) {
+        return ticks >= NEVER - from ? NEVER : from + ticks;
+    }
+
+    private static float chance(WorldActivity activity, WorldEvent event) {
+        switch (event) {
+            case AMBUSH:
+                return activity == WorldActivity.REST ? REST_AMBUSH_CHANCE : TRAVEL_AMBUSH_CHANCE;
+            case FORAGE:
+                return activity == WorldActivity.TRAVEL ? TRAVEL_FORAGE_CHANCE : 0f;
+            default:
+                return 0f;
+        }
+    }
+
+    public void addListener(WorldEventListener listener) {
+        if (listener != null && !listeners.contains(listener, true)) {
+            listeners.add(listener);
+        }
+    }
+
+    public void removeListener(WorldEventListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    /**
+     * @return Ticks since the start of the game
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The current day, starting at 1
+     */
+    public long getDay() {
+        return getDay(tick);
+    }
+
+    public int getHourOfDay() {
+        return (int) (tick % TICKS_PER_DAY);
+    }
+
+    private static long getDay(long tick) {
+        return tick / TICKS_PER_DAY + 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.danbramos.ringprototype;
+
+import com.danbramos.ringprototype.util.AliasTable;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+/**
+ * Checks that alias table samples follow the weights the table was built from
+ */
+public class AliasTableTest {
+    private static final int SAMPLES = 200000;
+
+    @Test
+    public void testSampleFrequenciesMatchWeights() {
+        float[] weights = {5f, 3f, 1f, 0f, 0.5f, -2f};
+        float total = 9.5f; // Negative weights count as zero
+        AliasTable table = new AliasTable(weights);
+        assertEquals(weights.length, table.size());
+
+        int[] counts = new int[weights.length];
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[table.sample(random)]++;
+        }
+        for (int i = 0; i < weights.length; i++) {
+            float expected = Math.max(0f, weights[i]) / total;
+            assertEquals("Frequency of index " + i, expected, counts[i] / (float) SAMPLES, 0.01f);
+        }
+        assertEquals("Zero weights are never drawn", 0, counts[3]);
+        assertEquals("Negative weights are never drawn", 0, counts[5]);
+    }
+
+    @Test
+    public void testSingleWeightAlwaysDrawn() {
+        AliasTable table = new AliasTable(new float[] {0f, 2f, 0f});
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(1, table.sample(random));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoPositiveWeightIsRejected() {
+        new AliasTable(new float[] {0f, -1f});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyWeightsAreRejected() {
+        new AliasTable(new float[0]);
+    }
+}
@@ -0,0 +1,99 @@
+package com.danbramos.ringprototype;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.danbramos.ringprototype.maps.FieldOfView;
+import com.danbramos.ringprototype.maps.TraversabilityMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+/**
+ * Checks the party's field of view: occlusion, and the entered/left tiles reported per move
+ */
+public class FieldOfViewTest {
+    private static final int RADIUS = 6;
+
+    @Test
+    public void testOpaqueTilesBlockSight() {
+        TraversabilityMap opaque = new TraversabilityMap(20, 20);
+        opaque.setBlocked(11, 10, true);
+        FieldOfView fieldOfView = new FieldOfView(opaque, RADIUS);
+        assertTrue(fieldOfView.update(10, 10));
+
+        assertTrue("The origin is visible", fieldOfView.isVisible(10, 10));
+        assertTrue("Opaque tiles themselves are visible", fieldOfView.isVisible(11, 10));
+        assertFalse("Tiles behind an opaque tile are hidden", fieldOfView.isVisible(13, 10));
+        assertTrue(fieldOfView.isVisible(7, 10));
+        assertFalse("Tiles beyond the radius are hidden", fieldOfView.isVisible(10, 10 + RADIUS + 1));
+    }
+
+    @Test
+    public void testUpdateOnlyRecomputesWhenNeeded() {
+        TraversabilityMap opaque = new TraversabilityMap(20, 20);
+        FieldOfView fieldOfView = new FieldOfView(opaque, RADIUS);
+        assertTrue(fieldOfView.update(5, 5));
+        assertFalse("Same origin, nothing to do", fieldOfView.update(5, 5));
+        assertTrue(fieldOfView.isVisible(8, 5));
+
+        opaque.setBlocked(6, 5, true);
+        fieldOfView.invalidate();
+        assertTrue(fieldOfView.update(5, 5));
+        assertFalse(fieldOfView.isVisible(8, 5));
+        assertTrue("The shadow of the new wall left view", fieldOfView.getLeftTiles().contains(FieldOfView.pack(8, 5)));
+        assertEquals("The wall itself was already in view", 0, fieldOfView.getEnteredTiles().size);
+    }
+
+    @Test
+    public void testEnteredAndLeftTilesTrackFreshResults() {
+        int width = 40;
+        int height = 30;
+        Random random = new Random(5);
+        TraversabilityMap opaque = new TraversabilityMap(width, height);
+        for (int i = 0; i < 150; i++) {
+            opaque.setBlocked(random.nextInt(width), random.nextInt(height), true);
+        }
+        FieldOfView fieldOfView = new FieldOfView(opaque, RADIUS);
+
+        // Visibility rebuilt only from the reported differences, like FogOfWar does
+        boolean[][] visible = new boolean[width][height];
+        int x = width / 2;
+        int y = height / 2;
+        for (int step = 0; step < 300; step++) {
+            int direction = random.nextInt(4);
+            int nextX = x + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+            int nextY = y + (direction == 2 ? 1 : direction == 3 ? -1 : 0);
+            if (step % 50 == 0) {
+                // Jump, as when a save is loaded
+                nextX = random.nextInt(width);
+                nextY = random.nextInt(height);
+            }
+            if (nextX < 0 || nextY < 0 || nextX >= width || nextY >= height) continue;
+            x = nextX;
+            y = nextY;
+            fieldOfView.update(x, y);
+
+            apply(visible, fieldOfView.getLeftTiles(), false);
+            apply(visible, fieldOfView.getEnteredTiles(), true);
+
+            FieldOfView fresh = new FieldOfView(opaque, RADIUS);
+            fresh.update(x, y);
+            for (int tileY = 0; tileY < height; tileY++) {
+                for (int tileX = 0; tileX < width; tileX++) {
+                    assertEquals("Tile " + tileX + "," + tileY + " after step " + step,
+                        fresh.isVisible(tileX, tileY), visible[tileX][tileY]);
+                }
+            }
+        }
+    }
+
+    private static void apply(boolean[][] visible, IntArray tiles, boolean value) {
+        for (int i = 0; i < tiles.size; i++) {
+            int x = FieldOfView.unpackX(tiles.get(i));
+            int y = FieldOfView.unpackY(tiles.get(i));
+            assertEquals("Tile reported twice or without a change", !value, visible[x][y]);
+            visible[x][y] = value;
+        }
+    }
+}
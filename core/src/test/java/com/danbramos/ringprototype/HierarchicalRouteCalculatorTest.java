@@ -0,0 +1,170 @@
+package com.danbramos.ringprototype;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.IntArray;
+import com.danbramos.ringprototype.maps.MapCache;
+import com.danbramos.ringprototype.navigation.HierarchicalRouteCalculator;
+import com.danbramos.ringprototype.navigation.RouteCalculator;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the hierarchical routes against the flat A* of RouteCalculator, before and after terrain changes
+ */
+public class HierarchicalRouteCalculatorTest {
+    private static final String MAP_PATH = "tilemaps/test.tmx";
+    private static final int CLUSTER_SIZE = 4;
+
+    @Mock
+    private Application application;
+
+    @Mock
+    private Files files;
+
+    @Mock
+    private AssetManager assetManager;
+
+    private final IntArray route = new IntArray();
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        Gdx.app = application;
+        when(Gdx.app.getLogLevel()).thenReturn(Application.LOG_DEBUG);
+        // No region files, so the cache parses the maps
+        Gdx.files = files;
+        when(files.internal(anyString())).thenReturn(mock(FileHandle.class));
+    }
+
+    @Test
+    public void testCostsMatchFlatSearchAfterTerrainChanges() {
+        // Two corridors along rows 1 and 6, joined at both ends; everything else is a wall
+        MapCache.CachedMap map = loadMap(16, 8);
+        for (int y = 0; y < 8; y++) {
+            for (int x = 0; x < 16; x++) {
+                boolean corridor = y == 1 || y == 6 || ((x == 0 || x == 15) && y >= 1 && y <= 6);
+                map.setPassable(x, y, corridor);
+            }
+        }
+        HierarchicalRouteCalculator hierarchical = new HierarchicalRouteCalculator(map, CLUSTER_SIZE);
+        RouteCalculator flat = new RouteCalculator(map);
+
+        assertEquals(15, flatCost(flat, map));
+        assertEquals(15, hierarchicalCost(hierarchical, map));
+
+        // A bog on the lower corridor makes the loop through the upper one cheaper
+        map.setMoveCost(7, 1, 50);
+        assertEquals(25, flatCost(flat, map));
+        assertEquals(25, hierarchicalCost(hierarchical, map));
+
+        // With the upper corridor blocked, wading through the bog is the only way
+        map.setPassable(7, 6, false);
+        assertEquals(64, flatCost(flat, map));
+        assertEquals(64, hierarchicalCost(hierarchical, map));
+
+        map.setPassable(7, 1, false);
+        assertFalse(flat.findPath(0, 1, 15, 1, route));
+        assertFalse(hierarchical.findPath(0, 1, 15, 1, route));
+
+        map.setPassable(7, 6, true);
+        assertEquals(25, flatCost(flat, map));
+        assertEquals(25, hierarchicalCost(hierarchical, map));
+
+        hierarchical.dispose();
+    }
+
+    @Test
+    public void testRouteAvoidsNewWall() {
+        MapCache.CachedMap map = loadMap(16, 16);
+        HierarchicalRouteCalculator hierarchical = new HierarchicalRouteCalculator(map, CLUSTER_SIZE);
+        RouteCalculator flat = new RouteCalculator(map);
+
+        assertTrue(hierarchical.findPath(1, 2, 14, 13, route));
+        assertEquals(24, routeCost(map, 1, 2, 14, 13));
+
+        // A wall across the map with a gap at the top, built after the abstract graph
+        for (int y = 0; y < 15; y++) {
+            map.setPassable(8, y, false);
+        }
+        assertTrue(flat.findPath(1, 2, 14, 13, route));
+        int flatCost = routeCost(map, 1, 2, 14, 13);
+        assertTrue(hierarchical.findPath(1, 2, 14, 13, route));
+        int hierarchicalCost = routeCost(map, 1, 2, 14, 13);
+        assertTrue("Hierarchical route must pass the gap", route.contains(RouteCalculator.pack(8, 15)));
+        assertTrue("Hierarchical route can't beat the cheapest route", hierarchicalCost >= flatCost);
+
+        hierarchical.dispose();
+    }
+
+    /**
+     * Builds an open map through the MapCache, so it derives its grids the way the game does
+     */
+    private MapCache.CachedMap loadMap(int width, int height) {
+        TiledMap tiledMap = new TiledMap();
+        MapProperties properties = tiledMap.getProperties();
+        properties.put("width", width);
+        properties.put("height", height);
+        properties.put("tilewidth", 16);
+        properties.put("tileheight", 16);
+        TiledMapTileLayer ground = new TiledMapTileLayer(width, height, 16, 16);
+        ground.setName("Ground");
+        StaticTiledMapTile grass = new StaticTiledMapTile(new TextureRegion());
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                ground.setCell(x, y, new TiledMapTileLayer.Cell().setTile(grass));
+            }
+        }
+        tiledMap.getLayers().add(ground);
+
+        when(assetManager.isLoaded(MAP_PATH, TiledMap.class)).thenReturn(true);
+        when(assetManager.get(MAP_PATH, TiledMap.class)).thenReturn(tiledMap);
+        return new MapCache(assetManager).get(MAP_PATH);
+    }
+
+    private int flatCost(RouteCalculator flat, MapCache.CachedMap map) {
+        assertTrue(flat.findPath(0, 1, 15, 1, route));
+        return routeCost(map, 0, 1, 15, 1);
+    }
+
+    private int hierarchicalCost(HierarchicalRouteCalculator hierarchical, MapCache.CachedMap map) {
+        assertTrue(hierarchical.findPath(0, 1, 15, 1, route));
+        return routeCost(map, 0, 1, 15, 1);
+    }
+
+    /**
+     * Walks the last route, checking every step, and adds up the cost of entering each tile
+     */
+    private int routeCost(MapCache.CachedMap map, int startX, int startY, int goalX, int goalY) {
+        int x = startX;
+        int y = startY;
+        int cost = 0;
+        for (int i = 0; i < route.size; i++) {
+            int nextX = RouteCalculator.unpackX(route.get(i));
+            int nextY = RouteCalculator.unpackY(route.get(i));
+            assertEquals("Steps must be between neighbouring tiles", 1, Math.abs(nextX - x) + Math.abs(nextY - y));
+            assertTrue("Route enters a blocked tile", map.isPassable(nextX, nextY));
+            cost += map.getMoveCost(nextX, nextY);
+            x = nextX;
+            y = nextY;
+        }
+        assertEquals(goalX, x);
+        assertEquals(goalY, y);
+        return cost;
+    }
+}
@@ -0,0 +1,145 @@
+package com.danbramos.ringprototype;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.Array;
+import com.danbramos.ringprototype.party.GameCharacter;
+import com.danbramos.ringprototype.party.PartyManager;
+import com.danbramos.ringprototype.resources.DefaultResourceManager;
+import com.danbramos.ringprototype.resources.ResourceManager;
+import com.danbramos.ringprototype.resources.ResourceType;
+import com.danbramos.ringprototype.world.WorldActivity;
+import com.danbramos.ringprototype.world.WorldEvent;
+import com.danbramos.ringprototype.world.WorldEventListener;
+import com.danbramos.ringprototype.world.WorldSimulation;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Random;
+
+/**
+ * Checks the overworld clock: what resting and travelling cost, and that an ambush cuts an advance short
+ */
+public class WorldSimulationTest {
+    private static final int PARTY_SIZE = 4;
+
+    @Mock
+    private Application application;
+
+    @Mock
+    private PartyManager partyManager;
+
+    private final Array<GameCharacter> members = new Array<>();
+    private ResourceManager resourceManager;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        Gdx.app = application;
+        when(Gdx.app.getLogLevel()).thenReturn(Application.LOG_DEBUG);
+
+        for (int i = 0; i < PARTY_SIZE; i++) {
+            GameCharacter member = mock(GameCharacter.class);
+            when(member.getHealthPoints()).thenReturn(10);
+            when(member.getMaxHealthPoints()).thenReturn(30);
+            when(member.getManaPoints()).thenReturn(0);
+            when(member.getMaxManaPoints()).thenReturn(20);
+            members.add(member);
+        }
+        when(partyManager.getMembers()).thenReturn(members);
+        when(partyManager.getPartySize()).thenReturn(PARTY_SIZE);
+
+        resourceManager = new DefaultResourceManager();
+        resourceManager.setResourceAmount(ResourceType.FOOD, 20);
+        resourceManager.setResourceAmount(ResourceType.FIREWOOD, 10);
+        resourceManager.setResourceAmount(ResourceType.HOPE, 75);
+    }
+
+    @Test
+    public void testRestingEatsBurnsAndHeals() {
+        WorldSimulation world = new WorldSimulation(partyManager, resourceManager, calmRandom());
+        assertEquals(3 * WorldSimulation.TICKS_PER_DAY, world.advance(3 * WorldSimulation.TICKS_PER_DAY, WorldActivity.REST));
+
+        // One ration per member and day, one bundle of firewood and one hope per night
+        assertEquals(20 - 3 * PARTY_SIZE, resourceManager.getResourceAmount(ResourceType.FOOD));
+        assertEquals(1, resourceManager.getResourceAmount(ResourceType.FIREWOOD));
+        assertEquals(84, resourceManager.getResourceAmount(ResourceType.HOPE));
+        for (GameCharacter member : members) {
+            verify(member).heal(20);
+            verify(member).setManaPoints(20);
+        }
+    }
+
+    @Test
+    public void testHungryColdPartyLosesHopeAndDoesNotRecover() {
+        resourceManager.setResourceAmount(ResourceType.FOOD, 0);
+        resourceManager.setResourceAmount(ResourceType.FIREWOOD, 0);
+        WorldSimulation world = new WorldSimulation(partyManager, resourceManager, calmRandom());
+        world.advance(WorldSimulation.TICKS_PER_DAY, WorldActivity.REST);
+
+        // Four missed rations and three cold nights
+        assertEquals(75 - PARTY_SIZE - 3, resourceManager.getResourceAmount(ResourceType.HOPE));
+        assertEquals(0, resourceManager.getResourceAmount(ResourceType.FOOD));
+        for (GameCharacter member : members) {
+            verify(member, never()).heal(anyInt());
+        }
+    }
+
+    @Test
+    public void testTravelAdvancesClock() {
+        WorldSimulation world = new WorldSimulation(partyManager, resourceManager, calmRandom());
+        for (int i = 0; i < 30; i++) {
+            assertEquals(1, world.advance(WorldSimulation.TICKS_PER_TRAVEL_STEP, WorldActivity.TRAVEL));
+        }
+        assertEquals(30, world.getTick());
+        assertEquals(2, world.getDay());
+        assertEquals(6, world.getHourOfDay());
+        // 30 hours for each of the four members add up to five rations
+        assertEquals(15, resourceManager.getResourceAmount(ResourceType.FOOD));
+    }
+
+    @Test
+    public void testAmbushInterruptsRest() {
+        // Every roll comes up at once, so the ambush falls on the first tick
+        Random random = new Random() {
+            @Override
+            public double nextDouble() {
+                return 0.0;
+            }
+        };
+        WorldSimulation world = new WorldSimulation(partyManager, resourceManager, random);
+        final Array<WorldEvent> events = new Array<>();
+        world.addListener(new WorldEventListener() {
+            @Override
+            public void onWorldEvent(WorldEvent event, long tick) {
+                events.add(event);
+            }
+        });
+
+        assertEquals(1, world.advance(WorldSimulation.NIGHT_TICKS, WorldActivity.REST));
+        assertEquals(1, world.getTick());
+        assertEquals(1, events.size);
+        assertEquals(WorldEvent.AMBUSH, events.first());
+    }
+
+    /**
+     * A random source whose events are thousands of ticks away, so the tests only see the regular costs
+     */
+    private static Random calmRandom() {
+        return new Random() {
+            @Override
+            public double nextDouble() {
+                return Math.nextDown(1.0);
+            }
+        };
+    }
+}
@@ -0,0 +1,59 @@
+package com.danbramos.ringprototype.lwjgl3;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TmxMapLoader;
+import com.danbramos.ringprototype.maps.RegionFile;
+import com.danbramos.ringprototype.maps.RegionFileWriter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Writes the region files of .tmx maps without opening a window, see {@link RegionFileWriter}.
+ * Run by the convertRegionFiles Gradle task from the assets folder, with the map paths as arguments.
+ */
+public class RegionFileConverter {
+    public static void main(final String[] args) {
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                // Loading a map creates its tileset textures; nothing is drawn, so their GL calls go to a stub
+                Gdx.gl = Gdx.gl20 = createStubGL();
+                boolean converted = true;
+                for (String mapPath : args) {
+                    TiledMap map = new TmxMapLoader().load(mapPath);
+                    converted &= RegionFileWriter.convert(map, mapPath, Gdx.files.local(RegionFile.pathFor(mapPath)));
+                    map.dispose();
+                }
+                if (!converted) {
+                    Gdx.app.error("RegionFileConverter", "Could not convert every map, see above.");
+                    // The headless application always exits with 0, and the build has to fail here
+                    System.exit(1);
+                }
+                Gdx.app.exit();
+            }
+        }, new HeadlessApplicationConfiguration());
+    }
+
+    /**
+     * @return A GL20 whose methods do nothing and return zero, false or null
+     */
+    private static GL20 createStubGL() {
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] {GL20.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] arguments) {
+                Class<?> type = method.getReturnType();
+                if (type == int.class) return 0;
+                if (type == float.class) return 0f;
+                if (type == boolean.class) return false;
+                return null;
+            }
+        });
+    }
+}